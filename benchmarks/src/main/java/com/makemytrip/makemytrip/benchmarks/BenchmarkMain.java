@@ -0,0 +1,36 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of benchmarks.jar. Hands the usual JMH command line to JMH's own main
+ * (so -l, -lp and -h list or explain instead of running), but writes JSON results to
+ * jmh-result.json unless -rf / -rff say otherwise, so runs of two builds can be
+ * compared directly (e.g. with jmh.morethan.io).
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {}
+
+    public static void main(String[] args) throws Exception {
+        List<String> cli = new ArrayList<>();
+        if (!hasOption(args, "-rf")) {
+            cli.add("-rf");
+            cli.add("json");
+        }
+        if (!hasOption(args, "-rff")) {
+            cli.add("-rff");
+            cli.add("jmh-result.json");
+        }
+        cli.addAll(List.of(args));
+        org.openjdk.jmh.Main.main(cli.toArray(new String[0]));
+    }
+
+    private static boolean hasOption(String[] args, String option) {
+        for (String a : args) {
+            if (a.equals(option) || a.startsWith(option + "=")) return true;
+        }
+        return false;
+    }
+}
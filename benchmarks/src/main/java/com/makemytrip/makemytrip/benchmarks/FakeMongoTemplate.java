@@ -0,0 +1,51 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import com.mongodb.client.MongoClients;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MongoTemplate whose bulk operations are counted and dropped, so the pricing sweep
+ * can run its full write path without a server. The client is never used for I/O.
+ */
+final class FakeMongoTemplate extends MongoTemplate {
+
+    final LongAdder bulkOps = new LongAdder();
+    final LongAdder executes = new LongAdder();
+
+    FakeMongoTemplate() {
+        super(MongoClients.create("mongodb://localhost:1"), "benchmarks");
+    }
+
+    @Override
+    public BulkOperations bulkOps(BulkOperations.BulkMode mode, Class<?> entityClass) {
+        return discardingBulk();
+    }
+
+    @Override
+    public BulkOperations bulkOps(BulkOperations.BulkMode mode, String collectionName) {
+        return discardingBulk();
+    }
+
+    @Override
+    public BulkOperations bulkOps(BulkOperations.BulkMode mode, Class<?> entityType, String collectionName) {
+        return discardingBulk();
+    }
+
+    private BulkOperations discardingBulk() {
+        return (BulkOperations) Proxy.newProxyInstance(
+                BulkOperations.class.getClassLoader(),
+                new Class<?>[]{BulkOperations.class},
+                (self, method, args) -> {
+                    if ("execute".equals(method.getName())) {
+                        executes.increment();
+                        return null;
+                    }
+                    bulkOps.increment();
+                    return self;
+                });
+    }
+}
@@ -0,0 +1,107 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * In-memory stand-in for a Spring Data repository interface, built with a dynamic proxy.
+ *
+ * The CrudRepository basics (findAll, findById, findAllById, save, insert, saveAll, count,
+ * existsById, deleteById) work on a LinkedHashMap. Derived / @Query methods a
+ * benchmark needs are registered by name with on(); calling anything else fails loudly
+ * so a benchmark never silently measures a no-op.
+ */
+final class FakeRepository<R, T> implements InvocationHandler {
+
+    private final Class<R> repositoryType;
+    private final Function<T, String> idOf;
+    private final Map<String, T> rows = new LinkedHashMap<>();
+    private final Map<String, Function<Object[], Object>> queries = new HashMap<>();
+    private final R proxy;
+
+    private FakeRepository(Class<R> repositoryType, Function<T, String> idOf) {
+        this.repositoryType = repositoryType;
+        this.idOf = idOf;
+        this.proxy = repositoryType.cast(Proxy.newProxyInstance(
+                repositoryType.getClassLoader(), new Class<?>[]{repositoryType}, this));
+    }
+
+    static <R, T> FakeRepository<R, T> of(Class<R> repositoryType, Function<T, String> idOf) {
+        return new FakeRepository<>(repositoryType, idOf);
+    }
+
+    FakeRepository<R, T> on(String method, Function<Object[], Object> impl) {
+        queries.put(method, impl);
+        return this;
+    }
+
+    FakeRepository<R, T> add(T entity) {
+        rows.put(idOf.apply(entity), entity);
+        return this;
+    }
+
+    Collection<T> rows() {
+        return rows.values();
+    }
+
+    R repository() {
+        return proxy;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object invoke(Object self, Method method, Object[] args) {
+        String name = method.getName();
+        Function<Object[], Object> q = queries.get(name);
+        if (q != null) {
+            return q.apply(args);
+        }
+        int argc = args == null ? 0 : args.length;
+        switch (name) {
+            case "findAll":
+                if (argc == 0) return new ArrayList<>(rows.values());
+                break;
+            case "findById":
+                return Optional.ofNullable(rows.get((String) args[0]));
+            case "existsById":
+                return rows.containsKey((String) args[0]);
+            case "findAllById": {
+                List<T> out = new ArrayList<>();
+                for (Object id : (Iterable<?>) args[0]) {
+                    T t = rows.get((String) id);
+                    if (t != null) out.add(t);
+                }
+                return out;
+            }
+            case "insert":
+            case "save":
+                add((T) args[0]);
+                return args[0];
+            case "saveAll": {
+                List<T> out = new ArrayList<>();
+                for (Object o : (Iterable<?>) args[0]) {
+                    add((T) o);
+                    out.add((T) o);
+                }
+                return out;
+            }
+            case "count":
+                return (long) rows.size();
+            case "deleteById":
+                rows.remove((String) args[0]);
+                return null;
+            case "toString":
+                return "FakeRepository(" + repositoryType.getSimpleName() + ")";
+            case "hashCode":
+                return System.identityHashCode(self);
+            case "equals":
+                return self == args[0];
+            default:
+                break;
+        }
+        throw new UnsupportedOperationException(repositoryType.getSimpleName() + "." + name + " is not faked");
+    }
+}
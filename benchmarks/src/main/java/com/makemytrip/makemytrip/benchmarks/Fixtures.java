@@ -0,0 +1,289 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import com.makemytrip.makemytrip.config.PricingConfig;
+import com.makemytrip.makemytrip.models.*;
+import com.makemytrip.makemytrip.repositories.*;
+import com.makemytrip.makemytrip.services.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Seeded synthetic data and hand-wired services for the benchmarks.
+ * Everything is generated from a fixed seed, so runs of different builds see the same data.
+ */
+final class Fixtures {
+
+    static final long SEED = 42L;
+
+    private static final String[] CITIES = {
+            "Goa Beach", "Manali Hills", "Delhi", "Mumbai", "Chennai", "Bengaluru", "Jaipur Heritage",
+            "Andaman Island", "Munnar", "Kolkata", "Hyderabad", "Rishikesh", "Udaipur", "Pondicherry"
+    };
+    private static final String[] AMENITIES = {
+            "pool, spa", "bar, lounge", "restaurant, buffet", "garden, park view", "wifi",
+            "5-star luxury resort", "museum nearby", "nightlife, club access", "cafe, heritage walk"
+    };
+
+    final Random rnd = new Random(SEED);
+    final List<Flight> flights = new ArrayList<>();
+    final List<Hotel> hotels = new ArrayList<>();
+    final List<RoomType> rooms = new ArrayList<>();
+    final List<UserInteraction> interactions = new ArrayList<>();
+    final List<RecommendationFeedback> feedback = new ArrayList<>();
+    final List<Booking> bookings = new ArrayList<>();
+    final List<FlightDemand> demand = new ArrayList<>();
+
+    Fixtures(int flightCount, int hotelCount, int users, int interactionsPerUser) {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < flightCount; i++) {
+            Flight f = new Flight();
+            f.setId("F" + i);
+            f.setFlightName("Air " + (char) ('A' + i % 26) + (100 + i % 900));
+            f.setFrom(CITIES[rnd.nextInt(CITIES.length)]);
+            f.setTo(CITIES[rnd.nextInt(CITIES.length)]);
+            f.setDepartureTime(today.plusDays(rnd.nextInt(365)) + "T" + String.format("%02d:00", rnd.nextInt(24)));
+            f.setArrivalTime(f.getDepartureTime());
+            f.setBasePrice(2_000 + rnd.nextInt(13_000));
+            f.setCurrentPrice(f.getBasePrice());
+            f.setAvailableSeats(180);
+            flights.add(f);
+        }
+        for (int i = 0; i < hotelCount; i++) {
+            Hotel h = new Hotel();
+            h.setId("H" + i);
+            h.setHotelName("Hotel " + i + (i % 7 == 0 ? " Resort & Spa" : ""));
+            h.setLocation(CITIES[rnd.nextInt(CITIES.length)]);
+            h.setAmenities(AMENITIES[rnd.nextInt(AMENITIES.length)]);
+            h.setDescription("Stay near the " + CITIES[rnd.nextInt(CITIES.length)].toLowerCase() + " with "
+                    + AMENITIES[rnd.nextInt(AMENITIES.length)]);
+            h.setPricePerNight(1_500 + rnd.nextInt(20_000));
+            h.setAvailableRooms(40);
+            hotels.add(h);
+            for (int r = 0; r < 4; r++) {
+                RoomType rt = new RoomType();
+                rt.setId(h.getId() + "-R" + r);
+                rt.setHotelId(h.getId());
+                rt.setName("Room " + r);
+                rt.setPricePerNight(h.getPricePerNight() * (1.0 + 0.25 * r));
+                rt.setAvailableCount(10);
+                rooms.add(rt);
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int u = 0; u < users; u++) {
+            for (int i = 0; i < interactionsPerUser; i++) {
+                boolean flight = rnd.nextBoolean() && !flights.isEmpty() || hotels.isEmpty();
+                String id = flight ? flights.get(rnd.nextInt(flights.size())).getId()
+                        : hotels.get(rnd.nextInt(hotels.size())).getId();
+                UserInteraction ui = new UserInteraction("U" + u, flight ? "flight" : "hotel", id,
+                        rnd.nextInt(5) == 0 ? "book" : "view", now.minusMinutes(i));
+                ui.setId("I" + u + "-" + i);
+                interactions.add(ui);
+            }
+            for (int i = 0; i < 5 && !hotels.isEmpty(); i++) {
+                RecommendationFeedback fb = new RecommendationFeedback("U" + u, "hotel",
+                        hotels.get(rnd.nextInt(hotels.size())).getId(), false, now);
+                fb.setId("FB" + u + "-" + i);
+                feedback.add(fb);
+            }
+        }
+        for (int i = 0; i < flightCount / 2; i++) {
+            Booking b = new Booking();
+            b.setId("B" + i);
+            b.setBookingType(i % 3 == 0 ? "HOTEL" : "FLIGHT");
+            b.setBookingRef(i % 3 == 0 && !hotels.isEmpty() ? hotels.get(rnd.nextInt(hotels.size())).getId()
+                    : flights.get(rnd.nextInt(flights.size())).getId());
+            b.setBookingTime(now.minusHours(rnd.nextInt(168)));
+            b.setStatus("CONFIRMED");
+            bookings.add(b);
+        }
+        long nowHour = System.currentTimeMillis() / 3_600_000L;
+        for (Booking b : bookings) {
+            demand.add(new FlightDemand(b.getBookingRef(), nowHour - rnd.nextInt(168), 1 + rnd.nextInt(6)));
+        }
+    }
+
+    FlightRepository flightRepository() {
+        FakeRepository<FlightRepository, Flight> repo = FakeRepository.of(FlightRepository.class, Flight::getId);
+        flights.forEach(repo::add);
+        repo.on("findPricingSnapshot", args -> new ArrayList<>(flights));
+        repo.on("findPriceById", args -> repo.repository().findById((String) args[0]));
+        repo.on("findThemeSnapshot", args -> new ArrayList<>(flights));
+        return repo.repository();
+    }
+
+    HotelRepository hotelRepository() {
+        FakeRepository<HotelRepository, Hotel> repo = FakeRepository.of(HotelRepository.class, Hotel::getId);
+        hotels.forEach(repo::add);
+        repo.on("findThemeSnapshot", args -> new ArrayList<>(hotels));
+        return repo.repository();
+    }
+
+    RoomRepository roomRepository() {
+        FakeRepository<RoomRepository, RoomType> repo = FakeRepository.of(RoomRepository.class, RoomType::getId);
+        rooms.forEach(repo::add);
+        repo.on("findPricingSnapshot", args -> new ArrayList<>(rooms));
+        repo.on("findByHotelId", args -> rooms.stream()
+                .filter(r -> args[0].equals(r.getHotelId())).collect(Collectors.toList()));
+        return repo.repository();
+    }
+
+    UserInteractionRepository interactionRepository() {
+        FakeRepository<UserInteractionRepository, UserInteraction> repo =
+                FakeRepository.of(UserInteractionRepository.class, UserInteraction::getId);
+        interactions.forEach(repo::add);
+        Map<String, List<UserInteraction>> byUser = interactions.stream()
+                .sorted(Comparator.comparing(UserInteraction::getTimestamp).reversed())
+                .collect(Collectors.groupingBy(UserInteraction::getUserId, LinkedHashMap::new, Collectors.toList()));
+        repo.on("findByUserIdOrderByTimestampDesc", args -> {
+            List<UserInteraction> all = byUser.getOrDefault((String) args[0], List.of());
+            int n = args.length > 1 ? Math.min(all.size(), ((Pageable) args[1]).getPageSize()) : all.size();
+            return new ArrayList<>(all.subList(0, n));
+        });
+        return repo.repository();
+    }
+
+    RecommendationFeedbackRepository feedbackRepository() {
+        FakeRepository<RecommendationFeedbackRepository, RecommendationFeedback> repo =
+                FakeRepository.of(RecommendationFeedbackRepository.class, RecommendationFeedback::getId);
+        feedback.forEach(repo::add);
+        repo.on("findByUserId", args -> feedback.stream()
+                .filter(f -> args[0].equals(f.getUserId())).collect(Collectors.toList()));
+        return repo.repository();
+    }
+
+    BookingRepository bookingRepository() {
+        FakeRepository<BookingRepository, Booking> repo = FakeRepository.of(BookingRepository.class, Booking::getId);
+        bookings.forEach(repo::add);
+        repo.on("countBookingsByHour", args -> new ArrayList<>(demand));
+        return repo.repository();
+    }
+
+    ThemeIndex themeIndex() {
+        ThemeIndex index = new ThemeIndex();
+        inject(index, "flightRepository", flightRepository());
+        inject(index, "hotelRepo", hotelRepository());
+        inject(index, "themesFile", new ClassPathResource("themes.txt"));
+        try {
+            index.init();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        index.ensureLoaded();
+        return index;
+    }
+
+    TrendingService trendingService(ThemeIndex themeIndex) {
+        TrendingService t = new TrendingService();
+        inject(t, "themeIndex", themeIndex);
+        inject(t, "halfLifeHours", 24.0);
+        inject(t, "capacity", 5000);
+        t.init();
+        bookings.forEach(t::recordBooking);
+        interactions.forEach(t::recordInteraction);
+        return t;
+    }
+
+    RecommendationService recommendationService(ThemeIndex themeIndex) {
+        RecommendationService s = new RecommendationService();
+        inject(s, "profileService", profileService(themeIndex));
+        inject(s, "trendingService", trendingService(themeIndex));
+        inject(s, "itemSimilarity", new ItemSimilarityService());
+        inject(s, "flightRepository", flightRepository());
+        inject(s, "hotelRepo", hotelRepository());
+        inject(s, "themeIndex", themeIndex);
+        inject(s, "contentVectors", contentVectorIndex(128));
+        inject(s, "themeWeight", 0.6);
+        inject(s, "trendWeight", 0.25);
+        inject(s, "priceWeight", 0.15);
+        inject(s, "candidatesPerSlot", 4);
+        return s;
+    }
+
+    /** Content vectors of the seeded catalog, built (rebuild) before returning. */
+    ContentVectorIndex contentVectorIndex(int dim) {
+        ContentVectorIndex index = new ContentVectorIndex();
+        inject(index, "flightRepository", flightRepository());
+        inject(index, "hotelRepo", hotelRepository());
+        inject(index, "dim", dim);
+        index.init();
+        index.ensureLoaded();
+        return index;
+    }
+
+    /** Profiles are backfilled from the seeded history on first read, then served from the fake store. */
+    UserProfileService profileService(ThemeIndex themeIndex) {
+        UserProfileService p = new UserProfileService();
+        inject(p, "profileRepository", FakeRepository.of(UserProfileRepository.class, UserProfile::getId).repository());
+        inject(p, "interactionRepository", interactionRepository());
+        inject(p, "feedbackRepository", feedbackRepository());
+        inject(p, "flightRepository", flightRepository());
+        inject(p, "hotelRepo", hotelRepository());
+        inject(p, "themeIndex", themeIndex);
+        inject(p, "halfLifeDays", 30.0);
+        inject(p, "recentItems", 50);
+        inject(p, "minThemeShare", 0.1);
+        inject(p, "interactionWindow", 200);
+        return p;
+    }
+
+    HolidayCalendar holidayCalendar() {
+        HolidayCalendar c = new HolidayCalendar();
+        inject(c, "calendarRepository",
+                FakeRepository.of(PricingCalendarRepository.class, PricingCalendar::getId).repository());
+        inject(c, "defaultHolidays", List.of("01-01", "08-15", "10-02", "12-25"));
+        inject(c, "defaultSurchargePct", 20.0);
+        inject(c, "yearsAhead", 3);
+        c.init();
+        return c;
+    }
+
+    /**
+     * DynamicPricingService wired to fake repositories and a Mongo template that drops
+     * writes, so a sweep exercises load, demand, compute and the bulk write path.
+     */
+    DynamicPricingService pricingService(FakeMongoTemplate mongo, int partitions, int poolSize) {
+        FlightDemandTracker tracker = new FlightDemandTracker();
+        inject(tracker, "bookingRepository", bookingRepository());
+
+        PriceHistoryService history = new PriceHistoryService();
+        inject(history, "mongoTemplate", mongo);
+        inject(history, "bucketRepository",
+                FakeRepository.of(PriceHistoryBucketRepository.class, PriceHistoryBucket::getId).repository());
+        inject(history, "legacyRepository",
+                FakeRepository.of(PriceHistoryRepository.class, PriceHistory::getId).repository());
+
+        DynamicPricingService s = new DynamicPricingService();
+        inject(s, "flightRepository", flightRepository());
+        inject(s, "roomRepository", roomRepository());
+        inject(s, "demandTracker", tracker);
+        inject(s, "mongoTemplate", mongo);
+        inject(s, "priceHistoryService", history);
+        inject(s, "priceCache", new FlightPriceCache(flights.size() * 2 + 16));
+        inject(s, "holidayCalendar", holidayCalendar());
+        inject(s, "pricingExecutor", new PricingConfig().pricingExecutor(poolSize, partitions));
+        inject(s, "partitionCount", partitions);
+        inject(s, "poolSize", poolSize);
+        inject(s, "writeBatchSize", 1000);
+        inject(s, "sweepDeadlineMs", 600_000L);
+        return s;
+    }
+
+    static void inject(Object target, String field, Object value) {
+        Field f = ReflectionUtils.findField(target.getClass(), field);
+        if (f == null) {
+            throw new IllegalStateException(target.getClass().getSimpleName() + " has no field " + field);
+        }
+        ReflectionUtils.makeAccessible(f);
+        ReflectionUtils.setField(f, target, value);
+    }
+}
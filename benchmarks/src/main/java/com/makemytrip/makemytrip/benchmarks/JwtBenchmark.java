@@ -0,0 +1,43 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import com.makemytrip.makemytrip.config.JwtUtil;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil on the request path: signing a token at login, and the validate + extract
+ * calls every authenticated request makes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    JwtUtil jwt;
+    String token;
+
+    @Setup
+    public void setup() {
+        jwt = new JwtUtil();
+        token = jwt.generateToken("U1", "user1@example.com", "USER");
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwt.generateToken("U1", "user1@example.com", "USER");
+    }
+
+    @Benchmark
+    public boolean validate() {
+        return jwt.isTokenValid(token);
+    }
+
+    @Benchmark
+    public String validateAndExtract() {
+        return jwt.isTokenValid(token) ? jwt.extractUserId(token) : null;
+    }
+}
@@ -0,0 +1,103 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import com.makemytrip.makemytrip.services.DynamicPricingService;
+import com.makemytrip.makemytrip.services.HolidayCalendar;
+import com.makemytrip.makemytrip.services.PriceTable;
+import com.makemytrip.makemytrip.services.PricingEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pricing hot paths:
+ *  - priceOne: the rule for a single product (PricingEngine.priceCents)
+ *  - repriceTable: one engine pass over a full column table (rows param)
+ *  - fullSweep: DynamicPricingService.evaluateAndAdjustPrices end to end against
+ *    fake repositories, with Mongo writes counted and dropped
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class PricingBenchmark {
+
+    @State(Scope.Thread)
+    public static class One {
+        final long[] bases = new long[1024];
+        final int[] demands = new int[1024];
+        int i;
+
+        @Setup
+        public void setup() {
+            Random rnd = new Random(Fixtures.SEED);
+            for (int k = 0; k < bases.length; k++) {
+                bases[k] = 200_000L + rnd.nextInt(1_300_000);
+                demands[k] = rnd.nextInt(30);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Table {
+        @Param({"1000000"})
+        int rows;
+
+        PriceTable table;
+        HolidayCalendar.Snapshot calendar;
+        int today;
+        int[] changed;
+
+        @Setup
+        public void setup() {
+            Random rnd = new Random(Fixtures.SEED);
+            today = (int) LocalDate.now().toEpochDay();
+            table = new PriceTable("flight", rows);
+            for (int i = 0; i < rows; i++) {
+                long base = 200_000L + rnd.nextInt(1_300_000);
+                int row = table.upsert("F" + i, "F" + i, base, base, today + rnd.nextInt(365));
+                table.setDemand(row, rnd.nextInt(30));
+            }
+            calendar = new Fixtures(0, 0, 0, 0).holidayCalendar().snapshot();
+            changed = new int[rows];
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Sweep {
+        @Param({"100000"})
+        int flights;
+
+        DynamicPricingService service;
+        FakeMongoTemplate mongo;
+
+        @Setup
+        public void setup() {
+            Fixtures data = new Fixtures(flights, flights / 10, 0, 0);
+            mongo = new FakeMongoTemplate();
+            service = data.pricingService(mongo, 16, 4);
+        }
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long priceOne(One s) {
+        int k = s.i++ & (s.bases.length - 1);
+        return PricingEngine.priceCents(s.bases[k], s.demands[k], (k & 15) == 0 ? 2_000 : 0);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int repriceTable(Table s) {
+        return PricingEngine.reprice(s.table, s.calendar, s.today, 0, s.table.size(), s.changed);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void fullSweep(Sweep s, Blackhole bh) {
+        s.service.evaluateAndAdjustPrices();
+        bh.consume(s.service.getLastRun());
+    }
+}
@@ -0,0 +1,60 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import com.makemytrip.makemytrip.models.Recommendation;
+import com.makemytrip.makemytrip.services.RecommendationService;
+import com.makemytrip.makemytrip.services.ThemeIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recommendation hot paths against seeded in-memory repositories:
+ *  - recommendForUser for a user with history and for a cold-start user
+ *  - ThemeIndex.themeMask (keyword matching) on a typical hotel text
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class RecommendationBenchmark {
+
+    @Param({"2000"})
+    int flights;
+
+    @Param({"2000"})
+    int hotels;
+
+    ThemeIndex themeIndex;
+    RecommendationService service;
+    String[] hotelText;
+
+    @Setup
+    public void setup() {
+        Fixtures data = new Fixtures(flights, hotels, 100, 50);
+        themeIndex = data.themeIndex();
+        service = data.recommendationService(themeIndex);
+        hotelText = new String[]{
+                "Sea Breeze Resort & Spa", "Goa Beach", "pool, spa, bar, lounge",
+                "Five star luxury villas near the heritage museum with a rooftop cafe and garden"
+        };
+    }
+
+    @Benchmark
+    public List<Recommendation> recommendWithHistory() {
+        return service.recommendForUser("U7", 10);
+    }
+
+    @Benchmark
+    public List<Recommendation> recommendColdStart() {
+        return service.recommendForUser("nobody", 10);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long themeMask() {
+        return themeIndex.themeMask(hotelText);
+    }
+}
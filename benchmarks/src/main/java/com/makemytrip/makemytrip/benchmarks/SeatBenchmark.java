@@ -0,0 +1,77 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import com.makemytrip.makemytrip.models.Seat;
+import com.makemytrip.makemytrip.services.SeatService;
+import com.makemytrip.makemytrip.support.FakeSeatTemplate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SeatService.reserveSeat / releaseSeat under contention: 8 threads, each acting as
+ * its own user, grab random seats from one flight and give them back. With a small
+ * seat map most attempts collide; conflicts (IllegalStateException) are part of the cost.
+ * Seats are stored in FakeSeatTemplate, so every call takes the production path (one
+ * conditional findAndModify, the cache update, the read-back of a conflict) minus the
+ * network. Holds do not lapse here (seats.hold.ttl-ms 0), as the wheel would only fill up.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+public class SeatBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Seats {
+        @Param({"16", "180"})
+        int seats;
+
+        SeatService service;
+        String[] ids;
+
+        @Setup
+        public void setup() {
+            FakeSeatTemplate mongo = new FakeSeatTemplate();
+            service = new SeatService();
+            Fixtures.inject(service, "mongoTemplate", mongo);
+            Fixtures.inject(service, "seatRepository", mongo.seatRepository());
+            Fixtures.inject(service, "cacheTtlMs", 5000L);
+            ids = new String[seats];
+            for (int i = 0; i < seats; i++) {
+                Seat s = new Seat();
+                s.setId("F1-" + (i / 6 + 1) + (char) ('A' + i % 6));
+                s.setFlightId("F1");
+                s.setRow(String.valueOf(i / 6 + 1));
+                s.setCol(String.valueOf((char) ('A' + i % 6)));
+                s.setCategory("ECONOMY");
+                service.saveSeat(s);
+                ids[i] = s.getId();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class User {
+        String id;
+
+        @Setup
+        public void setup() {
+            id = "U" + Thread.currentThread().getId();
+        }
+    }
+
+    @Benchmark
+    public boolean reserveAndRelease(Seats s, User u) {
+        String seatId = s.ids[ThreadLocalRandom.current().nextInt(s.ids.length)];
+        try {
+            s.service.reserveSeat(seatId, u.id);
+        } catch (IllegalStateException taken) {
+            return false;
+        }
+        s.service.releaseSeat(seatId, u.id);
+        return true;
+    }
+}
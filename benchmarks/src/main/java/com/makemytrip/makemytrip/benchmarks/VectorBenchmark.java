@@ -0,0 +1,52 @@
+package com.makemytrip.makemytrip.benchmarks;
+
+import com.makemytrip.makemytrip.services.ContentVectorIndex;
+import com.makemytrip.makemytrip.util.TopK;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ContentVectorIndex on a large hotel catalog:
+ *  - similar(): brute-force cosine top-10 over every hotel vector
+ *  - rebuild(): hashing and normalizing the whole catalog
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@State(Scope.Benchmark)
+public class VectorBenchmark {
+
+    @Param({"100000"})
+    int hotels;
+
+    @Param({"128"})
+    int dim;
+
+    ContentVectorIndex index;
+    int next;
+
+    @Setup
+    public void setup() {
+        Fixtures data = new Fixtures(100, hotels, 0, 0);
+        index = data.contentVectorIndex(dim);
+    }
+
+    @Benchmark
+    public List<TopK.Scored<String>> similarHotels() {
+        next = (next + 7919) % hotels;
+        return index.similar("hotel", "H" + next, 10);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 5)
+    public ContentVectorIndex rebuild() {
+        index.rebuild();
+        return index;
+    }
+}
@@ -284,6 +284,14 @@ export async function reserveSeat(seatId, userId) {
   return res.data;
 }
 
+// all of the seats or none (group bookings); one round trip for the whole party
+export async function reserveSeats(flightId, seatIds, userId) {
+  const res = await axios.post(`${BACKEND_URL}/api/seats/flight/${encodeURIComponent(flightId)}/reserve`, seatIds, {
+    params: { userId },
+  });
+  return res.data;
+}
+
 export async function releaseSeat(seatId, userId) {
   const res = await axios.post(`${BACKEND_URL}/api/seats/${encodeURIComponent(seatId)}/release`, null, {
     params: { userId },
@@ -365,15 +373,19 @@ export async function getPriceHistory(flightId) {
   return res.data;
 }
 
-export async function freezePrice(flightId, minutes) {
+// locks the current fare for this user only; other users keep seeing the dynamic price
+export async function freezePrice(flightId, minutes, userId) {
   const res = await axios.post(`${BACKEND_URL}/pricing/flight/${encodeURIComponent(flightId)}/freeze`, {
     minutes,
+    userId,
   });
   return res.data;
 }
 
-export async function getCurrentPrice(flightId) {
-  const res = await axios.get(`${BACKEND_URL}/pricing/flight/${encodeURIComponent(flightId)}/price`);
+export async function getCurrentPrice(flightId, userId) {
+  const res = await axios.get(`${BACKEND_URL}/pricing/flight/${encodeURIComponent(flightId)}/price`, {
+    params: userId ? { userId } : {},
+  });
   return res.data;
 }
 
@@ -14,6 +14,7 @@ import {
   TimeScale,
 } from "chart.js";
 import "chartjs-adapter-date-fns"; // optional if you want date parsing (install if used)
+import { useSelector } from "react-redux";
 import { getPriceHistory, freezePrice, getCurrentPrice } from "@/api";
 
 type PriceHistoryItem = {
@@ -49,6 +50,8 @@ function registerChartJsIfNeeded() {
 }
 
 export default function PriceHistory({ flightId }: Props) {
+  const user = useSelector((state: any) => state.user.user);
+  const userId = user?.id || user?._id;
   const [history, setHistory] = useState<PriceHistoryItem[]>([]);
   const [current, setCurrent] = useState<any>(null);
   const [freezeMinutes, setFreezeMinutes] = useState<number>(30);
@@ -66,7 +69,7 @@ export default function PriceHistory({ flightId }: Props) {
     try {
       const h = await getPriceHistory(flightId);
       setHistory(h || []);
-      const cur = await getCurrentPrice(flightId);
+      const cur = await getCurrentPrice(flightId, userId);
       setCurrent(cur);
       setError(null);
     } catch (e: any) {
@@ -83,12 +86,16 @@ export default function PriceHistory({ flightId }: Props) {
     const t = setInterval(load, 30000);
     return () => clearInterval(t);
     // eslint-disable-next-line react-hooks/exhaustive-deps
-  }, [flightId]);
+  }, [flightId, userId]);
 
   async function onFreeze() {
+    if (!userId) {
+      setError("Please log in to freeze the price");
+      return;
+    }
     setFreezeLoading(true);
     try {
-      await freezePrice(flightId, freezeMinutes);
+      await freezePrice(flightId, freezeMinutes, userId);
       await load();
     } catch (e: any) {
       console.error(e);
@@ -171,6 +178,11 @@ export default function PriceHistory({ flightId }: Props) {
               Price freeze until:{" "}
               {current?.priceFreezeUntil ? new Date(current.priceFreezeUntil).toLocaleString() : "Not frozen"}
             </div>
+            {current?.lockedPrice != null && (
+              <div>
+                Your locked price: <strong>₹ {current.lockedPrice}</strong>
+              </div>
+            )}
           </div>
 
           <div style={{ height: 280 }} className="mb-3">
@@ -10,14 +10,11 @@ const API_BASE_URL =
  * Admin-style component that:
  *  - Shows current & base price
  *  - Lets admin update base price
- *  - Lets admin freeze price
  *  - Shows cleaned, sorted, limited price history as bars
  */
 const AddBasePrice = ({ flightId }) => {
   const [basePrice, setBasePrice] = useState("");
   const [currentPrice, setCurrentPrice] = useState("");
-  const [freezeUntil, setFreezeUntil] = useState(null);
-  const [freezeMinutes, setFreezeMinutes] = useState(30);
 
   const [history, setHistory] = useState([]);
   const [loading, setLoading] = useState(false);
@@ -25,7 +22,7 @@ const AddBasePrice = ({ flightId }) => {
   const [error, setError] = useState("");
 
   // ---------------------------------------------------
-  // Fetch current price/base price/freeze status
+  // Fetch current price/base price
   // ---------------------------------------------------
   const fetchPriceDetails = async () => {
     try {
@@ -36,7 +33,6 @@ const AddBasePrice = ({ flightId }) => {
       const data = res.data;
       setCurrentPrice(data.currentPrice ?? "");
       setBasePrice(data.basePrice ?? "");
-      setFreezeUntil(data.priceFreezeUntil || null);
     } catch (err) {
       console.error(err);
       setError("Failed to load current price");
@@ -97,38 +93,6 @@ const AddBasePrice = ({ flightId }) => {
     }
   };
 
-  // ---------------------------------------------------
-  // Apply freeze
-  // ---------------------------------------------------
-  const handleFreeze = async () => {
-    setMessage("");
-    setError("");
-
-    if (!freezeMinutes || isNaN(parseInt(freezeMinutes, 10))) {
-      setError("Please enter valid freeze minutes.");
-      return;
-    }
-
-    try {
-      setLoading(true);
-      const res = await axios.post(
-        `${API_BASE_URL}/pricing/flight/${flightId}/freeze`,
-        { minutes: parseInt(freezeMinutes, 10) }
-      );
-      const data = res.data;
-      setMessage(
-        `Price frozen for ${freezeMinutes} minutes. Current price: ₹${data.currentPrice}`
-      );
-      setFreezeUntil(data.freezeUntil || null);
-      // No history logged on freeze now – history is cleaner
-    } catch (err) {
-      console.error(err);
-      setError("Failed to freeze price.");
-    } finally {
-      setLoading(false);
-    }
-  };
-
   // ---------------------------------------------------
   // History visualization (cleaned)
   //
@@ -165,12 +129,11 @@ const AddBasePrice = ({ flightId }) => {
       <h3 style={styles.heading}>Dynamic Pricing – Admin Controls</h3>
 
       <p style={{ fontSize: "12px", marginBottom: "10px" }}>
-        This section is for <strong>ADMIN</strong> only: update base price, freeze
-        price temporarily, and view the historical price changes applied by the
+        This section is for <strong>ADMIN</strong> only: update base price and view the historical price changes applied by the
         dynamic pricing engine.
       </p>
 
-      {/* Current + Base + Freeze info */}
+      {/* Current + Base info */}
       <div style={styles.block}>
         <p>
           <strong>Current price:</strong>{" "}
@@ -180,12 +143,6 @@ const AddBasePrice = ({ flightId }) => {
           <strong>Base price:</strong>{" "}
           {basePrice !== "" ? `₹${basePrice}` : "Not set"}
         </p>
-        {freezeUntil && (
-          <p style={{ color: "#d9534f", fontSize: "13px" }}>
-            <strong>Price frozen until:</strong>{" "}
-            {new Date(freezeUntil).toLocaleString()}
-          </p>
-        )}
       </div>
 
       {/* Base price form */}
@@ -205,31 +162,6 @@ const AddBasePrice = ({ flightId }) => {
         </button>
       </form>
 
-      {/* Freeze controls */}
-      <div style={{ ...styles.block, marginTop: "20px" }}>
-        <h4>Price Freeze (limited time)</h4>
-        <div style={{ display: "flex", gap: "8px", alignItems: "center" }}>
-          <label style={styles.label}>
-            Duration (minutes):
-            <input
-              type="number"
-              min="1"
-              value={freezeMinutes}
-              onChange={(e) => setFreezeMinutes(e.target.value)}
-              style={{ ...styles.input, width: "100px" }}
-            />
-          </label>
-          <button
-            type="button"
-            style={styles.buttonSecondary}
-            onClick={handleFreeze}
-            disabled={loading}
-          >
-            {loading ? "Applying..." : "Freeze Price"}
-          </button>
-        </div>
-      </div>
-
       {/* Price History Graph-like */}
       <div style={{ marginTop: "20px" }}>
         <h4>Price History (last {displayHistory.length} changes)</h4>
@@ -0,0 +1,40 @@
+package com.makemytrip.makemytrip.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class PricingConfig {
+
+    /**
+     * Dedicated, bounded pool for pricing sweep partitions so a slow Mongo write
+     * only stalls its own partition and never borrows the shared scheduler thread.
+     * The queue holds a whole sweep's partitions; anything beyond that is rejected
+     * rather than run on the caller, outside the sweep deadline.
+     */
+    @Bean(name = "pricingExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService pricingExecutor(
+            @Value("${pricing.pool-size:4}") int poolSize,
+            @Value("${pricing.partitions:16}") int partitions
+    ) {
+        AtomicInteger n = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, partitions)),
+                r -> {
+                    Thread t = new Thread(r, "pricing-worker-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
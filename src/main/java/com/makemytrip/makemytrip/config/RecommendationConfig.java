@@ -0,0 +1,38 @@
+package com.makemytrip.makemytrip.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class RecommendationConfig {
+
+    /**
+     * Bounded pool for the nightly recommendation precompute. When the queue is full
+     * the submitting batch thread (never the scheduler's) computes the chunk itself,
+     * which throttles submission.
+     */
+    @Bean(name = "recommendationExecutor", destroyMethod = "shutdownNow")
+    public ExecutorService recommendationExecutor(
+            @Value("${recommendations.precompute.pool-size:4}") int poolSize
+    ) {
+        AtomicInteger n = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, poolSize * 2)),
+                r -> {
+                    Thread t = new Thread(r, "recommendation-worker-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+}
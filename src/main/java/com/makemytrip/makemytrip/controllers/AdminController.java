@@ -9,6 +9,9 @@ import com.makemytrip.makemytrip.models.Hotel;
 import com.makemytrip.makemytrip.repositories.UserRepository;
 import com.makemytrip.makemytrip.repositories.FlightRepository;
 import com.makemytrip.makemytrip.repositories.HotelRepository;
+import com.makemytrip.makemytrip.services.ContentVectorIndex;
+import com.makemytrip.makemytrip.services.DynamicPricingService;
+import com.makemytrip.makemytrip.services.ThemeIndex;
 import java.util.List;
 import java.util.Optional;
 @RestController
@@ -24,6 +27,15 @@ public class AdminController {
     @Autowired
     private FlightRepository flightRepository;
 
+    @Autowired
+    private DynamicPricingService dynamicPricingService;
+
+    @Autowired
+    private ThemeIndex themeIndex;
+
+    @Autowired
+    private ContentVectorIndex contentVectors;
+
     @GetMapping("/users")
     public ResponseEntity<List<Users>> getallusers(){
         List<Users> users=userRepository.findAll();
@@ -31,12 +43,19 @@ public class AdminController {
     }
     @PostMapping("/flight")
     public Flight addflight(@RequestBody Flight flight){
-        return flightRepository.save(flight);
+        Flight saved = flightRepository.save(flight);
+        dynamicPricingService.onFlightPriceUpdated(saved);
+        themeIndex.index(saved);
+        contentVectors.index(saved);
+        return saved;
     }
 
     @PostMapping("/hotel")
     public Hotel addhotel(@RequestBody Hotel hotel){
-        return hotelRepository.save(hotel);
+        Hotel saved = hotelRepository.save(hotel);
+        themeIndex.index(saved);
+        contentVectors.index(saved);
+        return saved;
     }
     @PutMapping("flight/{id}")
     public ResponseEntity<Flight> editflight(@PathVariable String id, @RequestBody Flight updatedFlight){
@@ -51,6 +70,9 @@ public class AdminController {
             flight.setPrice(updatedFlight.getPrice());
             flight.setAvailableSeats(updatedFlight.getAvailableSeats());
             flightRepository.save(flight);
+            dynamicPricingService.onFlightPriceUpdated(flight);
+            themeIndex.index(flight);
+            contentVectors.index(flight);
             return  ResponseEntity.ok(flight);
         }
         return ResponseEntity.notFound().build();
@@ -67,6 +89,8 @@ public class AdminController {
             hotel.setAmenities((updatedHotel.getAmenities()));
             hotel.setCheckInTime(updatedHotel.getCheckInTime());
             hotelRepository.save(hotel);
+            themeIndex.index(hotel);
+            contentVectors.index(hotel);
             return ResponseEntity.ok(hotel);
             }
         return ResponseEntity.notFound().build();
@@ -1,13 +1,26 @@
 package com.makemytrip.makemytrip.controllers;
 
+import com.makemytrip.makemytrip.models.FareLock;
 import com.makemytrip.makemytrip.models.Flight;
-import com.makemytrip.makemytrip.models.PriceHistory;
+import com.makemytrip.makemytrip.models.PricePoint;
+import com.makemytrip.makemytrip.models.PricingCalendar;
+import com.makemytrip.makemytrip.models.PricingRunReport;
+import com.makemytrip.makemytrip.models.RoomType;
 import com.makemytrip.makemytrip.repositories.FlightRepository;
-import com.makemytrip.makemytrip.repositories.PriceHistoryRepository;
+import com.makemytrip.makemytrip.services.DynamicPricingService;
+import com.makemytrip.makemytrip.services.FareLockService;
+import com.makemytrip.makemytrip.services.FlightPriceCache;
+import com.makemytrip.makemytrip.services.HolidayCalendar;
+import com.makemytrip.makemytrip.services.PriceHistoryService;
+import com.makemytrip.makemytrip.services.PriceStreamService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Instant;
 import java.util.*;
 
 @RestController
@@ -19,39 +32,110 @@ public class PricingController {
     private FlightRepository flightRepository;
 
     @Autowired
-    private PriceHistoryRepository priceHistoryRepository;
+    private PriceHistoryService priceHistoryService;
+
+    @Autowired
+    private DynamicPricingService dynamicPricingService;
+
+    @Autowired
+    private FlightPriceCache priceCache;
+
+    @Autowired
+    private PriceStreamService priceStreamService;
+
+    @Autowired
+    private FareLockService fareLockService;
+
+    @Autowired
+    private HolidayCalendar holidayCalendar;
 
    
+    // served from FlightPriceCache; Mongo is only read on a cache miss.
+    // With userId, the user's fare lock (if any) is returned as lockedPrice / priceFreezeUntil.
     @GetMapping("/flight/{flightId}/price")
-    public ResponseEntity<?> getFlightCurrentPrice(@PathVariable String flightId) {
-        Optional<Flight> opt = flightRepository.findById(flightId);
-        if (opt.isEmpty()) {
-            return ResponseEntity.status(404).body(Map.of("error", "Flight not found"));
+    public ResponseEntity<?> getFlightCurrentPrice(@PathVariable String flightId,
+                                                   @RequestParam(required = false) String userId) {
+        FlightPriceCache.Entry e = priceCache.get(flightId);
+        if (e == null) {
+            Optional<Flight> opt = flightRepository.findPriceById(flightId);
+            if (opt.isEmpty()) {
+                return ResponseEntity.status(404).body(Map.of("error", "Flight not found"));
+            }
+            e = priceCache.putIfAbsent(opt.get());
         }
 
-        Flight f = opt.get();
-        double base = f.getBasePrice();
-        double current = f.getCurrentPrice();
+        double base = e.getBasePrice();
+        double current = e.getCurrentPrice();
 
         if (current <= 0.0 && base > 0.0) {
             current = base;
         }
 
         Map<String, Object> resp = new HashMap<>();
-        resp.put("flightId", f.getId());
+        resp.put("flightId", e.getFlightId());
         resp.put("basePrice", base);
         resp.put("currentPrice", current);
-        resp.put("priceFreezeUntil", f.getPriceFreezeUntil());
+        resp.put("version", e.getVersion());
+
+        FareLock lock = fareLockService.activeLock(userId, flightId);
+        resp.put("lockedPrice", lock != null ? lock.getLockedPrice() : null);
+        resp.put("priceFreezeUntil", lock != null ? lock.getExpiresAt() : null);
 
         return ResponseEntity.ok(resp);
     }
 
+    /**
+     * SSE: GET /pricing/stream?flightIds=id1,id2,...
+     * Sends "init" with the cached prices, then at most one "prices" event per
+     * coalescing interval with the latest price of each watched flight that changed.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPrices(@RequestParam List<String> flightIds) {
+        return priceStreamService.subscribe(flightIds);
+    }
+
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> getPriceCacheStats() {
+        return ResponseEntity.ok(priceCache.stats());
+    }
+
    
+    /**
+     * GET /pricing/flight/{flightId}/history?from=&to=&resolution=&limit=
+     * from/to are ISO date-times (default: last 30 days). resolution is raw | hour | day | auto.
+     * When the result is truncated at limit, X-Next-From holds the "from" of the next page.
+     */
     @GetMapping("/flight/{flightId}/history")
-    public ResponseEntity<?> getFlightPriceHistory(@PathVariable String flightId) {
-        List<PriceHistory> history =
-                priceHistoryRepository.findByProductTypeAndProductIdOrderByTimestampAsc("flight", flightId);
-        return ResponseEntity.ok(history);
+    public ResponseEntity<?> getFlightPriceHistory(
+            @PathVariable String flightId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date to,
+            @RequestParam(required = false) String resolution,
+            @RequestParam(defaultValue = "1000") int limit
+    ) {
+        try {
+            Date end = to != null ? to : new Date();
+            Date start = from != null ? from : new Date(end.getTime() - 30L * 24 * 60 * 60 * 1000);
+            if (start.after(end)) {
+                return ResponseEntity.badRequest().body(Map.of("error", "from must be before to"));
+            }
+            int cappedLimit = Math.max(1, Math.min(limit, 5000));
+            PriceHistoryService.Resolution res =
+                    PriceHistoryService.Resolution.parse(resolution, end.getTime() - start.getTime());
+
+            List<PricePoint> points = priceHistoryService.query("flight", flightId, start, end, res, cappedLimit);
+
+            ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+            if (points.size() >= cappedLimit) {
+                long last = points.get(points.size() - 1).getTimestamp().getTime();
+                long step = res == PriceHistoryService.Resolution.HOUR ? 3_600_000L
+                        : res == PriceHistoryService.Resolution.DAY ? 86_400_000L : 1L;
+                ok.header("X-Next-From", Instant.ofEpochMilli(last + step).toString());
+            }
+            return ok.body(points);
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", "resolution must be raw, hour, day or auto"));
+        }
     }
 
    
@@ -82,15 +166,15 @@ public class PricingController {
             }
 
             flightRepository.save(f);
+            dynamicPricingService.onFlightPriceUpdated(f);
 
-            PriceHistory ph = new PriceHistory(
+            priceHistoryService.record(
                     "flight",
                     f.getId(),
                     f.getCurrentPrice(),
                     new Date(),
                     "admin set base price"
             );
-            priceHistoryRepository.save(ph);
 
             return ResponseEntity.ok(f);
         } catch (Exception ex) {
@@ -99,47 +183,129 @@ public class PricingController {
         }
     }
 
-    
+    /**
+     * Sets a room type's admin rate: { basePrice }. The dynamic rate (pricePerNight) is
+     * derived from it by the pricing cycles and is not meant to be edited directly.
+     */
+    @PostMapping("/room/{roomId}/setBasePrice")
+    public ResponseEntity<?> setRoomBasePrice(
+            @PathVariable String roomId,
+            @RequestBody Map<String, Object> body
+    ) {
+        try {
+            Object bp = body.get("basePrice");
+            if (bp == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "basePrice is required"));
+            }
+            RoomType room = dynamicPricingService.setRoomBasePrice(roomId, Double.parseDouble(bp.toString()));
+            if (room == null) {
+                return ResponseEntity.status(404).body(Map.of("error", "Room not found"));
+            }
+            return ResponseEntity.ok(room);
+        } catch (NumberFormatException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", "basePrice must be a number"));
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    /**
+     * Locks the current fare for one user: { userId, minutes }.
+     * The flight's public price keeps moving; only this user's booking uses the locked fare.
+     */
     @PostMapping("/flight/{flightId}/freeze")
     public ResponseEntity<?> freezeFlightPrice(
             @PathVariable String flightId,
+            @RequestParam(required = false) String userId,
             @RequestBody Map<String, Object> body
     ) {
         try {
+            String uid = userId != null ? userId : (body.get("userId") != null ? body.get("userId").toString() : null);
+            if (uid == null || uid.isBlank()) {
+                return ResponseEntity.badRequest().body(Map.of("error", "userId is required"));
+            }
+
             Object minutesObj = body.get("minutes");
             int minutes = 30; // default
             if (minutesObj != null) {
                 minutes = Integer.parseInt(minutesObj.toString());
             }
 
-            Optional<Flight> opt = flightRepository.findById(flightId);
-            if (opt.isEmpty()) {
-                return ResponseEntity.status(404).body(Map.of("error", "Flight not found"));
-            }
-
-            Flight f = opt.get();
-
-            Date now = new Date();
-            Date freezeUntil = new Date(now.getTime() + minutes * 60L * 1000L);
-            f.setPriceFreezeUntil(freezeUntil);
-
-            // keep currentPrice as-is; dynamic engine will skip this flight
-            if (f.getCurrentPrice() <= 0.0 && f.getBasePrice() > 0.0) {
-                f.setCurrentPrice(f.getBasePrice());
-            }
-
-            flightRepository.save(f);
+            FareLock lock = fareLockService.lock(uid, flightId, minutes);
 
             return ResponseEntity.ok(
                     Map.of(
                             "ok", true,
-                            "freezeUntil", freezeUntil,
-                            "currentPrice", f.getCurrentPrice()
+                            "userId", uid,
+                            "freezeUntil", lock.getExpiresAt(),
+                            "currentPrice", lock.getLockedPrice()
                     )
             );
+        } catch (IllegalArgumentException ex) {
+            int status = "Flight not found".equals(ex.getMessage()) ? 404 : 400;
+            return ResponseEntity.status(status).body(Map.of("error", ex.getMessage()));
         } catch (Exception ex) {
             ex.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", ex.getMessage()));
         }
     }
+
+    // timings of the most recent dynamic pricing sweep
+    @GetMapping("/runs/latest")
+    public ResponseEntity<?> getLatestPricingRun() {
+        PricingRunReport report = dynamicPricingService.getLastRun();
+        if (report == null) {
+            return ResponseEntity.status(404).body(Map.of("error", "No pricing run yet"));
+        }
+        return ResponseEntity.ok(report);
+    }
+
+    // holiday / season rules used by the pricing engine
+    @GetMapping("/calendar")
+    public ResponseEntity<?> getCalendar() {
+        return ResponseEntity.ok(calendarSummary(holidayCalendar.snapshot()));
+    }
+
+    /**
+     * Replaces the calendar: { rules: [ { name, from, to, surchargePct } ] }.
+     * Starts a full pricing sweep, so prices follow within one sweep; no restart needed.
+     */
+    @PutMapping("/calendar")
+    public ResponseEntity<?> replaceCalendar(@RequestBody PricingCalendar body) {
+        try {
+            if (body.getRules() == null) {
+                return ResponseEntity.badRequest().body(Map.of("error", "rules is required"));
+            }
+            HolidayCalendar.Snapshot snapshot = holidayCalendar.replace(body.getRules());
+            dynamicPricingService.requestSweep();
+            return ResponseEntity.ok(calendarSummary(snapshot));
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.badRequest().body(Map.of("error", ex.getMessage()));
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    // re-reads the stored calendar, e.g. after it was edited directly in Mongo, and reprices with it
+    @PostMapping("/calendar/reload")
+    public ResponseEntity<?> reloadCalendar() {
+        try {
+            HolidayCalendar.Snapshot snapshot = holidayCalendar.reload();
+            dynamicPricingService.requestSweep();
+            return ResponseEntity.ok(calendarSummary(snapshot));
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    private Map<String, Object> calendarSummary(HolidayCalendar.Snapshot snapshot) {
+        Map<String, Object> resp = new LinkedHashMap<>();
+        resp.put("rules", snapshot.rules());
+        resp.put("compiledFrom", snapshot.firstDay().toString());
+        resp.put("compiledTo", snapshot.lastDay().toString());
+        return resp;
+    }
 }
@@ -1,14 +1,22 @@
 package com.makemytrip.makemytrip.controllers;
 
 import com.makemytrip.makemytrip.models.UserInteraction;
+import com.makemytrip.makemytrip.models.Recommendation;
 import com.makemytrip.makemytrip.models.RecommendationFeedback;
-import com.makemytrip.makemytrip.repositories.UserInteractionRepository;
 import com.makemytrip.makemytrip.repositories.RecommendationFeedbackRepository;
+import com.makemytrip.makemytrip.services.InteractionIngestService;
+import com.makemytrip.makemytrip.services.RecommendationPrecomputeService;
 import com.makemytrip.makemytrip.services.RecommendationService;
+import com.makemytrip.makemytrip.services.ThemeIndex;
+import com.makemytrip.makemytrip.services.TrendingService;
+import com.makemytrip.makemytrip.services.UserProfileService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -17,24 +25,84 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class RecommendationController {
 
+    @Autowired
+    private RecommendationPrecomputeService precomputeService;
+
     @Autowired
     private RecommendationService recommendationService;
 
     @Autowired
-    private UserInteractionRepository interactionRepository;
+    private TrendingService trendingService;
+
+    @Autowired
+    private UserProfileService profileService;
+
+    @Autowired
+    private InteractionIngestService ingestService;
 
     @Autowired
     private RecommendationFeedbackRepository feedbackRepository;
 
+    /**
+     * GET /recommendations/stats
+     * latency of each recommendation stage (profile load, total) and interaction ingestion counters
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        Map<String, Object> out = new LinkedHashMap<>(recommendationService.stats());
+        out.put("ingest", ingestService.stats());
+        return ResponseEntity.ok(out);
+    }
+
+    /**
+     * GET /recommendations/trending?type=flight&limit=10
+     * time-decayed trending flights, hotels or destinations; all three when type is omitted
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrending(@RequestParam(required = false) String type,
+                                         @RequestParam(defaultValue = "10") int limit) {
+        if (type == null) {
+            Map<String, Object> all = new LinkedHashMap<>();
+            for (String t : List.of(ThemeIndex.FLIGHT, ThemeIndex.HOTEL, TrendingService.DESTINATION)) {
+                all.put(t, trendingService.top(t, limit));
+            }
+            return ResponseEntity.ok(all);
+        }
+        if (!trendingService.supports(type)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "type must be flight, hotel or destination"));
+        }
+        return ResponseEntity.ok(trendingService.top(type, limit));
+    }
+
+    /**
+     * GET /recommendations/similar/{type}/{id}?limit=10
+     * flights or hotels with the most similar content (name, location, amenities, description)
+     */
+    @GetMapping("/similar/{type}/{id}")
+    public ResponseEntity<?> getSimilar(@PathVariable String type, @PathVariable String id,
+                                        @RequestParam(defaultValue = "10") int limit) {
+        if (!ThemeIndex.FLIGHT.equals(type) && !ThemeIndex.HOTEL.equals(type)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "type must be flight or hotel"));
+        }
+        try {
+            return ResponseEntity.ok(recommendationService.similarTo(type, id, Math.max(1, Math.min(limit, 100))));
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
     /**
      * GET /recommendations/{userId}?limit=6
-     * returns list of recommended items (flights/hotels) with 'why' text
+     * returns list of recommended items (flights/hotels) with 'why' text,
+     * from the precomputed store while it is fresh
      */
     @GetMapping("/{userId}")
     public ResponseEntity<?> getRecommendations(@PathVariable String userId, @RequestParam(defaultValue = "6") int limit) {
         try {
-            List<Map<String,Object>> recs = recommendationService.recommendForUser(userId, limit);
-            return ResponseEntity.ok(recs);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(precomputeService.getJson(userId, limit));
         } catch (Exception ex) {
             ex.printStackTrace();
             return ResponseEntity.status(500).body(Map.of("error", ex.getMessage()));
@@ -45,19 +113,18 @@ public class RecommendationController {
      * POST /interactions
      * body: { userId, entityType, entityId, action }
      * used by frontend to record views, likes, bookings, etc.
+     * queued and written in batches; 429 when the ingest queue is full
      */
     @PostMapping("/interactions")
     public ResponseEntity<?> recordInteraction(@RequestBody Map<String,Object> body) {
         try {
-            String userId = (String) body.get("userId");
-            String entityType = (String) body.get("entityType");
-            String entityId = (String) body.get("entityId");
-            String action = (String) body.get("action");
-            if (userId == null || entityType == null || entityId == null || action == null) {
+            UserInteraction ui = toInteraction(body);
+            if (ui == null) {
                 return ResponseEntity.badRequest().body(Map.of("error", "missing fields"));
             }
-            UserInteraction ui = new UserInteraction(userId, entityType, entityId, action, LocalDateTime.now());
-            interactionRepository.save(ui);
+            if (!ingestService.submit(ui)) {
+                return ResponseEntity.status(429).body(Map.of("error", "too many interactions, retry later"));
+            }
             return ResponseEntity.ok(Map.of("ok", true));
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -65,6 +132,49 @@ public class RecommendationController {
         }
     }
 
+    /**
+     * POST /interactions/batch
+     * body: [ { userId, entityType, entityId, action }, ... ]
+     * events are queued in order; on 429, "accepted" says how many of them were taken
+     */
+    @PostMapping("/interactions/batch")
+    public ResponseEntity<?> recordInteractions(@RequestBody List<Map<String,Object>> body) {
+        try {
+            List<UserInteraction> events = new ArrayList<>(body.size());
+            for (Map<String,Object> e : body) {
+                UserInteraction ui = toInteraction(e);
+                if (ui == null) {
+                    return ResponseEntity.badRequest().body(Map.of("error", "missing fields in event " + events.size()));
+                }
+                events.add(ui);
+            }
+            int accepted = 0;
+            for (UserInteraction ui : events) {
+                if (!ingestService.submit(ui)) {
+                    return ResponseEntity.status(429).body(Map.of(
+                            "error", "too many interactions, retry later", "accepted", accepted));
+                }
+                accepted++;
+            }
+            return ResponseEntity.ok(Map.of("ok", true, "accepted", accepted));
+        } catch (Exception ex) {
+            ex.printStackTrace();
+            return ResponseEntity.status(500).body(Map.of("error", ex.getMessage()));
+        }
+    }
+
+    private static UserInteraction toInteraction(Map<String,Object> body) {
+        if (body == null) return null;
+        String userId = (String) body.get("userId");
+        String entityType = (String) body.get("entityType");
+        String entityId = (String) body.get("entityId");
+        String action = (String) body.get("action");
+        if (userId == null || entityType == null || entityId == null || action == null) {
+            return null;
+        }
+        return new UserInteraction(userId, entityType, entityId, action, LocalDateTime.now());
+    }
+
     /**
      * POST /recommendations/{userId}/feedback
      * body: { recommendedEntityType, recommendedEntityId, liked }
@@ -80,6 +190,8 @@ public class RecommendationController {
             }
             RecommendationFeedback fb = new RecommendationFeedback(userId, recommendedEntityType, recommendedEntityId, liked, LocalDateTime.now());
             feedbackRepository.save(fb);
+            profileService.onFeedback(fb);
+            precomputeService.invalidate(userId);
             return ResponseEntity.ok(Map.of("ok", true));
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -92,7 +204,7 @@ public class RecommendationController {
             @RequestParam(defaultValue = "12") int limit
     ) {
         try {
-            List<Map<String,Object>> recs = recommendationService.recommendForUser(userId, limit);
+            List<Recommendation> recs = precomputeService.recompute(userId, limit);
             return ResponseEntity.ok(recs);
         } catch (Exception ex) {
             ex.printStackTrace();
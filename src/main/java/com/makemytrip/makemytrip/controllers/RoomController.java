@@ -3,6 +3,11 @@ package com.makemytrip.makemytrip.controllers;
 import com.makemytrip.makemytrip.models.RoomType;
 import com.makemytrip.makemytrip.repositories.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,6 +21,9 @@ public class RoomController {
     @Autowired
     private RoomRepository roomRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     // Fetch all room types for a hotel
     @GetMapping("/hotel/{hotelId}")
     public ResponseEntity<List<RoomType>> getRooms(@PathVariable String hotelId) {
@@ -29,15 +37,15 @@ public class RoomController {
             @PathVariable String roomId,
             @RequestParam int count
     ) {
-        RoomType r = roomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException("Room not found"));
-
-        if (r.getAvailableCount() < count) {
+        // one conditional $inc: never writes back other fields (prices move under the pricing engine)
+        RoomType r = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(roomId).and("availableCount").gte(count)),
+                new Update().inc("availableCount", -count),
+                FindAndModifyOptions.options().returnNew(true), RoomType.class);
+        if (r == null) {
+            roomRepository.findById(roomId).orElseThrow(() -> new RuntimeException("Room not found"));
             throw new RuntimeException("Not enough rooms available");
         }
-
-        r.setAvailableCount(r.getAvailableCount() - count);
-        roomRepository.save(r);
         return ResponseEntity.ok(r);
     }
 
@@ -47,11 +55,13 @@ public class RoomController {
             @PathVariable String roomId,
             @RequestParam int count
     ) {
-        RoomType r = roomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException("Room not found"));
-
-        r.setAvailableCount(r.getAvailableCount() + count);
-        roomRepository.save(r);
+        RoomType r = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(roomId)),
+                new Update().inc("availableCount", count),
+                FindAndModifyOptions.options().returnNew(true), RoomType.class);
+        if (r == null) {
+            throw new RuntimeException("Room not found");
+        }
         return ResponseEntity.ok(r);
     }
 
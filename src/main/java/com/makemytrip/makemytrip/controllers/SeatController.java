@@ -1,7 +1,9 @@
 package com.makemytrip.makemytrip.controllers;
 
 import com.makemytrip.makemytrip.models.Seat;
+import com.makemytrip.makemytrip.models.SeatLayout;
 import com.makemytrip.makemytrip.services.SeatService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -26,17 +28,35 @@ public class SeatController {
 	// simple executor for periodic tasks (if any)
 	private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
 
+	// lapsed holds and other nodes' seat changes; reserve/release here broadcast themselves
+	@PostConstruct
+	public void followSeatChanges() {
+		seatService.addChangeListener(seat -> broadcastToFlight(seat.getFlightId(), seat));
+	}
+
 	/**
 	 * Return seat map for a flight.
+	 * ?format=compact returns only the occupancy (see SeatService.getCompactSeatMap);
+	 * the layout it refers to comes from GET /api/seats/flight/{flightId}/layout.
 	 */
 	@GetMapping("/flight/{flightId}")
-	public ResponseEntity<List<Seat>> getSeatMap(@PathVariable String flightId) {
-		List<Seat> seats = seatService.getSeatMap(flightId);
-		// if empty, seed a default mock layout (example)
-		if (seats == null || seats.isEmpty()) {
-			seats = seedDefaultMockLayout(flightId);
+	public ResponseEntity<?> getSeatMap(@PathVariable String flightId,
+			@RequestParam(name = "format", required = false) String format) {
+		if ("compact".equalsIgnoreCase(format)) {
+			return ResponseEntity.ok(seatService.getCompactSeatMap(flightId));
 		}
-		return ResponseEntity.ok(seats);
+		return ResponseEntity.ok(seatService.getSeatMap(flightId));
+	}
+
+	/**
+	 * The flight's seat layout template as parallel arrays; shared by all flights with
+	 * the same layout name, so clients can cache it by name.
+	 */
+	@GetMapping("/flight/{flightId}/layout")
+	public ResponseEntity<?> getLayout(@PathVariable String flightId) {
+		SeatLayout layout = seatService.getLayout(flightId);
+		if (layout == null) return ResponseEntity.status(404).body("Flight has no seats");
+		return ResponseEntity.ok(layout.toMap());
 	}
 
 	/**
@@ -72,6 +92,37 @@ public class SeatController {
 		}
 	}
 
+	/**
+	 * Reserve several seats of one flight, all or none (group bookings).
+	 * POST /api/seats/flight/{flightId}/reserve?userId=...  body: ["F1-12A", "F1-12B"]
+	 * Watchers get one "update" with the whole seat map instead of one per seat.
+	 */
+	@PostMapping("/flight/{flightId}/reserve")
+	public ResponseEntity<?> reserveSeats(@PathVariable String flightId,
+			@RequestParam(name = "userId", required = true) String userId,
+			@RequestBody List<String> seatIds) {
+		if (seatIds == null || seatIds.isEmpty()) {
+			return ResponseEntity.badRequest().body("seatIds required");
+		}
+		if (userId == null || userId.isEmpty()) {
+			return ResponseEntity.badRequest().body("userId required");
+		}
+
+		try {
+			List<Seat> reserved = seatService.reserveSeats(flightId, seatIds, userId);
+			broadcastToFlight(flightId, seatService.getSeatMap(flightId));
+			return ResponseEntity.ok(reserved);
+		} catch (IllegalArgumentException iae) {
+			return ResponseEntity.badRequest().body(iae.getMessage());
+		} catch (IllegalStateException ise) {
+			// one of the seats is taken or unknown: none were reserved
+			return ResponseEntity.status(409).body(ise.getMessage());
+		} catch (Exception ex) {
+			ex.printStackTrace();
+			return ResponseEntity.status(500).body("Failed to reserve seats: " + ex.getMessage());
+		}
+	}
+
 	/**
 	 * Release a seat.
 	 * POST /api/seats/{seatId}/release?userId=...
@@ -115,7 +166,6 @@ public class SeatController {
 		// send initial map
 		try {
 			List<Seat> seats = seatService.getSeatMap(flightId);
-			if (seats == null || seats.isEmpty()) seats = seedDefaultMockLayout(flightId);
 			emitter.send(SseEmitter.event().name("init").data(seats));
 		} catch (Exception ex) {
 			// ignore initial send errors
@@ -149,40 +199,6 @@ public class SeatController {
 		}
 	}
 
-	// Seed a simple mock layout (rows 1..20, cols A-F) — replace with real data in production
-	private List<Seat> seedDefaultMockLayout(String flightId) {
-		List<Seat> list = new ArrayList<>();
-		String[] cols = new String[] {"A","B","C","D","E","F"};
-		for (int r = 1; r <= 20; r++) {
-			for (int c = 0; c < cols.length; c++) {
-				Seat s = new Seat();
-				s.setId(flightId + "-" + r + cols[c]);
-				s.setFlightId(flightId);
-				s.setRow(String.valueOf(r));
-				s.setCol(cols[c]);
-				s.setCategory(r <= 2 ? "BUSINESS" : (r <= 5 ? "PREMIUM" : "ECONOMY"));
-				s.setWindow(cols[c].equals("A") || cols[c].equals("F"));
-				s.setAisle(cols[c].equals("C") || cols[c].equals("D"));
-				s.setReserved(false);
-				s.setReservedBy(null);
-				double price = s.getCategory().equals("PREMIUM") ? 25.0 :
-					s.getCategory().equals("BUSINESS") ? 75.0 : 0.0;
-
-				s.setPremium(s.getCategory().equals("PREMIUM") || s.getCategory().equals("BUSINESS"));
-				s.setPremiumPrice(price);
-				s.setUpsellPrice(price); // still keep for compatibility
-
-				try {
-					seatService.saveSeat(s);
-				} catch (Exception ex) {
-					// ignore save errors for seeding
-				}
-				list.add(s);
-			}
-		}
-		return list;
-	}
-
 	public ScheduledExecutorService getScheduler() {
 		return scheduler;
 	}
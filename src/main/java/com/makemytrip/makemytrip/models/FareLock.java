@@ -0,0 +1,49 @@
+package com.makemytrip.makemytrip.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * A fare locked by one user for one flight until expiresAt.
+ * The collection has a TTL index on expiresAt, so Mongo drops expired locks by itself.
+ */
+@Document(collection = "fare_locks")
+public class FareLock {
+    @Id
+    private String id; // userId + ":" + flightId
+    private String userId;
+    private String flightId;
+    private double lockedPrice; // per-seat fare at the time of locking
+    private Date createdAt;
+    private Date expiresAt;
+
+    public FareLock() {}
+
+    public FareLock(String userId, String flightId, double lockedPrice, Date createdAt, Date expiresAt) {
+        this.id = keyOf(userId, flightId);
+        this.userId = userId;
+        this.flightId = flightId;
+        this.lockedPrice = lockedPrice;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public static String keyOf(String userId, String flightId) {
+        return userId + ":" + flightId;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+    public String getFlightId() { return flightId; }
+    public void setFlightId(String flightId) { this.flightId = flightId; }
+    public double getLockedPrice() { return lockedPrice; }
+    public void setLockedPrice(double lockedPrice) { this.lockedPrice = lockedPrice; }
+    public Date getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Date createdAt) { this.createdAt = createdAt; }
+    public Date getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Date expiresAt) { this.expiresAt = expiresAt; }
+}
@@ -3,7 +3,6 @@ package com.makemytrip.makemytrip.models;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
-import java.util.Date;
 import java.util.List;
 
 @Document(collection = "flight")
@@ -21,9 +20,6 @@ public class Flight {
     private double currentPrice;
     private int availableSeats;
 
-    // If non-null and in the future, pricing adjustments are paused
-    private Date priceFreezeUntil;
-    
     private List<String> tags;
 
     public Flight() {}
@@ -55,9 +51,6 @@ public class Flight {
     public int getAvailableSeats(){return availableSeats;}
     public void setAvailableSeats(int availableSeats){this.availableSeats=availableSeats;}
 
-    public Date getPriceFreezeUntil() { return priceFreezeUntil; }
-    public void setPriceFreezeUntil(Date priceFreezeUntil) { this.priceFreezeUntil = priceFreezeUntil; }
-    
     public List<String> getTags() { return tags; }
     public void setTags(List<String> tags) { this.tags = tags; }
 }
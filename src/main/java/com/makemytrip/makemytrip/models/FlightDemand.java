@@ -0,0 +1,27 @@
+package com.makemytrip.makemytrip.models;
+
+/**
+ * Result row of the grouped demand aggregation over bookings:
+ * number of bookings for one flight (or hotel) within one clock hour.
+ */
+public class FlightDemand {
+
+    private String flightId; // grouped bookingRef: flight id, or hotel id for hotel bookings
+    private long hour;       // epoch millis / 3_600_000
+    private int count;
+
+    public FlightDemand() {}
+
+    public FlightDemand(String flightId, long hour, int count) {
+        this.flightId = flightId;
+        this.hour = hour;
+        this.count = count;
+    }
+
+    public String getFlightId() { return flightId; }
+    public void setFlightId(String flightId) { this.flightId = flightId; }
+    public long getHour() { return hour; }
+    public void setHour(long hour) { this.hour = hour; }
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+}
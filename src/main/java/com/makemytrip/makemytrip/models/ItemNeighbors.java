@@ -0,0 +1,38 @@
+package com.makemytrip.makemytrip.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Top-N most similar items of one flight or hotel, from the item-item co-occurrence job.
+ * Items are keyed "type:id" (e.g. "hotel:65f0..."); neighbors and scores are parallel
+ * arrays, best first.
+ */
+@Document(collection = "item_neighbors")
+public class ItemNeighbors {
+    @Id
+    private String id;          // "type:id"
+    private String[] neighbors; // "type:id", best first
+    private float[] scores;     // cosine similarity, same order
+    private Date builtAt;
+
+    public ItemNeighbors() {}
+
+    public ItemNeighbors(String id, String[] neighbors, float[] scores, Date builtAt) {
+        this.id = id;
+        this.neighbors = neighbors;
+        this.scores = scores;
+        this.builtAt = builtAt;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String[] getNeighbors() { return neighbors; }
+    public void setNeighbors(String[] neighbors) { this.neighbors = neighbors; }
+    public float[] getScores() { return scores; }
+    public void setScores(float[] scores) { this.scores = scores; }
+    public Date getBuiltAt() { return builtAt; }
+    public void setBuiltAt(Date builtAt) { this.builtAt = builtAt; }
+}
@@ -0,0 +1,59 @@
+package com.makemytrip.makemytrip.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * One product's price changes for one UTC day, packed into parallel arrays.
+ *
+ * id = productType + ":" + productId + ":" + yyyy-MM-dd, so a date range for a
+ * product is a contiguous range on the _id index and needs no secondary index.
+ */
+@Document(collection = "price_history_buckets")
+public class PriceHistoryBucket {
+
+    @Id
+    private String id;
+    private String productType;
+    private String productId;
+    private Date day;           // UTC midnight
+    private int count;
+
+    // parallel arrays, appended in time order
+    private List<Long> ts = new ArrayList<>();        // epoch millis
+    private List<Double> prices = new ArrayList<>();
+    private List<String> reasons = new ArrayList<>();
+
+    private double minPrice;
+    private double maxPrice;
+    private double lastPrice;
+
+    public PriceHistoryBucket() {}
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getProductType() { return productType; }
+    public void setProductType(String productType) { this.productType = productType; }
+    public String getProductId() { return productId; }
+    public void setProductId(String productId) { this.productId = productId; }
+    public Date getDay() { return day; }
+    public void setDay(Date day) { this.day = day; }
+    public int getCount() { return count; }
+    public void setCount(int count) { this.count = count; }
+    public List<Long> getTs() { return ts; }
+    public void setTs(List<Long> ts) { this.ts = ts; }
+    public List<Double> getPrices() { return prices; }
+    public void setPrices(List<Double> prices) { this.prices = prices; }
+    public List<String> getReasons() { return reasons; }
+    public void setReasons(List<String> reasons) { this.reasons = reasons; }
+    public double getMinPrice() { return minPrice; }
+    public void setMinPrice(double minPrice) { this.minPrice = minPrice; }
+    public double getMaxPrice() { return maxPrice; }
+    public void setMaxPrice(double maxPrice) { this.maxPrice = maxPrice; }
+    public double getLastPrice() { return lastPrice; }
+    public void setLastPrice(double lastPrice) { this.lastPrice = lastPrice; }
+}
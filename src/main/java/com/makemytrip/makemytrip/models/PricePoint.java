@@ -0,0 +1,42 @@
+package com.makemytrip.makemytrip.models;
+
+import java.util.Date;
+
+/**
+ * One point of a (possibly downsampled) price history series.
+ * price is the last price in the interval; min/max cover the whole interval.
+ * reason is only set for raw (non-aggregated) points.
+ */
+public class PricePoint {
+
+    private Date timestamp;
+    private double price;
+    private double min;
+    private double max;
+    private int changes;
+    private String reason;
+
+    public PricePoint() {}
+
+    public PricePoint(Date timestamp, double price, double min, double max, int changes, String reason) {
+        this.timestamp = timestamp;
+        this.price = price;
+        this.min = min;
+        this.max = max;
+        this.changes = changes;
+        this.reason = reason;
+    }
+
+    public Date getTimestamp() { return timestamp; }
+    public void setTimestamp(Date timestamp) { this.timestamp = timestamp; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public double getMin() { return min; }
+    public void setMin(double min) { this.min = min; }
+    public double getMax() { return max; }
+    public void setMax(double max) { this.max = max; }
+    public int getChanges() { return changes; }
+    public void setChanges(int changes) { this.changes = changes; }
+    public String getReason() { return reason; }
+    public void setReason(String reason) { this.reason = reason; }
+}
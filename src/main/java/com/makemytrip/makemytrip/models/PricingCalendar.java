@@ -0,0 +1,66 @@
+package com.makemytrip.makemytrip.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Holiday / season surcharges used by dynamic pricing, one document (id "default").
+ *
+ * A rule covers one day or an inclusive range of days:
+ *  - "MM-dd" dates repeat every year (a range like 12-20..01-05 wraps over new year)
+ *  - "yyyy-MM-dd" dates apply once
+ * Where rules overlap, the highest surcharge wins.
+ */
+@Document(collection = "pricing_calendar")
+public class PricingCalendar {
+
+    public static final String DEFAULT_ID = "default";
+
+    @Id
+    private String id = DEFAULT_ID;
+    private List<Rule> rules = new ArrayList<>();
+    private Date updatedAt;
+
+    public PricingCalendar() {}
+
+    public PricingCalendar(List<Rule> rules, Date updatedAt) {
+        this.rules = rules;
+        this.updatedAt = updatedAt;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public List<Rule> getRules() { return rules; }
+    public void setRules(List<Rule> rules) { this.rules = rules; }
+    public Date getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Date updatedAt) { this.updatedAt = updatedAt; }
+
+    public static class Rule {
+        private String name;
+        private String from;         // "MM-dd" or "yyyy-MM-dd"
+        private String to;           // optional, same form as from; defaults to from
+        private double surchargePct; // e.g. 20 for +20%
+
+        public Rule() {}
+
+        public Rule(String name, String from, String to, double surchargePct) {
+            this.name = name;
+            this.from = from;
+            this.to = to;
+            this.surchargePct = surchargePct;
+        }
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getFrom() { return from; }
+        public void setFrom(String from) { this.from = from; }
+        public String getTo() { return to; }
+        public void setTo(String to) { this.to = to; }
+        public double getSurchargePct() { return surchargePct; }
+        public void setSurchargePct(double surchargePct) { this.surchargePct = surchargePct; }
+    }
+}
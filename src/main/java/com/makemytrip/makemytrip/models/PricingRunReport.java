@@ -0,0 +1,87 @@
+package com.makemytrip.makemytrip.models;
+
+import java.util.Date;
+
+/**
+ * Timings and counters for one run of the dynamic pricing sweep.
+ * Not persisted; the latest report is kept in memory and exposed by PricingController.
+ */
+public class PricingRunReport {
+
+    private Date startedAt;
+    private long demandMs;   // sliding the demand counters + filling the demand columns
+    private long loadMs;     // flight and room type price snapshots
+    private long computeMs;  // PricingEngine loops, summed over partitions
+    private long writeMs;    // bulk price updates + history inserts, summed over partitions
+    private long totalMs;    // wall clock
+    private int flightsScanned;
+    private int flightsChanged;
+    private int roomsScanned;
+    private int roomsChanged;
+    private int writeBatches;
+
+    private int partitions;          // partitions scheduled in this run
+    private int partitionsCompleted;
+    private int poolSize;
+    private boolean resumed;         // continued a sweep that was cut short earlier
+    private boolean cutShort;        // hit the deadline; remaining partitions run next time
+    private double productsPerSecond;
+
+    public PricingRunReport() {}
+
+    public PricingRunReport(Date startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Date getStartedAt() { return startedAt; }
+    public void setStartedAt(Date startedAt) { this.startedAt = startedAt; }
+    public long getDemandMs() { return demandMs; }
+    public void setDemandMs(long demandMs) { this.demandMs = demandMs; }
+    public long getLoadMs() { return loadMs; }
+    public void setLoadMs(long loadMs) { this.loadMs = loadMs; }
+    public long getComputeMs() { return computeMs; }
+    public void setComputeMs(long computeMs) { this.computeMs = computeMs; }
+    public long getWriteMs() { return writeMs; }
+    public void setWriteMs(long writeMs) { this.writeMs = writeMs; }
+    public long getTotalMs() { return totalMs; }
+    public void setTotalMs(long totalMs) { this.totalMs = totalMs; }
+    public int getFlightsScanned() { return flightsScanned; }
+    public void setFlightsScanned(int flightsScanned) { this.flightsScanned = flightsScanned; }
+    public int getFlightsChanged() { return flightsChanged; }
+    public void setFlightsChanged(int flightsChanged) { this.flightsChanged = flightsChanged; }
+    public int getRoomsScanned() { return roomsScanned; }
+    public void setRoomsScanned(int roomsScanned) { this.roomsScanned = roomsScanned; }
+    public int getRoomsChanged() { return roomsChanged; }
+    public void setRoomsChanged(int roomsChanged) { this.roomsChanged = roomsChanged; }
+    public int getWriteBatches() { return writeBatches; }
+    public void setWriteBatches(int writeBatches) { this.writeBatches = writeBatches; }
+
+    public int getPartitions() { return partitions; }
+    public void setPartitions(int partitions) { this.partitions = partitions; }
+    public int getPartitionsCompleted() { return partitionsCompleted; }
+    public void setPartitionsCompleted(int partitionsCompleted) { this.partitionsCompleted = partitionsCompleted; }
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+    public boolean isResumed() { return resumed; }
+    public void setResumed(boolean resumed) { this.resumed = resumed; }
+    public boolean isCutShort() { return cutShort; }
+    public void setCutShort(boolean cutShort) { this.cutShort = cutShort; }
+    public double getProductsPerSecond() { return productsPerSecond; }
+    public void setProductsPerSecond(double productsPerSecond) { this.productsPerSecond = productsPerSecond; }
+
+    @Override
+    public String toString() {
+        return "pricing run: flights=" + flightsChanged + "/" + flightsScanned
+                + " rooms=" + roomsChanged + "/" + roomsScanned
+                + " batches=" + writeBatches
+                + " partitions=" + partitionsCompleted + "/" + partitions
+                + (resumed ? " resumed" : "")
+                + (cutShort ? " cut-short" : "")
+                + " demand=" + demandMs + "ms"
+                + " load=" + loadMs + "ms"
+                + " compute=" + computeMs + "ms"
+                + " write=" + writeMs + "ms"
+                + " total=" + totalMs + "ms"
+                + " throughput=" + Math.round(productsPerSecond) + " products/s";
+    }
+}
@@ -0,0 +1,105 @@
+package com.makemytrip.makemytrip.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.annotation.Transient;
+
+import java.util.List;
+
+/**
+ * One recommended flight or hotel, as returned by GET /recommendations/{userId} and
+ * stored in user_recommendations. Flights carry a destination, hotels a location.
+ *
+ * The JSON of a recommendation is built once and reused (see toJson / toJsonArray), so
+ * serving a stored list does not serialize it again on every read.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class Recommendation {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private String type; // "flight" | "hotel"
+    private String id;
+    private String title;
+    private String destination;
+    private String location;
+    private double price;
+    private String why;
+    private double score; // ranking score, higher is better
+
+    @Transient
+    private volatile String json;
+
+    public Recommendation() {}
+
+    public Recommendation(String type, String id, String title, String destination, String location,
+                          double price, String why, double score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.destination = destination;
+        this.location = location;
+        this.price = price;
+        this.why = why;
+        this.score = score;
+    }
+
+    public static Recommendation flight(Flight f, String why, double score) {
+        return new Recommendation("flight", f.getId(), f.getFlightName() + " → " + f.getTo(),
+                f.getTo(), null, f.getCurrentPrice(), why, score);
+    }
+
+    public static Recommendation hotel(Hotel h, String why, double score) {
+        return new Recommendation("hotel", h.getId(), h.getHotelName(),
+                null, h.getLocation(), h.getPricePerNight(), why, score);
+    }
+
+    /** This recommendation at another price: itself if the price is unchanged, else a copy. */
+    public Recommendation withPrice(double current) {
+        if (current == price) return this;
+        return new Recommendation(type, id, title, destination, location, current, why, score);
+    }
+
+    /** This recommendation as a JSON object; serialized on first use only. */
+    public String toJson() {
+        String s = json;
+        if (s == null) {
+            try {
+                s = JSON.writeValueAsString(this);
+            } catch (JsonProcessingException ex) {
+                throw new IllegalStateException("Cannot serialize recommendation " + id, ex);
+            }
+            json = s;
+        }
+        return s;
+    }
+
+    /** The first limit recommendations as a JSON array, from their cached JSON. */
+    public static String toJsonArray(List<Recommendation> recs, int limit) {
+        int n = Math.min(recs.size(), Math.max(0, limit));
+        StringBuilder sb = new StringBuilder(n * 192).append('[');
+        for (int i = 0; i < n; i++) {
+            if (i > 0) sb.append(',');
+            sb.append(recs.get(i).toJson());
+        }
+        return sb.append(']').toString();
+    }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; json = null; }
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; json = null; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; json = null; }
+    public String getDestination() { return destination; }
+    public void setDestination(String destination) { this.destination = destination; json = null; }
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; json = null; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; json = null; }
+    public String getWhy() { return why; }
+    public void setWhy(String why) { this.why = why; json = null; }
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; json = null; }
+}
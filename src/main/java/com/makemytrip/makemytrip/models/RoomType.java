@@ -11,6 +11,8 @@ public class RoomType {
     private String hotelId;
     private String name;     // "Deluxe King", etc.
     private String description;
+    // basePrice = rate set for the room type; pricePerNight = current dynamic rate
+    private double basePrice;
     private double pricePerNight;
     private int availableCount;
     private List<String> amenities;
@@ -33,6 +35,8 @@ public class RoomType {
     public void setName(String name){this.name=name;}
     public String getDescription(){return description;}
     public void setDescription(String description){this.description=description;}
+    public double getBasePrice(){return basePrice;}
+    public void setBasePrice(double basePrice){this.basePrice=basePrice;}
     public double getPricePerNight(){return pricePerNight;}
     public void setPricePerNight(double pricePerNight){this.pricePerNight=pricePerNight;}
     public int getAvailableCount(){return availableCount;}
@@ -3,6 +3,8 @@ package com.makemytrip.makemytrip.models;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
+import java.util.Date;
+
 @Document(collection = "seats")
 public class Seat {
     @Id
@@ -21,6 +23,11 @@ public class Seat {
     private boolean premium;
     private double premiumPrice; // extra charge for the seat
 
+    private long version;      // bumped by every reserve/release/save of the stored seat
+    private String layout;     // SeatLayout template the flight was seeded from, if any
+    private Date holdUntil;    // a reservation not yet confirmed by a booking lapses at this time
+    private String claim;      // group reservation in flight on the seat, to undo it (SeatService.reserveSeats)
+
 
     public boolean isPremium() {
 		return premium;
@@ -71,4 +78,16 @@ public class Seat {
 
     public String getNotes() { return notes; }
     public void setNotes(String notes) { this.notes = notes; }
+
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+
+    public String getLayout() { return layout; }
+    public void setLayout(String layout) { this.layout = layout; }
+
+    public Date getHoldUntil() { return holdUntil; }
+    public void setHoldUntil(Date holdUntil) { this.holdUntil = holdUntil; }
+
+    public String getClaim() { return claim; }
+    public void setClaim(String claim) { this.claim = claim; }
 }
@@ -0,0 +1,207 @@
+package com.makemytrip.makemytrip.models;
+
+import java.util.*;
+
+/**
+ * SeatLayout
+ *
+ * An aircraft seat map template: the fixed part of every Seat (row, col, category,
+ * window/aisle, prices, notes) held once in parallel arrays and shared by all flights
+ * flown with it. Seats are numbered 0..size()-1 in display order (row, then col) and
+ * labelled row + col ("12C"); a flight only adds who holds each seat (see SeatService).
+ * Instances are immutable; with() returns a changed copy.
+ */
+public final class SeatLayout {
+
+    private static final Comparator<Seat> DISPLAY_ORDER =
+            Comparator.comparing(Seat::getRow, Comparator.nullsFirst(String::compareTo))
+                    .thenComparing(Seat::getCol, Comparator.nullsFirst(String::compareTo));
+
+    /** The mock narrow-body cabin: rows 1..20, cols A-F, business 1-2, premium 3-5 (declared after DISPLAY_ORDER, which it needs). */
+    public static final SeatLayout DEFAULT = narrowBody("narrow-body-20x6", 20, 2, 5);
+
+    private static final Map<String, SeatLayout> TEMPLATES = Map.of(DEFAULT.name, DEFAULT);
+
+    private final String name;
+    private final String[] labels;
+    private final String[] rows;
+    private final String[] cols;
+    private final String[] categories;
+    private final String[] notes;
+    private final boolean[] window;
+    private final boolean[] aisle;
+    private final boolean[] premium;
+    private final double[] premiumPrice;
+    private final double[] upsellPrice;
+    // label -> position + 1, open addressing over a power-of-two table, so a seat id can
+    // be looked up by a region of it without cutting the label out
+    private final int[] slots;
+
+    private SeatLayout(String name, List<Seat> seats) {
+        int n = seats.size();
+        this.name = name;
+        labels = new String[n];
+        rows = new String[n];
+        cols = new String[n];
+        categories = new String[n];
+        notes = new String[n];
+        window = new boolean[n];
+        aisle = new boolean[n];
+        premium = new boolean[n];
+        premiumPrice = new double[n];
+        upsellPrice = new double[n];
+        slots = new int[Integer.highestOneBit(Math.max(1, n) * 4 - 1)];
+        for (int i = 0; i < n; i++) {
+            Seat s = seats.get(i);
+            labels[i] = label(s);
+            rows[i] = s.getRow();
+            cols[i] = s.getCol();
+            categories[i] = s.getCategory();
+            notes[i] = s.getNotes();
+            window[i] = s.isWindow();
+            aisle[i] = s.isAisle();
+            premium[i] = s.isPremium();
+            premiumPrice[i] = s.getPremiumPrice();
+            upsellPrice[i] = s.getUpsellPrice();
+            slots[find(labels[i], 0)] = i + 1; // labels are unique here, see of()
+        }
+    }
+
+    /** The shared template with this name, or null (custom per-flight layouts are not registered). */
+    public static SeatLayout named(String name) {
+        return name == null ? null : TEMPLATES.get(name);
+    }
+
+    /** A layout of the given seats (their layout fields only); a later seat with the same label wins. */
+    public static SeatLayout of(String name, Collection<Seat> seats) {
+        Map<String, Seat> byLabel = new LinkedHashMap<>();
+        for (Seat s : seats) byLabel.put(label(s), s);
+        List<Seat> sorted = new ArrayList<>(byLabel.values());
+        sorted.sort(DISPLAY_ORDER);
+        return new SeatLayout(name, sorted);
+    }
+
+    /** rows x A-F, window A/F, aisle C/D; rows up to businessRows are BUSINESS, then PREMIUM up to premiumRows. */
+    public static SeatLayout narrowBody(String name, int rowCount, int businessRows, int premiumRows) {
+        String[] letters = {"A", "B", "C", "D", "E", "F"};
+        List<Seat> seats = new ArrayList<>(rowCount * letters.length);
+        for (int r = 1; r <= rowCount; r++) {
+            String row = String.valueOf(r);
+            String category = r <= businessRows ? "BUSINESS" : (r <= premiumRows ? "PREMIUM" : "ECONOMY");
+            double price = category.equals("BUSINESS") ? 75.0 : category.equals("PREMIUM") ? 25.0 : 0.0;
+            for (String col : letters) {
+                Seat s = new Seat();
+                s.setRow(row);
+                s.setCol(col);
+                s.setCategory(category);
+                s.setWindow(col.equals("A") || col.equals("F"));
+                s.setAisle(col.equals("C") || col.equals("D"));
+                s.setPremium(!category.equals("ECONOMY"));
+                s.setPremiumPrice(price);
+                s.setUpsellPrice(price); // still keep for compatibility
+                seats.add(s);
+            }
+        }
+        return of(name, seats);
+    }
+
+    /** Position key of a seat within a layout: row + col. */
+    public static String label(Seat s) {
+        return (s.getRow() == null ? "" : s.getRow()) + (s.getCol() == null ? "" : s.getCol());
+    }
+
+    /**
+     * This layout with the seat's layout fields added or replaced, under the given name;
+     * this same instance if the seat is already here unchanged.
+     */
+    public SeatLayout with(String newName, Seat seat) {
+        int i = indexOf(label(seat));
+        if (i >= 0 && matches(i, seat)) return this;
+        List<Seat> seats = new ArrayList<>(size() + 1);
+        for (int j = 0; j < size(); j++) seats.add(seat(j, null, null, false, null));
+        seats.add(seat);
+        return of(newName, seats);
+    }
+
+    private boolean matches(int i, Seat s) {
+        return Objects.equals(categories[i], s.getCategory())
+                && Objects.equals(notes[i], s.getNotes())
+                && window[i] == s.isWindow()
+                && aisle[i] == s.isAisle()
+                && premium[i] == s.isPremium()
+                && premiumPrice[i] == s.getPremiumPrice()
+                && upsellPrice[i] == s.getUpsellPrice();
+    }
+
+    /** A new Seat for position i with the given identity and occupancy. */
+    public Seat seat(int i, String id, String flightId, boolean reserved, String reservedBy) {
+        Seat c = new Seat();
+        c.setId(id);
+        c.setFlightId(flightId);
+        c.setRow(rows[i]);
+        c.setCol(cols[i]);
+        c.setCategory(categories[i]);
+        c.setWindow(window[i]);
+        c.setAisle(aisle[i]);
+        c.setReserved(reserved);
+        c.setReservedBy(reservedBy);
+        c.setPremium(premium[i]);
+        c.setPremiumPrice(premiumPrice[i]);
+        c.setUpsellPrice(upsellPrice[i]);
+        c.setNotes(notes[i]);
+        return c;
+    }
+
+    /** Position of the label, or -1. */
+    public int indexOf(String label) {
+        return indexOf(label, 0);
+    }
+
+    /** Position of the label text.substring(from), or -1. */
+    public int indexOf(String text, int from) {
+        return slots[find(text, from)] - 1;
+    }
+
+    /** The slot holding the label, or the empty slot where it would go. */
+    private int find(String text, int from) {
+        int len = text.length() - from;
+        int h = 0;
+        for (int k = from; k < text.length(); k++) h = 31 * h + text.charAt(k);
+        int mask = slots.length - 1;
+        // labels like 1A, 1B hash to consecutive values: spread them before probing
+        for (int slot = (h * 0x9E3779B9) >>> 16 & mask; ; slot = (slot + 1) & mask) {
+            int p = slots[slot] - 1;
+            if (p < 0 || labelAt(labels[p], text, from, len)) return slot;
+        }
+    }
+
+    private static boolean labelAt(String label, String text, int from, int len) {
+        if (label.length() != len) return false;
+        for (int k = 0; k < len; k++) {
+            if (label.charAt(k) != text.charAt(from + k)) return false;
+        }
+        return true;
+    }
+
+    public String getName() { return name; }
+    public int size() { return labels.length; }
+    public String label(int i) { return labels[i]; }
+
+    /** The template as parallel arrays (copies), the payload clients cache for the compact seat map. */
+    public Map<String, Object> toMap() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("name", name);
+        out.put("seats", labels.length);
+        out.put("labels", labels.clone());
+        out.put("rows", rows.clone());
+        out.put("cols", cols.clone());
+        out.put("categories", categories.clone());
+        out.put("window", window.clone());
+        out.put("aisle", aisle.clone());
+        out.put("premium", premium.clone());
+        out.put("premiumPrice", premiumPrice.clone());
+        out.put("upsellPrice", upsellPrice.clone());
+        out.put("notes", notes.clone());
+        return out;
+    }
+}
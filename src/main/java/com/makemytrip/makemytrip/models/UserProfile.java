@@ -0,0 +1,53 @@
+package com.makemytrip.makemytrip.models;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.*;
+
+/**
+ * Taste profile of one user, kept up to date by the interaction and feedback endpoints
+ * (UserProfileService) so recommendations read one small document instead of the raw
+ * interaction and feedback history.
+ */
+@Document(collection = "user_profiles")
+public class UserProfile {
+    @Id
+    private String id; // userId
+    // theme name -> forward-decayed weight (see UserProfileService); only ratios matter
+    private Map<String, Double> themeWeights = new HashMap<>();
+    // type -> decayed sum of price * weight and of weight; their ratio is the user's usual price
+    private Map<String, Double> priceTotals = new HashMap<>();
+    private Map<String, Double> priceWeights = new HashMap<>();
+    private List<String> recentItems = new ArrayList<>(); // "type:id", oldest first, capped
+    private Set<String> likedIds = new HashSet<>();
+    private Set<String> dislikedIds = new HashSet<>();
+    private Date lastUpdated;
+    // set once the profile has been built from the user's interaction and feedback history
+    private boolean backfilled;
+
+    public UserProfile() {}
+
+    public UserProfile(String id) {
+        this.id = id;
+    }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public Map<String, Double> getThemeWeights() { return themeWeights; }
+    public void setThemeWeights(Map<String, Double> themeWeights) { this.themeWeights = themeWeights; }
+    public Map<String, Double> getPriceTotals() { return priceTotals; }
+    public void setPriceTotals(Map<String, Double> priceTotals) { this.priceTotals = priceTotals; }
+    public Map<String, Double> getPriceWeights() { return priceWeights; }
+    public void setPriceWeights(Map<String, Double> priceWeights) { this.priceWeights = priceWeights; }
+    public List<String> getRecentItems() { return recentItems; }
+    public void setRecentItems(List<String> recentItems) { this.recentItems = recentItems; }
+    public Set<String> getLikedIds() { return likedIds; }
+    public void setLikedIds(Set<String> likedIds) { this.likedIds = likedIds; }
+    public Set<String> getDislikedIds() { return dislikedIds; }
+    public void setDislikedIds(Set<String> dislikedIds) { this.dislikedIds = dislikedIds; }
+    public Date getLastUpdated() { return lastUpdated; }
+    public void setLastUpdated(Date lastUpdated) { this.lastUpdated = lastUpdated; }
+    public boolean isBackfilled() { return backfilled; }
+    public void setBackfilled(boolean backfilled) { this.backfilled = backfilled; }
+}
@@ -1,6 +1,8 @@
 package com.makemytrip.makemytrip.repositories;
 
 import com.makemytrip.makemytrip.models.Booking;
+import com.makemytrip.makemytrip.models.FlightDemand;
+import org.springframework.data.mongodb.repository.Aggregation;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -18,4 +20,13 @@ public interface BookingRepository extends MongoRepository<Booking, String> {
             String bookingRef,
             LocalDateTime after
     );
+
+    // one grouped pass over flight and hotel bookings made in [from, to) and not cancelled before to
+    // (demand as of to): (bookingRef, hour) -> count
+    @Aggregation(pipeline = {
+            "{ $match: { bookingType: { $in: ['FLIGHT', 'HOTEL'] }, bookingTime: { $gte: ?0, $lt: ?1 }, $or: [ { status: { $ne: 'CANCELLED' } }, { cancellationTime: { $gte: ?1 } } ] } }",
+            "{ $group: { _id: { flightId: '$bookingRef', hour: { $toLong: { $floor: { $divide: [ { $toLong: '$bookingTime' }, 3600000 ] } } } }, count: { $sum: 1 } } }",
+            "{ $project: { _id: 0, flightId: '$_id.flightId', hour: '$_id.hour', count: 1 } }"
+    })
+    List<FlightDemand> countBookingsByHour(LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,13 @@
+package com.makemytrip.makemytrip.repositories;
+
+import com.makemytrip.makemytrip.models.FareLock;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface FareLockRepository extends MongoRepository<FareLock, String> {
+    List<FareLock> findByExpiresAtAfter(Date now);
+}
@@ -2,8 +2,31 @@ package com.makemytrip.makemytrip.repositories;
 
 import com.makemytrip.makemytrip.models.Flight;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface FlightRepository extends MongoRepository<Flight, String> {
+
+    // pricing sweep only needs the price fields and the travel date, not the whole document
+    @Query(value = "{ basePrice: { $gt: 0 } }",
+           fields = "{ basePrice: 1, currentPrice: 1, departureTime: 1 }")
+    List<Flight> findPricingSnapshot();
+
+    // price fields of a single flight, used to fill FlightPriceCache on a miss
+    @Query(value = "{ _id: ?0 }",
+           fields = "{ basePrice: 1, currentPrice: 1 }")
+    Optional<Flight> findPriceById(String id);
+
+    // theme index only needs the text fields themes are extracted from, plus the price it ranks by
+    @Query(value = "{}", fields = "{ flightName: 1, to: 1, basePrice: 1, currentPrice: 1 }")
+    List<Flight> findThemeSnapshot();
+
+    // same fields for a handful of flights, e.g. ones the theme index has not seen yet
+    @Query(value = "{ _id: { $in: ?0 } }", fields = "{ flightName: 1, to: 1, basePrice: 1, currentPrice: 1 }")
+    List<Flight> findThemeFieldsByIdIn(Collection<String> ids);
 }
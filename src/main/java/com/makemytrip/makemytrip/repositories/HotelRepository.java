@@ -2,8 +2,20 @@ package com.makemytrip.makemytrip.repositories;
 
 import com.makemytrip.makemytrip.models.Hotel;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface HotelRepository extends MongoRepository<Hotel, String> {
+
+    // theme index only needs the text fields themes are extracted from, plus the price it ranks by
+    @Query(value = "{}", fields = "{ hotelName: 1, location: 1, amenities: 1, description: 1, pricePerNight: 1 }")
+    List<Hotel> findThemeSnapshot();
+
+    // same fields for a handful of hotels, e.g. ones the theme index has not seen yet
+    @Query(value = "{ _id: { $in: ?0 } }", fields = "{ hotelName: 1, location: 1, amenities: 1, description: 1, pricePerNight: 1 }")
+    List<Hotel> findThemeFieldsByIdIn(Collection<String> ids);
 }
@@ -0,0 +1,14 @@
+package com.makemytrip.makemytrip.repositories;
+
+import com.makemytrip.makemytrip.models.ItemNeighbors;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+
+@Repository
+public interface ItemNeighborsRepository extends MongoRepository<ItemNeighbors, String> {
+
+    // rows left over from an older build
+    long deleteByBuiltAtBefore(Date builtAt);
+}
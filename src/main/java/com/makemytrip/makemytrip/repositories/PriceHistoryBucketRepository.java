@@ -0,0 +1,20 @@
+package com.makemytrip.makemytrip.repositories;
+
+import com.makemytrip.makemytrip.models.PriceHistoryBucket;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PriceHistoryBucketRepository extends MongoRepository<PriceHistoryBucket, String> {
+
+    // bucket ids are "type:productId:yyyy-MM-dd", so a day range is an _id range
+    @Query(value = "{ _id: { $gte: ?0, $lte: ?1 } }", sort = "{ _id: 1 }")
+    List<PriceHistoryBucket> findByIdRange(String fromId, String toId);
+
+    // the same range with the daily aggregates only, without the per-change arrays
+    @Query(value = "{ _id: { $gte: ?0, $lte: ?1 } }", fields = "{ ts: 0, prices: 0, reasons: 0 }", sort = "{ _id: 1 }")
+    List<PriceHistoryBucket> findSummariesByIdRange(String fromId, String toId);
+}
@@ -2,11 +2,17 @@ package com.makemytrip.makemytrip.repositories;
 
 import com.makemytrip.makemytrip.models.PriceHistory;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 @Repository
 public interface PriceHistoryRepository extends MongoRepository<PriceHistory, String> {
     List<PriceHistory> findByProductTypeAndProductIdOrderByTimestampAsc(String productType, String productId);
+
+    // legacy one-row-per-change history, read only for ranges written before bucketing
+    @Query(value = "{ productType: ?0, productId: ?1, timestamp: { $gte: ?2, $lte: ?3 } }", sort = "{ timestamp: 1 }")
+    List<PriceHistory> findInRange(String productType, String productId, Date from, Date to);
 }
@@ -0,0 +1,9 @@
+package com.makemytrip.makemytrip.repositories;
+
+import com.makemytrip.makemytrip.models.PricingCalendar;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PricingCalendarRepository extends MongoRepository<PricingCalendar, String> {
+}
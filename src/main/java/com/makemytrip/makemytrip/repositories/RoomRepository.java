@@ -2,9 +2,14 @@ package com.makemytrip.makemytrip.repositories;
 
 import com.makemytrip.makemytrip.models.RoomType;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
 import java.util.List;
 
 public interface RoomRepository extends MongoRepository<RoomType, String> {
     List<RoomType> findByHotelId(String hotelId);
+
+    // pricing sweep: rate fields and the hotel (demand is counted per hotel)
+    @Query(value = "{}", fields = "{ hotelId: 1, basePrice: 1, pricePerNight: 1 }")
+    List<RoomType> findPricingSnapshot();
 }
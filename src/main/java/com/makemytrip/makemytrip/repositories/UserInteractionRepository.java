@@ -1,6 +1,7 @@
 package com.makemytrip.makemytrip.repositories;
 
 import com.makemytrip.makemytrip.models.UserInteraction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -10,6 +11,9 @@ import java.util.List;
 public interface UserInteractionRepository extends MongoRepository<UserInteraction, String> {
     List<UserInteraction> findByUserIdOrderByTimestampDesc(String userId);
 
+    // most recent interactions only; recommendations look at a bounded window
+    List<UserInteraction> findByUserIdOrderByTimestampDesc(String userId, Pageable pageable);
+
     List<UserInteraction> findByEntityTypeAndEntityId(String entityType, String entityId);
 
     List<UserInteraction> findByUserIdAndEntityType(String userId, String entityType);
@@ -1,5 +1,6 @@
 package com.makemytrip.makemytrip.services;
 
+import com.makemytrip.makemytrip.models.FareLock;
 import com.makemytrip.makemytrip.models.Users;
 import com.makemytrip.makemytrip.models.Booking;
 import com.makemytrip.makemytrip.models.Hotel;
@@ -10,6 +11,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 public class BookingService {
@@ -23,9 +26,29 @@ public class BookingService {
 	@Autowired
 	private BookingRepository bookingRepo;
 
+	@Autowired
+	private FlightDemandTracker demandTracker;
+
+	@Autowired
+	private FareLockService fareLockService;
+
+	@Autowired
+	private TrendingService trendingService;
+
+	@Autowired
+	private SeatService seatService;
+
 	public Booking bookFlight(String userId, String flightId, int seats, double price,
 			String seatId, Double seatPrice) {
 
+		// a fare lock held by this user overrides the client-side fare
+		FareLock lock = fareLockService.activeLock(userId, flightId);
+		if (lock != null) {
+			price = lock.getLockedPrice() * seats + (seatPrice != null ? seatPrice : 0.0);
+		}
+
+		confirmSeats(userId, seatId);
+
 		Booking booking = new Booking();
 		booking.setUserId(userId);
 		booking.setSeats(seats);
@@ -34,12 +57,38 @@ public class BookingService {
 		booking.setSeats(seats);
 		booking.setTotalAmount(price);
 		booking.setStatus("CONFIRMED");
-		booking.setBookingTime(LocalDateTime.now());
 
 		booking.setSeatId(seatId);
 		booking.setSeatPrice(seatPrice != null ? seatPrice : 0.0);
 
-		return bookingRepo.save(booking);
+		Booking saved = demandTracker.tracked(() -> {
+			booking.setBookingTime(LocalDateTime.now());
+			return bookingRepo.save(booking);
+		});
+		demandTracker.recordBooking(flightId, saved.getBookingTime());
+		trendingService.recordBooking(saved);
+		if (lock != null) {
+			fareLockService.consume(userId, flightId);
+		}
+		return saved;
+	}
+
+	// the user's seat holds stop lapsing once booked; a seat lost meanwhile fails the booking
+	private void confirmSeats(String userId, String seatIds) {
+		if (seatIds == null || seatIds.isBlank()) return;
+		List<String> confirmed = new ArrayList<>();
+		try {
+			for (String id : seatIds.split(",")) {
+				if (id.isBlank()) continue;
+				seatService.confirmSeat(id.trim(), userId);
+				confirmed.add(id.trim());
+			}
+		} catch (RuntimeException ex) {
+			for (String id : confirmed) {
+				try { seatService.releaseSeat(id, userId); } catch (RuntimeException ignore) {}
+			}
+			throw ex;
+		}
 	}
 
 	public Booking bookHotel(String userId, String hotelId, int rooms, double price) {
@@ -55,10 +104,14 @@ public class BookingService {
 		booking.setBookingType("HOTEL");
 		booking.setBookingRef(hotelId);
 		booking.setTotalAmount(price);
-		booking.setBookingTime(LocalDateTime.now());
 		booking.setStatus("CONFIRMED");
 
-		bookingRepo.save(booking);
+		demandTracker.tracked(() -> {
+			booking.setBookingTime(LocalDateTime.now());
+			return bookingRepo.save(booking);
+		});
+		demandTracker.recordBooking(hotelId, booking.getBookingTime());
+		trendingService.recordBooking(booking);
 		user.getBookingIds().add(booking.getId());
 		userRepo.save(user);
 
@@ -33,6 +33,9 @@ public class CancellationService {
     @Autowired
     private HotelRepository hotelRepo;
 
+    @Autowired
+    private FlightDemandTracker demandTracker;
+
     public Booking cancelBooking(String bookingId, String reason) {
 
         Booking booking = bookingRepo.findById(bookingId)
@@ -64,10 +67,17 @@ public class CancellationService {
 
         booking.setStatus("CANCELLED");
         booking.setCancellationReason(reason);
-        booking.setCancellationTime(LocalDateTime.now());
         booking.setRefundAmount(refundAmount);
         booking.setRefundStatus("PENDING");
-        bookingRepo.save(booking);
+        demandTracker.tracked(() -> {
+            booking.setCancellationTime(LocalDateTime.now());
+            return bookingRepo.save(booking);
+        });
+
+        if ("FLIGHT".equals(type) || "HOTEL".equals(type)) {
+            demandTracker.recordCancellation(booking.getBookingRef(), booking.getBookingTime(),
+                    booking.getCancellationTime());
+        }
 
         Refund refund = new Refund();
         refund.setBookingId(booking.getId());
@@ -0,0 +1,284 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.repositories.FlightRepository;
+import com.makemytrip.makemytrip.repositories.HotelRepository;
+import com.makemytrip.makemytrip.util.TopK;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * ContentVectorIndex
+ *
+ * "More like this" for flights and hotels, by text content rather than theme keywords.
+ *  - every hotel (name, location, amenities, description) and flight (destination,
+ *    name) becomes a fixed-width float vector with the hashing trick: each token adds
+ *    +-weight to bucket hash(token) mod recommendations.vectors.dim, with per-field
+ *    weights and log-scaled counts, then the vector is L2-normalized
+ *  - vectors of a type sit in one float[], dimension-major (bucket j of every item is
+ *    contiguous). A query is an exact brute-force cosine (rows are unit length) over
+ *    every item, computed as one scores[] += q[j] * column[j] pass per non-zero query
+ *    bucket: plain loops over contiguous arrays that the JIT vectorizes, and a short
+ *    text only sets a few dozen of the buckets. The best k go through a TopK heap
+ *  - the arrays are rebuilt from a projection every recommendations.vectors.refresh-ms;
+ *    admin edits in between go into a small per-type overlay searched alongside them
+ */
+@Service
+public class ContentVectorIndex {
+
+    private static final float NAME_WEIGHT = 1.0f;
+    private static final float LOCATION_WEIGHT = 2.0f;
+    private static final float AMENITIES_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private HotelRepository hotelRepo;
+
+    // power of two, at least 16
+    @Value("${recommendations.vectors.dim:128}")
+    private int dim;
+
+    private volatile Map<String, Block> blocks = Map.of();
+
+    /** type -> id -> vector written by the admin API since the last rebuild */
+    private final Map<String, Map<String, Edit>> edits = Map.of(
+            ThemeIndex.FLIGHT, new ConcurrentHashMap<>(),
+            ThemeIndex.HOTEL, new ConcurrentHashMap<>());
+
+    private volatile boolean loaded;
+    private volatile long lastBuildMs;
+
+    /** Items of one type: component j of item r is data[j * stride + r], for r < count. */
+    private record Block(String[] ids, float[] data, int stride, int count, Map<String, Integer> rows) {}
+
+    private record Edit(float[] vector, long at) {}
+
+    @PostConstruct
+    public void init() {
+        if (dim < 16 || Integer.bitCount(dim) != 1) {
+            throw new IllegalStateException("recommendations.vectors.dim must be a power of two >= 16: " + dim);
+        }
+        Block empty = new Block(new String[0], new float[0], 0, 0, Map.of());
+        blocks = Map.of(ThemeIndex.FLIGHT, empty, ThemeIndex.HOTEL, empty);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread t = new Thread(this::ensureLoaded, "content-vectors-warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Builds the vectors on first use if warm-up has not finished yet. */
+    public void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (!loaded) rebuild();
+        }
+    }
+
+    /** Re-reads the catalog and rebuilds both arrays; edits older than the rebuild are dropped. */
+    @Scheduled(fixedDelayString = "${recommendations.vectors.refresh-ms:3600000}",
+               initialDelayString = "${recommendations.vectors.refresh-ms:3600000}")
+    public synchronized void rebuild() {
+        try {
+            long started = System.currentTimeMillis();
+            List<Flight> flights = flightRepository.findThemeSnapshot();
+            Block flightBlock = build(flights, Flight::getId, (Vectorizer<Flight>) this::vector);
+            List<Hotel> hotels = hotelRepo.findThemeSnapshot();
+            Block hotelBlock = build(hotels, Hotel::getId, (Vectorizer<Hotel>) this::vector);
+            blocks = Map.of(ThemeIndex.FLIGHT, flightBlock, ThemeIndex.HOTEL, hotelBlock);
+            for (Map<String, Edit> overlay : edits.values()) {
+                overlay.values().removeIf(e -> e.at < started);
+            }
+            loaded = true;
+            lastBuildMs = System.currentTimeMillis() - started;
+        } catch (Exception ex) {
+            System.err.println("ContentVectorIndex.rebuild failed: " + ex.getMessage());
+        }
+    }
+
+    private interface Vectorizer<T> {
+        void write(T item, float[] out, int offset);
+    }
+
+    private <T> Block build(List<T> items, Function<T, String> idOf, Vectorizer<T> vectorizer) {
+        int n = items.size();
+        String[] ids = new String[n];
+        float[] data = new float[n * dim];
+        Map<String, Integer> rows = new HashMap<>(n * 2);
+        float[] row = new float[dim];
+        int r = 0;
+        for (T item : items) {
+            String id = idOf.apply(item);
+            if (id == null || rows.containsKey(id)) continue;
+            Arrays.fill(row, 0f);
+            vectorizer.write(item, row, 0);
+            for (int j = 0; j < dim; j++) data[j * n + r] = row[j];
+            ids[r] = id;
+            rows.put(id, r++);
+        }
+        return new Block(ids, data, n, r, rows);
+    }
+
+    public void index(Flight f) {
+        if (f == null || f.getId() == null) return;
+        float[] v = new float[dim];
+        vector(f, v, 0);
+        edits.get(ThemeIndex.FLIGHT).put(f.getId(), new Edit(v, System.currentTimeMillis()));
+    }
+
+    public void index(Hotel h) {
+        if (h == null || h.getId() == null) return;
+        float[] v = new float[dim];
+        vector(h, v, 0);
+        edits.get(ThemeIndex.HOTEL).put(h.getId(), new Edit(v, System.currentTimeMillis()));
+    }
+
+    /**
+     * The k items of the type most similar to the given one, best first, with their
+     * cosine similarity. Empty if the item is unknown.
+     */
+    public List<TopK.Scored<String>> similar(String type, String id, int k) {
+        Block block = blocks.get(type);
+        if (block == null || id == null || k <= 0) return List.of();
+        Map<String, Edit> overlay = edits.get(type);
+        float[] q = vectorOf(type, id, block, overlay);
+        if (q == null) return List.of();
+
+        int n = block.count;
+        int stride = block.stride;
+        float[] data = block.data;
+        float[] scores = new float[n];
+        for (int j = 0; j < dim; j++) {
+            float qj = q[j];
+            if (qj == 0f) continue;
+            for (int r = 0, base = j * stride; r < n; r++) scores[r] += qj * data[base + r];
+        }
+
+        TopK<String> top = new TopK<>(k);
+        String[] ids = block.ids;
+        boolean edited = !overlay.isEmpty();
+        for (int r = 0; r < n; r++) {
+            float s = scores[r];
+            if (s <= 0f || s <= top.threshold()) continue;
+            // rows overridden by an edit are scored from the overlay below
+            if (ids[r].equals(id) || (edited && overlay.containsKey(ids[r]))) continue;
+            top.offer(ids[r], s);
+        }
+        for (Map.Entry<String, Edit> e : overlay.entrySet()) {
+            if (e.getKey().equals(id)) continue;
+            float s = dot(e.getValue().vector, 0, q, dim);
+            if (s > 0f) top.offer(e.getKey(), s);
+        }
+        return top.ranked();
+    }
+
+    private float[] vectorOf(String type, String id, Block block, Map<String, Edit> overlay) {
+        Edit e = overlay.get(id);
+        if (e != null) return e.vector;
+        Integer row = block.rows.get(id);
+        if (row != null) {
+            float[] v = new float[dim];
+            for (int j = 0; j < dim; j++) v[j] = block.data[j * block.stride + row];
+            return v;
+        }
+        // not indexed yet: vectorize it from Mongo without adding it
+        float[] v = new float[dim];
+        if (ThemeIndex.FLIGHT.equals(type)) {
+            List<Flight> found = flightRepository.findThemeFieldsByIdIn(List.of(id));
+            if (found.isEmpty()) return null;
+            vector(found.get(0), v, 0);
+        } else {
+            List<Hotel> found = hotelRepo.findThemeFieldsByIdIn(List.of(id));
+            if (found.isEmpty()) return null;
+            vector(found.get(0), v, 0);
+        }
+        return v;
+    }
+
+    /** a[off..off+dim) . q for an overlay vector, in four independent partial sums. */
+    private static float dot(float[] a, int off, float[] q, int dim) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        for (int j = 0; j < dim; j += 4) {
+            s0 += a[off + j] * q[j];
+            s1 += a[off + j + 1] * q[j + 1];
+            s2 += a[off + j + 2] * q[j + 2];
+            s3 += a[off + j + 3] * q[j + 3];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private void vector(Flight f, float[] out, int offset) {
+        add(f.getTo(), LOCATION_WEIGHT, out, offset);
+        add(f.getFlightName(), NAME_WEIGHT, out, offset);
+        normalize(out, offset);
+    }
+
+    private void vector(Hotel h, float[] out, int offset) {
+        add(h.getHotelName(), NAME_WEIGHT, out, offset);
+        add(h.getLocation(), LOCATION_WEIGHT, out, offset);
+        add(h.getAmenities(), AMENITIES_WEIGHT, out, offset);
+        add(h.getDescription(), DESCRIPTION_WEIGHT, out, offset);
+        normalize(out, offset);
+    }
+
+    /** Hashes each lower-cased letter/digit token of the text into out, signed by a second hash bit. */
+    private void add(String text, float weight, float[] out, int offset) {
+        if (text == null) return;
+        int mask = dim - 1;
+        int n = text.length();
+        int i = 0;
+        while (i < n) {
+            while (i < n && !Character.isLetterOrDigit(text.charAt(i))) i++;
+            int h = 0x811C9DC5;
+            int len = 0;
+            while (i < n && Character.isLetterOrDigit(text.charAt(i))) {
+                h = (h ^ Character.toLowerCase(text.charAt(i++))) * 0x01000193;
+                len++;
+            }
+            if (len < 2) continue;
+            h ^= h >>> 16;
+            h *= 0x85EBCA6B;
+            h ^= h >>> 13;
+            out[offset + (h & mask)] += (h < 0 ? -weight : weight);
+        }
+    }
+
+    /** log-scales repeated tokens and makes the row unit length (all-zero rows stay zero). */
+    private void normalize(float[] out, int offset) {
+        double norm = 0;
+        for (int j = offset; j < offset + dim; j++) {
+            float v = out[j];
+            v = (float) Math.copySign(Math.log1p(Math.abs(v)), v);
+            out[j] = v;
+            norm += (double) v * v;
+        }
+        if (norm == 0) return;
+        float inv = (float) (1.0 / Math.sqrt(norm));
+        for (int j = offset; j < offset + dim; j++) out[j] *= inv;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("dim", dim);
+        out.put("flights", blocks.get(ThemeIndex.FLIGHT).count);
+        out.put("hotels", blocks.get(ThemeIndex.HOTEL).count);
+        out.put("pendingEdits", edits.get(ThemeIndex.FLIGHT).size() + edits.get(ThemeIndex.HOTEL).size());
+        out.put("lastBuildMs", lastBuildMs);
+        return out;
+    }
+}
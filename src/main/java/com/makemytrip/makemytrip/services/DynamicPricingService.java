@@ -1,28 +1,73 @@
 package com.makemytrip.makemytrip.services;
 
-import com.makemytrip.makemytrip.models.Booking;
 import com.makemytrip.makemytrip.models.Flight;
 import com.makemytrip.makemytrip.models.PriceHistory;
-import com.makemytrip.makemytrip.repositories.BookingRepository;
+import com.makemytrip.makemytrip.models.PricingRunReport;
+import com.makemytrip.makemytrip.models.RoomType;
 import com.makemytrip.makemytrip.repositories.FlightRepository;
-import com.makemytrip.makemytrip.repositories.PriceHistoryRepository;
+import com.makemytrip.makemytrip.repositories.RoomRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * DynamicPricingService
  *
- * Runs periodically and adjusts flight prices based on:
- *  - Holiday surcharges (e.g. +20% on selected dates)
- *  - Recent demand (number of bookings in last N days)
- *  - Respects "price freeze" (priceFreezeUntil) on flights
+ * Runs periodically and adjusts flight and room type prices based on:
+ *  - Holiday / season surcharges of the travel day (HolidayCalendar; departure date
+ *    for flights, today for room types)
+ *  - Recent demand (number of bookings in last N days; per hotel for room types)
  *
- * Every time the current price changes, a PriceHistory entry is stored.
+ * Price freezes are per-user fare locks (FareLockService) and do not stop repricing.
+ *
+ * Pricing inputs live in two PriceTables (flights, room types): primitive columns
+ * of base / current price in cents and 7-day demand. PricingEngine runs the rules
+ * as a loop over those columns and only rows whose price moved are written back.
+ *
+ * Every time the current price changes, a PriceHistory entry is stored
+ * (as part of a daily bucket, see PriceHistoryService).
+ *
+ * Two schedules share the same tables:
+ *  - repriceChangedFlights (every few seconds): drains the dirty set of
+ *    FlightDemandTracker and reprices only rows whose demand tier moved,
+ *    so a cycle does no Mongo reads.
+ *  - evaluateAndAdjustPrices (full sweep, much less often): reloads the tables
+ *    and reconciles holiday / calendar changes.
+ *
+ * A full sweep is split into phases so each one costs a fixed number of round trips:
+ *  1. load    - one projected query each for flight and room type prices
+ *  2. demand  - slide the in-memory 7-day counters and copy them into the demand columns
+ *  3. compute + write - the rows are split into pricing.partitions contiguous ranges
+ *     that run on the bounded "pricingExecutor" pool; each partition reprices its
+ *     range and writes unordered bulk batches of pricing.batch-size
+ *
+ * The sweep has a global deadline (pricing.sweep.deadline-ms). Partitions still
+ * running at the deadline are cancelled and the next sweep resumes with only the
+ * partitions that did not finish, so a slow run never overlaps the next trigger.
+ * A cancelled partition stops at its next write batch; the sweep waits for that
+ * before it returns, so no partition outlives the cycle that started it.
  */
 @Service
 public class DynamicPricingService {
@@ -31,165 +76,405 @@ public class DynamicPricingService {
     private FlightRepository flightRepository;
 
     @Autowired
-    private BookingRepository bookingRepository;
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private FlightDemandTracker demandTracker;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PriceHistoryService priceHistoryService;
+
+    @Autowired
+    private FlightPriceCache priceCache;
 
     @Autowired
-    private PriceHistoryRepository priceHistoryRepository;
+    private HolidayCalendar holidayCalendar;
+
+    @Autowired
+    @Qualifier("pricingExecutor")
+    private ExecutorService pricingExecutor;
+
+    @Value("${pricing.partitions:16}")
+    private int partitionCount;
+
+    @Value("${pricing.pool-size:4}")
+    private int poolSize;
+
+    @Value("${pricing.batch-size:1000}")
+    private int writeBatchSize;
+
+    @Value("${pricing.sweep.deadline-ms:240000}")
+    private long sweepDeadlineMs;
+
+    // only touched inside the synchronized cycles (and disjoint row ranges on the pool)
+    private final PriceTable flights = new PriceTable("flight", 1024);
+    private final PriceTable rooms = new PriceTable("room", 1024);
+
+    // admin edits made between cycles, applied to the tables at the start of the next one
+    private final Queue<Flight> pendingEdits = new ConcurrentLinkedQueue<>();
+    private final Queue<RoomType> pendingRoomEdits = new ConcurrentLinkedQueue<>();
+
+    private volatile PricingRunReport lastRun;
+
+    private final AtomicBoolean sweepRequested = new AtomicBoolean();
+
+    // partitions not yet finished in the current sweep; non-empty only after a run was cut short
+    private final BitSet pendingPartitions = new BitSet();
+
+    /**
+     * Loads demand counters and runs a first full sweep without holding up startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread t = new Thread(() -> {
+            try {
+                demandTracker.rebuild();
+            } catch (Exception ex) {
+                System.err.println("DynamicPricingService.warmUp: demand rebuild failed: " + ex.getMessage());
+                return;
+            }
+            evaluateAndAdjustPrices();
+        }, "pricing-warmup");
+        t.setDaemon(true);
+        t.start();
+    }
 
     /**
-     * Static list of holidays (MM-dd) where extra surcharge is applied.
-     * You can customize this list for your use case.
+     * Runs a full sweep now, off the caller's thread, for changes every price depends on
+     * (the holiday calendar) that the incremental cycle would not pick up. Requests made
+     * while one is waiting to start share it.
      */
-    private final Set<String> holidays = new HashSet<>(Arrays.asList(
-            "01-01", // New Year
-            "08-15", // Independence Day
-            "10-02", // Gandhi Jayanti
-            "12-25"  // Christmas
-    ));
+    public void requestSweep() {
+        if (!sweepRequested.compareAndSet(false, true)) return;
+        Thread t = new Thread(() -> {
+            sweepRequested.set(false);
+            evaluateAndAdjustPrices();
+        }, "pricing-requested-sweep");
+        t.setDaemon(true);
+        t.start();
+    }
 
     /**
-     * Runs every 5 minutes (300000 ms).
-     * Adjust as needed – could be 1 min, 10 min, hourly etc.
+     * Full reconciliation sweep, every 30 minutes by default (pricing.sweep.interval-ms).
+     * Demand changes between sweeps are handled by repriceChangedFlights.
      */
-    @Scheduled(fixedRate = 300000)
-    public void evaluateAndAdjustPrices() {
+    @Scheduled(fixedRateString = "${pricing.sweep.interval-ms:1800000}",
+               initialDelayString = "${pricing.sweep.interval-ms:1800000}")
+    public synchronized void evaluateAndAdjustPrices() {
         try {
-            LocalDate today = LocalDate.now();
-            String todayKey = String.format("%02d-%02d", today.getMonthValue(), today.getDayOfMonth());
-            boolean isHoliday = holidays.contains(todayKey);
-
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime weekAgo = now.minusDays(7);
+            if (!demandTracker.isReady()) {
+                demandTracker.rebuild();
+            }
 
-            List<Flight> flights = flightRepository.findAll();
+            PricingRunReport report = new PricingRunReport(new Date());
+            long runStart = System.nanoTime();
+            long deadline = runStart + sweepDeadlineMs * 1_000_000L;
 
-            for (Flight flight : flights) {
-                double basePrice = flight.getBasePrice();
-                if (basePrice <= 0.0) {
-                    // no base price set, skip
-                    continue;
+            boolean resumed = !pendingPartitions.isEmpty();
+            if (!resumed) {
+                pendingPartitions.set(0, partitionCount);
+            }
+            report.setResumed(resumed);
+            report.setPoolSize(poolSize);
+
+            HolidayCalendar.Snapshot calendar = holidayCalendar.snapshot();
+            int today = (int) LocalDate.now().toEpochDay();
+
+            // 1) load: price fields only, into the column tables
+            long t = System.nanoTime();
+            pendingEdits.clear(); // the snapshot is at least as new as any queued edit
+            pendingRoomEdits.clear();
+            flights.beginLoad();
+            long cacheVersion = priceCache.version();
+            for (Flight f : flightRepository.findPricingSnapshot()) {
+                flights.upsert(f.getId(), f.getId(),
+                        PricingEngine.toCents(f.getBasePrice()), PricingEngine.toCents(f.getCurrentPrice()),
+                        HolidayCalendar.epochDayOf(f.getDepartureTime()));
+                priceCache.load(f, cacheVersion);
+            }
+            flights.endLoad();
+            rooms.beginLoad();
+            BulkOperations seedBase = null;
+            for (RoomType r : roomRepository.findPricingSnapshot()) {
+                // room types without their own base rate start from the rate they have today,
+                // stored once as their base so later sweeps do not compound on dynamic rates
+                double base = r.getBasePrice() > 0.0 ? r.getBasePrice() : r.getPricePerNight();
+                if (r.getBasePrice() <= 0.0 && base > 0.0) {
+                    if (seedBase == null) seedBase = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, RoomType.class);
+                    seedBase.updateOne(Query.query(Criteria.where("_id").is(r.getId()).and("basePrice").not().gt(0.0)),
+                            Update.update("basePrice", base));
                 }
+                rooms.upsert(r.getId(), r.getHotelId(),
+                        PricingEngine.toCents(base), PricingEngine.toCents(r.getPricePerNight()),
+                        HolidayCalendar.NO_DAY);
+            }
+            if (seedBase != null) seedBase.execute();
+            rooms.endLoad();
+            report.setLoadMs(elapsedMs(t));
+
+            // 2) demand: slide the in-memory counters to the current hour; no Mongo read.
+            // Dirty flags are left for repriceChangedFlights, since a cut-short sweep
+            // may not reach every row.
+            t = System.nanoTime();
+            demandTracker.advance();
+            fillDemand(flights);
+            fillDemand(rooms);
+            report.setDemandMs(elapsedMs(t));
+
+            // 3) compute + write, one task per pending partition
+            int flightRows = flights.size();
+            int roomRows = rooms.size();
+            List<Integer> scheduled = new ArrayList<>();
+            List<PartitionTask> tasks = new ArrayList<>();
+            for (int p = pendingPartitions.nextSetBit(0); p >= 0 && p < partitionCount; p = pendingPartitions.nextSetBit(p + 1)) {
+                int part = p;
+                scheduled.add(p);
+                tasks.add(new PartitionTask(() -> runPartition(part, flightRows, roomRows, calendar, today)));
+            }
+            report.setPartitions(tasks.size());
+
+            long remainingNs = Math.max(0L, deadline - System.nanoTime());
+            List<Future<PartitionResult>> futures;
+            try {
+                futures = pricingExecutor.invokeAll(tasks, remainingNs, TimeUnit.NANOSECONDS);
+            } finally {
+                // cancelled partitions may still be in a write batch: the tables and Mongo
+                // are not released to the next cycle until they are out
+                for (PartitionTask task : tasks) task.awaitStopped();
+            }
 
-                // 1) Respect price freeze: do not change price if freeze is active
-                if (flight.getPriceFreezeUntil() != null) {
-                    Date freezeUntil = flight.getPriceFreezeUntil();
-                    if (freezeUntil.after(new Date())) {
-                        // still frozen, skip this flight
-                        continue;
-                    }
+            int completed = 0, batches = 0;
+            int flightsScanned = 0, flightsChanged = 0, roomsScanned = 0, roomsChanged = 0;
+            long computeNs = 0, writeNs = 0;
+            for (int i = 0; i < futures.size(); i++) {
+                Future<PartitionResult> f = futures.get(i);
+                if (f.isCancelled()) continue;
+                try {
+                    PartitionResult r = f.get();
+                    pendingPartitions.clear(scheduled.get(i));
+                    completed++;
+                    flightsScanned += r.flightsScanned;
+                    flightsChanged += r.flightsChanged;
+                    roomsScanned += r.roomsScanned;
+                    roomsChanged += r.roomsChanged;
+                    batches += r.batches;
+                    computeNs += r.computeNanos;
+                    writeNs += r.writeNanos;
+                } catch (ExecutionException ex) {
+                    // partition stays pending and is retried by the next sweep
+                    System.err.println("DynamicPricingService: partition " + scheduled.get(i)
+                            + " failed: " + ex.getCause());
                 }
+            }
+            if (pendingPartitions.nextSetBit(partitionCount) >= 0) {
+                // partition count was lowered since the last run; forget stale bits
+                pendingPartitions.clear(partitionCount, pendingPartitions.length());
+            }
 
-                double newPrice = calculateDynamicPriceForFlight(flight, basePrice, isHoliday, weekAgo, now);
-                newPrice = roundToCents(newPrice);
+            report.setPartitionsCompleted(completed);
+            report.setCutShort(completed < tasks.size());
+            report.setFlightsScanned(flightsScanned);
+            report.setFlightsChanged(flightsChanged);
+            report.setRoomsScanned(roomsScanned);
+            report.setRoomsChanged(roomsChanged);
+            report.setWriteBatches(batches);
+            report.setComputeMs(computeNs / 1_000_000L);
+            report.setWriteMs(writeNs / 1_000_000L);
+
+            report.setTotalMs(elapsedMs(runStart));
+            double seconds = (System.nanoTime() - runStart) / 1e9;
+            report.setProductsPerSecond(seconds > 0 ? (flightsScanned + roomsScanned) / seconds : 0.0);
+            lastRun = report;
+        } catch (Exception ex) {
+            System.err.println("DynamicPricingService.evaluateAndAdjustPrices failed: " + ex.getMessage());
+            ex.printStackTrace();
+        }
+    }
 
-                double oldPrice = flight.getCurrentPrice();
-                if (oldPrice <= 0.0) {
-                    oldPrice = basePrice; // if not set, treat as base
+    /**
+     * Incremental cycle, every 5 seconds by default (pricing.reprice.interval-ms).
+     * Reprices only the flights, and the room types of hotels, whose demand tier
+     * changed; reads nothing from Mongo.
+     */
+    @Scheduled(fixedDelayString = "${pricing.reprice.interval-ms:5000}")
+    public synchronized void repriceChangedFlights() {
+        if (!demandTracker.isReady()) return;
+        try {
+            applyPendingEdits();
+            demandTracker.advance();
+            Set<String> dirty = demandTracker.drainDirty();
+            if (dirty.isEmpty()) return;
+
+            HolidayCalendar.Snapshot calendar = holidayCalendar.snapshot();
+            int today = (int) LocalDate.now().toEpochDay();
+            IntBuffer flightRows = new IntBuffer();
+            IntBuffer roomRows = new IntBuffer();
+            int[] one = new int[1];
+            for (String key : dirty) {
+                int demand = demandTracker.demand(key);
+                int row = flights.rowOf(key);
+                if (row >= 0) { // unknown flights are picked up by the next sweep
+                    flights.setDemand(row, demand);
+                    if (PricingEngine.reprice(flights, calendar, today, row, row + 1, one) == 1) flightRows.add(row);
                 }
-
-                // Only update & log if there is a significant change
-                if (Math.abs(newPrice - oldPrice) > 0.01) {
-                    flight.setCurrentPrice(newPrice);
-                    flightRepository.save(flight);
-
-                    String reason = buildReasonForChange(flight, basePrice, newPrice, isHoliday, weekAgo, now);
-                    PriceHistory history = new PriceHistory(
-                            "flight",
-                            flight.getId(),
-                            newPrice,
-                            new Date(),
-                            reason
-                    );
-                    priceHistoryRepository.save(history);
+                for (int r : rooms.rowsForDemandKey(key)) {
+                    if (!key.equals(rooms.demandKey(r))) continue; // room type moved to another hotel
+                    rooms.setDemand(r, demand);
+                    if (PricingEngine.reprice(rooms, calendar, today, r, r + 1, one) == 1) roomRows.add(r);
                 }
             }
+            writeChanges(flights, flightRows.rows, flightRows.size, calendar, today);
+            writeChanges(rooms, roomRows.rows, roomRows.size, calendar, today);
         } catch (Exception ex) {
-            System.err.println("DynamicPricingService.evaluateAndAdjustPrices failed: " + ex.getMessage());
+            System.err.println("DynamicPricingService.repriceChangedFlights failed: " + ex.getMessage());
             ex.printStackTrace();
         }
     }
 
     /**
-     * Calculates dynamic price based on:
-     *  - base price
-     *  - holiday factor
-     *  - demand factor (recent bookings)
+     * Keeps the price cache and (from the next cycle on) the flight table in line
+     * with admin edits (base price, manual price). Call after the flight was saved.
      */
-    private double calculateDynamicPriceForFlight(
-            Flight flight,
-            double basePrice,
-            boolean isHoliday,
-            LocalDateTime weekAgo,
-            LocalDateTime now
-    ) {
-        double price = basePrice;
-
-        // Holiday factor: +20% on holidays
-        double holidayFactor = 0.0;
-        if (isHoliday) {
-            holidayFactor = 0.20;
-        }
+    public void onFlightPriceUpdated(Flight flight) {
+        if (flight == null || flight.getId() == null) return;
+        priceCache.put(flight);
+        pendingEdits.add(flight);
+    }
 
-        // Demand factor: based on number of bookings in last 7 days for this flight
-        List<Booking> recentBookings = bookingRepository
-                .findByBookingTypeAndBookingRefAndBookingTimeAfter(
-                        "FLIGHT",
-                        flight.getId(),
-                        weekAgo
-                );
-
-        int demand = recentBookings != null ? recentBookings.size() : 0;
-        double demandFactor = 0.0;
-
-        // Example thresholds – you can tune these:
-        //  0-4 bookings:  +0%
-        //  5-9 bookings: +10%
-        // 10-19 bookings: +20%
-        // 20+ bookings:  +30%
-        if (demand >= 20) {
-            demandFactor = 0.30;
-        } else if (demand >= 10) {
-            demandFactor = 0.20;
-        } else if (demand >= 5) {
-            demandFactor = 0.10;
+    /**
+     * Sets a room type's admin rate with a targeted write (a room without a rate yet
+     * also gets it as its current rate) and reprices from it from the next cycle on.
+     *
+     * @return the updated room type, or null if there is none with this id
+     */
+    public RoomType setRoomBasePrice(String roomId, double basePrice) {
+        Query byId = Query.query(Criteria.where("_id").is(roomId));
+        RoomType room = mongoTemplate.findAndModify(byId, Update.update("basePrice", basePrice),
+                FindAndModifyOptions.options().returnNew(true), RoomType.class);
+        if (room == null) return null;
+        if (room.getPricePerNight() <= 0.0) {
+            mongoTemplate.updateFirst(Query.query(Criteria.where("_id").is(roomId).and("pricePerNight").not().gt(0.0)),
+                    Update.update("pricePerNight", basePrice), RoomType.class);
+            room.setPricePerNight(basePrice);
         }
+        pendingRoomEdits.add(room);
+        return room;
+    }
 
-        double factor = 1.0 + holidayFactor + demandFactor;
+    public PricingRunReport getLastRun() {
+        return lastRun;
+    }
 
-        // Optional safety cap: never increase more than +50% of base price
-        if (factor > 1.5) {
-            factor = 1.5;
+    private void applyPendingEdits() {
+        for (Flight f; (f = pendingEdits.poll()) != null; ) {
+            long base = f.getBasePrice() > 0.0 ? PricingEngine.toCents(f.getBasePrice()) : 0L;
+            if (base == 0L && flights.rowOf(f.getId()) < 0) continue;
+            int row = flights.upsert(f.getId(), f.getId(), base, PricingEngine.toCents(f.getCurrentPrice()),
+                    HolidayCalendar.epochDayOf(f.getDepartureTime()));
+            flights.setDemand(row, demandTracker.demand(f.getId()));
+        }
+        for (RoomType r; (r = pendingRoomEdits.poll()) != null; ) {
+            int row = rooms.upsert(r.getId(), r.getHotelId(), PricingEngine.toCents(r.getBasePrice()),
+                    PricingEngine.toCents(r.getPricePerNight()), HolidayCalendar.NO_DAY);
+            rooms.setDemand(row, demandTracker.demand(r.getHotelId()));
         }
+    }
 
-        price = basePrice * factor;
-        return price;
+    private void fillDemand(PriceTable table) {
+        for (int i = 0, n = table.size(); i < n; i++) {
+            table.setDemand(i, demandTracker.demand(table.demandKey(i)));
+        }
     }
 
     /**
-     * Builds a human-readable reason, stored in PriceHistory.reason
+     * Prices and writes one partition: the p-th contiguous row range of each table.
      */
-    private String buildReasonForChange(
-            Flight flight,
-            double basePrice,
-            double newPrice,
-            boolean isHoliday,
-            LocalDateTime weekAgo,
-            LocalDateTime now
-    ) {
-        StringBuilder sb = new StringBuilder("dynamic pricing: ");
+    private PartitionResult runPartition(int p, int flightRows, int roomRows,
+                                         HolidayCalendar.Snapshot calendar, int today) {
+        PartitionResult r = new PartitionResult();
+        long t = System.nanoTime();
+        int fFrom = rangeStart(p, flightRows), fTo = rangeStart(p + 1, flightRows);
+        int rFrom = rangeStart(p, roomRows), rTo = rangeStart(p + 1, roomRows);
+        int[] changedFlights = new int[fTo - fFrom];
+        int[] changedRooms = new int[rTo - rFrom];
+        r.flightsChanged = PricingEngine.reprice(flights, calendar, today, fFrom, fTo, changedFlights);
+        r.roomsChanged = PricingEngine.reprice(rooms, calendar, today, rFrom, rTo, changedRooms);
+        r.flightsScanned = fTo - fFrom;
+        r.roomsScanned = rTo - rFrom;
+        r.computeNanos = System.nanoTime() - t;
+
+        t = System.nanoTime();
+        r.batches = writeChanges(flights, changedFlights, r.flightsChanged, calendar, today)
+                + writeChanges(rooms, changedRooms, r.roomsChanged, calendar, today);
+        r.writeNanos = System.nanoTime() - t;
+        return r;
+    }
+
+    private int rangeStart(int p, int rows) {
+        return (int) ((long) rows * p / partitionCount);
+    }
+
+    /**
+     * Writes the new prices of rows[0..n) in unordered bulk batches: one product update
+     * batch and one history bucket upsert batch per pricing.batch-size changes. Stops
+     * between batches if the calling partition was cancelled at the sweep deadline.
+     *
+     * @return number of batches written
+     */
+    private int writeChanges(PriceTable table, int[] rows, int n, HolidayCalendar.Snapshot calendar, int today) {
+        int batches = 0;
+        Date changedAt = new Date();
+        boolean isFlight = table == flights;
+
+        for (int from = 0; from < n; from += writeBatchSize) {
+            if (Thread.currentThread().isInterrupted()) {
+                break;
+            }
+            int to = Math.min(from + writeBatchSize, n);
+
+            BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED,
+                    isFlight ? Flight.class : RoomType.class);
+            List<PriceHistory> history = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                int row = rows[i];
+                double base = PricingEngine.toAmount(table.baseCents(row));
+                double newPrice = PricingEngine.toAmount(table.nextCents(row));
+                // only the dynamic rate: base rates belong to the admin (setRoomBasePrice)
+                Update u = Update.update(isFlight ? "currentPrice" : "pricePerNight", newPrice);
+                ops.updateOne(Query.query(Criteria.where("_id").is(table.id(row))), u);
+                int day = table.travelDay(row) == HolidayCalendar.NO_DAY ? today : table.travelDay(row);
+                history.add(new PriceHistory(table.productType(), table.id(row), newPrice, changedAt,
+                        buildReasonForChange(base, newPrice, table.demand(row), calendar.surchargeBp(day))));
+            }
+            ops.execute();
+
+            priceHistoryService.recordAll(history);
+            batches++;
 
-        if (isHoliday) {
-            sb.append("holiday +20%; ");
+            for (int i = from; i < to; i++) {
+                int row = rows[i];
+                table.setCurrentCents(row, table.nextCents(row));
+                if (isFlight) {
+                    priceCache.put(table.id(row), PricingEngine.toAmount(table.baseCents(row)),
+                            PricingEngine.toAmount(table.nextCents(row)));
+                }
+            }
         }
+        return batches;
+    }
 
-        List<Booking> recentBookings = bookingRepository
-                .findByBookingTypeAndBookingRefAndBookingTimeAfter(
-                        "FLIGHT",
-                        flight.getId(),
-                        weekAgo
-                );
+    /**
+     * Builds a human-readable reason, stored in PriceHistory.reason
+     */
+    private String buildReasonForChange(double basePrice, double newPrice, int demand, int surchargeBp) {
+        StringBuilder sb = new StringBuilder("dynamic pricing: ");
 
-        int demand = recentBookings != null ? recentBookings.size() : 0;
+        if (surchargeBp > 0) {
+            sb.append("holiday/season +").append(surchargeBp / 100.0).append("%; ");
+        }
 
         if (demand >= 20) {
             sb.append("high demand (20+ bookings in last 7 days); ");
@@ -207,7 +492,67 @@ public class DynamicPricingService {
         return sb.toString();
     }
 
-    private double roundToCents(double d) {
-        return Math.round(d * 100.0) / 100.0;
+    private static long elapsedMs(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000L;
+    }
+
+    /**
+     * A partition run that can be waited for after cancellation: one that had not started
+     * by then never will, one that had is waited for until it returns.
+     */
+    private static final class PartitionTask implements Callable<PartitionResult> {
+        private final Callable<PartitionResult> body;
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private final CountDownLatch stopped = new CountDownLatch(1);
+
+        PartitionTask(Callable<PartitionResult> body) {
+            this.body = body;
+        }
+
+        @Override
+        public PartitionResult call() throws Exception {
+            if (!claimed.compareAndSet(false, true)) {
+                throw new CancellationException("partition cancelled before it started");
+            }
+            try {
+                return body.call();
+            } finally {
+                stopped.countDown();
+            }
+        }
+
+        void awaitStopped() {
+            if (claimed.compareAndSet(false, true)) return; // never started
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    stopped.await();
+                    break;
+                } catch (InterruptedException ex) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class PartitionResult {
+        int flightsScanned;
+        int flightsChanged;
+        int roomsScanned;
+        int roomsChanged;
+        int batches;
+        long computeNanos;
+        long writeNanos;
+    }
+
+    private static final class IntBuffer {
+        int[] rows = new int[16];
+        int size;
+
+        void add(int v) {
+            if (size == rows.length) rows = Arrays.copyOf(rows, size * 2);
+            rows[size++] = v;
+        }
     }
 }
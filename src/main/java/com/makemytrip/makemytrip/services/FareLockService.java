@@ -0,0 +1,148 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.FareLock;
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.repositories.FareLockRepository;
+import com.makemytrip.makemytrip.repositories.FlightRepository;
+import com.makemytrip.makemytrip.util.HashedTimingWheel;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.stereotype.Service;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FareLockService
+ *
+ * Per-user fare locks ("freeze this price for me for N minutes").
+ *  - persisted in fare_locks with a TTL index on expiresAt, so Mongo cleans up by itself
+ *  - held in memory keyed by userId:flightId for O(1) lookups on the booking path
+ *  - expired from memory by a hashed timing wheel instead of scanning every lock
+ *
+ * A lock never changes the flight's public price; repricing carries on for everyone
+ * else and only the lock holder pays the locked fare.
+ */
+@Service
+public class FareLockService {
+
+    @Autowired
+    private FareLockRepository fareLockRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private FlightPriceCache priceCache;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    private final Map<String, Held> locks = new ConcurrentHashMap<>();
+
+    private final HashedTimingWheel<String> expiry =
+            new HashedTimingWheel<>("fare-lock-expiry", 1000L, 4096, this::expire);
+
+    /**
+     * Creates the TTL index and loads unexpired locks, off the startup thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread t = new Thread(() -> {
+            try {
+                mongoTemplate.indexOps(FareLock.class)
+                        .ensureIndex(new Index().on("expiresAt", Sort.Direction.ASC).expire(0L));
+                for (FareLock lock : fareLockRepository.findByExpiresAtAfter(new Date())) {
+                    install(lock);
+                }
+            } catch (Exception ex) {
+                System.err.println("FareLockService.warmUp failed: " + ex.getMessage());
+            }
+        }, "fare-lock-warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        expiry.stop();
+    }
+
+    /**
+     * Locks the flight's current fare for this user. Locking again replaces the old lock.
+     */
+    public FareLock lock(String userId, String flightId, int minutes) {
+        if (userId == null || userId.isBlank()) throw new IllegalArgumentException("userId is required");
+        if (minutes <= 0) throw new IllegalArgumentException("minutes must be positive");
+
+        double fare = currentFare(flightId);
+        Date now = new Date();
+        FareLock lock = new FareLock(userId, flightId, fare, now, new Date(now.getTime() + minutes * 60_000L));
+        fareLockRepository.save(lock);
+        install(lock);
+        return lock;
+    }
+
+    /** The user's unexpired lock on this flight, or null. O(1), no Mongo access. */
+    public FareLock activeLock(String userId, String flightId) {
+        if (userId == null || flightId == null) return null;
+        Held h = locks.get(FareLock.keyOf(userId, flightId));
+        if (h == null || h.lock.getExpiresAt().getTime() <= System.currentTimeMillis()) return null;
+        return h.lock;
+    }
+
+    /** Drops the lock once a booking has used it. */
+    public void consume(String userId, String flightId) {
+        String key = FareLock.keyOf(userId, flightId);
+        Held h = locks.remove(key);
+        if (h == null) return;
+        h.timeout.cancel();
+        fareLockRepository.deleteById(key);
+    }
+
+    public int activeCount() {
+        return locks.size();
+    }
+
+    private void install(FareLock lock) {
+        HashedTimingWheel<String>.Timeout timeout =
+                expiry.scheduleAt(lock.getId(), lock.getExpiresAt().getTime());
+        Held old = locks.put(lock.getId(), new Held(lock, timeout));
+        if (old != null) {
+            old.timeout.cancel();
+        }
+    }
+
+    // timing wheel callback; the Mongo copy is removed by the TTL index
+    private void expire(String key) {
+        long now = System.currentTimeMillis();
+        locks.computeIfPresent(key, (k, h) -> h.lock.getExpiresAt().getTime() <= now ? null : h);
+    }
+
+    private double currentFare(String flightId) {
+        FlightPriceCache.Entry e = priceCache.get(flightId);
+        if (e == null) {
+            Optional<Flight> f = flightRepository.findPriceById(flightId);
+            if (f.isEmpty()) throw new IllegalArgumentException("Flight not found");
+            e = priceCache.putIfAbsent(f.get());
+        }
+        return e.getCurrentPrice() > 0.0 ? e.getCurrentPrice() : e.getBasePrice();
+    }
+
+    private static final class Held {
+        final FareLock lock;
+        final HashedTimingWheel<String>.Timeout timeout;
+
+        Held(FareLock lock, HashedTimingWheel<String>.Timeout timeout) {
+            this.lock = lock;
+            this.timeout = timeout;
+        }
+    }
+}
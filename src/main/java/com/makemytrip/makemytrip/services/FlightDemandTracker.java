@@ -0,0 +1,285 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.FlightDemand;
+import com.makemytrip.makemytrip.repositories.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * FlightDemandTracker
+ *
+ * In-memory sliding 7-day booking counter per bookable product, kept as 168 hourly
+ * buckets. Despite the name (kept from when only flights were priced) it counts hotel
+ * bookings too, under the hotel id (their bookingRef), which is the demand signal for
+ * the hotel's room types; every "flightId" below is a flight or hotel id.
+ *  - fed by BookingService.bookFlight / bookHotel (+1) and CancellationService.cancelBooking (-1),
+ *    whose booking or cancellation write runs inside tracked()
+ *  - rebuilt from BookingRepository once at startup
+ *  - flights and hotels whose demand tier changes are collected in a dirty set that
+ *    DynamicPricingService drains on every reprice cycle
+ *
+ * Booking times are converted with the system zone, the same way Spring Data
+ * stores LocalDateTime, so live events and the rebuild land in the same bucket.
+ */
+@Service
+public class FlightDemandTracker {
+
+    static final int WINDOW_HOURS = 7 * 24;
+    private static final long HOUR_MS = 3_600_000L;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private volatile Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+
+    // events arriving while a rebuild is running are parked here and replayed after the swap
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private Queue<Event> pending;
+
+    // held shared by tracked() writes; a rebuild takes it exclusively to pick its cut-off,
+    // so every write stamped before the cut-off is stored before the aggregation reads
+    private final ReadWriteLock writeGate = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+    private volatile long advancedToHour;
+
+    /**
+     * Demand tier used for pricing:
+     *  0: 0-4 bookings, 1: 5-9, 2: 10-19, 3: 20+
+     */
+    public static int tierOf(int demand) {
+        if (demand >= 20) return 3;
+        if (demand >= 10) return 2;
+        if (demand >= 5) return 1;
+        return 0;
+    }
+
+    /**
+     * Runs a booking or cancellation write, which must stamp its bookingTime or
+     * cancellationTime inside it, so a concurrent rebuild can tell from that stamp
+     * whether its aggregation saw the write.
+     */
+    public <T> T tracked(Supplier<T> write) {
+        writeGate.readLock().lock();
+        try {
+            return write.get();
+        } finally {
+            writeGate.readLock().unlock();
+        }
+    }
+
+    public void recordBooking(String flightId, LocalDateTime bookingTime) {
+        record(flightId, bookingTime, bookingTime, +1);
+    }
+
+    public void recordCancellation(String flightId, LocalDateTime bookingTime, LocalDateTime cancellationTime) {
+        record(flightId, bookingTime, cancellationTime, -1);
+    }
+
+    /** Bookings for this flight in the last 7 days (as of the last advance). */
+    public int demand(String flightId) {
+        Window w = windows.get(flightId);
+        return w == null ? 0 : w.total();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Returns and clears the flights whose demand tier changed since the last call. */
+    public Set<String> drainDirty() {
+        if (dirty.isEmpty()) return Collections.emptySet();
+        Set<String> out = new HashSet<>();
+        for (Iterator<String> it = dirty.iterator(); it.hasNext(); ) {
+            out.add(it.next());
+            it.remove();
+        }
+        return out;
+    }
+
+    /**
+     * Slides every window up to the current hour so expired buckets stop counting, and
+     * drops the windows left empty. Cheap when called often: only does work once per clock hour.
+     */
+    public void advance() {
+        long nowHour = System.currentTimeMillis() / HOUR_MS;
+        if (nowHour <= advancedToHour) return;
+        advancedToHour = nowHour;
+        Map<String, Window> current = windows;
+        for (Map.Entry<String, Window> e : current.entrySet()) {
+            if (e.getValue().roll(nowHour)) {
+                dirty.add(e.getKey());
+            }
+            // removed under the bin lock apply() adds under, so no booking lands in a dropped window
+            current.computeIfPresent(e.getKey(), (k, w) -> w.total() == 0 ? null : w);
+        }
+    }
+
+    /**
+     * Rebuilds all windows from the bookings collection with one grouped aggregation.
+     * Every flight with demand is marked dirty so the next cycle reprices it.
+     * The aggregation is the demand as of the cut-off `to`: bookings made before it,
+     * less those cancelled before it. Of the events parked meanwhile, exactly those
+     * whose write (booking or cancellation) is stamped at or after `to` are replayed,
+     * so no write is counted twice or lost, whatever the booking's own time.
+     */
+    public void rebuild() {
+        long nowMs;
+        writeGate.writeLock().lock(); // waits out writes stamped before the cut-off
+        try {
+            nowMs = System.currentTimeMillis();
+            swapLock.writeLock().lock();
+            try {
+                pending = new ConcurrentLinkedQueue<>();
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        } finally {
+            writeGate.writeLock().unlock();
+        }
+        long nowHour = nowMs / HOUR_MS;
+        LocalDateTime to = toLocal(nowMs);
+        LocalDateTime from = toLocal((nowHour - WINDOW_HOURS + 1) * HOUR_MS);
+
+        Map<String, Window> rebuilt = new ConcurrentHashMap<>();
+        boolean loaded = false;
+        try {
+            for (FlightDemand d : bookingRepository.countBookingsByHour(from, to)) {
+                if (d.getFlightId() == null) continue;
+                rebuilt.computeIfAbsent(d.getFlightId(), k -> new Window(nowHour))
+                        .add(d.getHour(), d.getCount());
+            }
+            loaded = true;
+        } finally {
+            swapLock.writeLock().lock();
+            try {
+                if (loaded) {
+                    windows = rebuilt;
+                }
+                for (Event e : pending) {
+                    if (!loaded || e.writeMs >= nowMs) apply(e.flightId, e.bookingMs / HOUR_MS, e.delta);
+                }
+                pending = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }
+
+        advancedToHour = nowHour;
+        dirty.addAll(windows.keySet());
+        ready = true;
+    }
+
+    private void record(String flightId, LocalDateTime bookingTime, LocalDateTime writeTime, int delta) {
+        if (flightId == null || bookingTime == null) return;
+        long bookingMs = bookingTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        // unstamped writes (legacy callers) count as new, the safe side for a rebuild
+        long writeMs = writeTime == null ? Long.MAX_VALUE : writeTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        swapLock.readLock().lock();
+        try {
+            if (pending != null) {
+                pending.add(new Event(flightId, bookingMs, writeMs, delta));
+                return;
+            }
+            apply(flightId, bookingMs / HOUR_MS, delta);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private void apply(String flightId, long hour, int delta) {
+        long nowHour = Math.max(advancedToHour, System.currentTimeMillis() / HOUR_MS);
+        if (hour <= nowHour - WINDOW_HOURS) return; // outside the window, nothing to count or undo
+
+        boolean[] changed = new boolean[1];
+        windows.compute(flightId, (k, w) -> {
+            if (w == null) w = new Window(nowHour);
+            changed[0] = w.roll(nowHour) | w.add(hour, delta);
+            return w;
+        });
+        if (changed[0]) {
+            dirty.add(flightId);
+        }
+    }
+
+    private static LocalDateTime toLocal(long epochMs) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMs), ZoneId.systemDefault());
+    }
+
+    private static final class Event {
+        final String flightId;
+        final long bookingMs;
+        final long writeMs; // when the booking or cancellation was stamped
+        final int delta;
+
+        Event(String flightId, long bookingMs, long writeMs, int delta) {
+            this.flightId = flightId;
+            this.bookingMs = bookingMs;
+            this.writeMs = writeMs;
+            this.delta = delta;
+        }
+    }
+
+    /**
+     * Ring of hourly buckets; buckets[h % WINDOW_HOURS] holds the count for epoch hour h
+     * while h is within (headHour - WINDOW_HOURS, headHour].
+     */
+    static final class Window {
+        private final int[] buckets = new int[WINDOW_HOURS];
+        private long headHour;
+        private int total;
+        private int tier;
+
+        Window(long headHour) {
+            this.headHour = headHour;
+        }
+
+        synchronized int total() {
+            return total;
+        }
+
+        /** @return true if the demand tier changed */
+        synchronized boolean add(long hour, int delta) {
+            boolean rolled = hour > headHour && roll(hour);
+            if (hour <= headHour - WINDOW_HOURS) return rolled;
+            int idx = (int) (hour % WINDOW_HOURS);
+            int next = Math.max(0, buckets[idx] + delta);
+            total += next - buckets[idx];
+            buckets[idx] = next;
+            return retier() || rolled;
+        }
+
+        /** Expires buckets older than the window ending at nowHour; @return true if the tier changed */
+        synchronized boolean roll(long nowHour) {
+            if (nowHour <= headHour) return false;
+            long steps = Math.min(nowHour - headHour, WINDOW_HOURS);
+            for (long h = headHour + 1; h <= headHour + steps; h++) {
+                int idx = (int) (h % WINDOW_HOURS);
+                total -= buckets[idx];
+                buckets[idx] = 0;
+            }
+            headHour = nowHour;
+            return retier();
+        }
+
+        private boolean retier() {
+            int t = tierOf(total);
+            if (t == tier) return false;
+            tier = t;
+            return true;
+        }
+    }
+}
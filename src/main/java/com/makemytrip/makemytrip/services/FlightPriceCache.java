@@ -0,0 +1,214 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Flight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * FlightPriceCache
+ *
+ * In-process, write-through cache of flight price fields for /pricing/flight/{id}/price.
+ *  - every price write (pricing sweeps, setBasePrice, admin edits) goes through put()
+ *  - readers only fall back to Mongo on a miss, via putIfAbsent() so a slow loader
+ *    never overwrites a newer write-through value; bulk reloads go through load(),
+ *    which keeps entries written after the reload's read began
+ *  - bounded by pricing.cache.max-entries with LRU eviction, split into lock-striped
+ *    segments so concurrent readers of different flights do not contend
+ *
+ * Each stored value carries a version taken from one global counter, so a client can
+ * tell whether the price it holds is older than the cached one.
+ *
+ * Listeners are told about every write-through that changed a value (not about
+ * read-through fills), which makes this the single feed of committed price changes.
+ */
+@Service
+public class FlightPriceCache {
+
+    private static final int SEGMENTS = 16;
+
+    public static final class Entry {
+        private final String flightId;
+        private final double basePrice;
+        private final double currentPrice;
+        private final long version;
+
+        Entry(String flightId, double basePrice, double currentPrice, long version) {
+            this.flightId = flightId;
+            this.basePrice = basePrice;
+            this.currentPrice = currentPrice;
+            this.version = version;
+        }
+
+        public String getFlightId() { return flightId; }
+        public double getBasePrice() { return basePrice; }
+        public double getCurrentPrice() { return currentPrice; }
+        public long getVersion() { return version; }
+
+        boolean sameValues(double base, double current) {
+            return basePrice == base && currentPrice == current;
+        }
+    }
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final AtomicLong versions = new AtomicLong();
+    private final List<Consumer<Entry>> listeners = new CopyOnWriteArrayList<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder writes = new LongAdder();
+
+    public FlightPriceCache(@Value("${pricing.cache.max-entries:100000}") int maxEntries) {
+        int perSegment = Math.max(1, maxEntries / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /** Cached entry or null; counts a hit or a miss. */
+    public Entry get(String flightId) {
+        Segment seg = segmentFor(flightId);
+        Entry e;
+        synchronized (seg) {
+            e = seg.get(flightId);
+        }
+        if (e != null) hits.increment(); else misses.increment();
+        return e;
+    }
+
+    /** Write-through: always replaces; the version only moves when a value changed. */
+    public Entry put(String flightId, double basePrice, double currentPrice) {
+        return put(flightId, basePrice, currentPrice, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reload of a value read from Mongo after version() returned readVersion: replaces
+     * the entry unless a write-through stored a newer one since, which the read may predate.
+     */
+    public Entry load(Flight f, long readVersion) {
+        return put(f.getId(), f.getBasePrice(), f.getCurrentPrice(), readVersion);
+    }
+
+    /** The current version; values read from Mongo after this call are at least as new as entries up to it. */
+    public long version() {
+        return versions.get();
+    }
+
+    private Entry put(String flightId, double basePrice, double currentPrice, long replaceUpTo) {
+        Segment seg = segmentFor(flightId);
+        Entry e;
+        synchronized (seg) {
+            Entry old = seg.get(flightId);
+            if (old != null && (old.version > replaceUpTo || old.sameValues(basePrice, currentPrice))) {
+                return old;
+            }
+            e = new Entry(flightId, basePrice, currentPrice, versions.incrementAndGet());
+            seg.put(flightId, e);
+            writes.increment();
+        }
+        for (Consumer<Entry> l : listeners) {
+            l.accept(e);
+        }
+        return e;
+    }
+
+    /** Called after each write-through that changed a flight's price fields. */
+    public void addListener(Consumer<Entry> listener) {
+        listeners.add(listener);
+    }
+
+    /** Cached entry or null, without counting a hit or a miss. */
+    public Entry peek(String flightId) {
+        Segment seg = segmentFor(flightId);
+        synchronized (seg) {
+            return seg.get(flightId);
+        }
+    }
+
+    public Entry put(Flight f) {
+        return put(f.getId(), f.getBasePrice(), f.getCurrentPrice());
+    }
+
+    /** Read-through fill after a miss; keeps any entry written meanwhile. */
+    public Entry putIfAbsent(Flight f) {
+        Segment seg = segmentFor(f.getId());
+        synchronized (seg) {
+            Entry existing = seg.get(f.getId());
+            if (existing != null) return existing;
+            Entry e = new Entry(f.getId(), f.getBasePrice(), f.getCurrentPrice(), versions.incrementAndGet());
+            seg.put(f.getId(), e);
+            return e;
+        }
+    }
+
+    public void evict(String flightId) {
+        Segment seg = segmentFor(flightId);
+        synchronized (seg) {
+            seg.remove(flightId);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        int size = 0;
+        for (Segment seg : segments) {
+            synchronized (seg) {
+                size += seg.size();
+            }
+        }
+        long h = hits.sum();
+        long m = misses.sum();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("size", size);
+        out.put("hits", h);
+        out.put("misses", m);
+        out.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        out.put("evictions", evictions.sum());
+        out.put("writes", writes.sum());
+        return out;
+    }
+
+    private Segment segmentFor(String flightId) {
+        int h = flightId.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    /** Access-ordered map that drops its least recently used entry past capacity; guarded by itself. */
+    private final class Segment {
+        private final Map<String, Entry> map;
+
+        Segment(int capacity) {
+            map = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    if (size() > capacity) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        Entry get(String flightId) {
+            return map.get(flightId);
+        }
+
+        void put(String flightId, Entry e) {
+            map.put(flightId, e);
+        }
+
+        void remove(String flightId) {
+            map.remove(flightId);
+        }
+
+        int size() {
+            return map.size();
+        }
+    }
+}
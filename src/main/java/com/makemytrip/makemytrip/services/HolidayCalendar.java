@@ -0,0 +1,208 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.PricingCalendar;
+import com.makemytrip.makemytrip.repositories.PricingCalendarRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+/**
+ * HolidayCalendar
+ *
+ * Holiday / season surcharges compiled into a day-indexed table of basis points,
+ * so pricing looks a travel day up with one array access.
+ *  - rules come from the pricing_calendar document, or from pricing.holidays
+ *    (recurring MM-dd days at pricing.holidays.surcharge-pct) until one is saved
+ *  - the table spans last year through pricing.calendar.years years ahead;
+ *    days outside it are evaluated against the rules directly
+ *  - replace() / reload() compile a new Snapshot and swap it in atomically,
+ *    the next pricing cycle picks it up
+ */
+@Service
+public class HolidayCalendar {
+
+    /** Travel day of a product without a usable date; priced as "today". */
+    public static final int NO_DAY = Integer.MIN_VALUE;
+
+    @Autowired
+    private PricingCalendarRepository calendarRepository;
+
+    @Value("${pricing.holidays:01-01,08-15,10-02,12-25}")
+    private List<String> defaultHolidays;
+
+    @Value("${pricing.holidays.surcharge-pct:20}")
+    private double defaultSurchargePct;
+
+    @Value("${pricing.calendar.years:3}")
+    private int yearsAhead;
+
+    private volatile Snapshot current;
+
+    @PostConstruct
+    public void init() {
+        List<PricingCalendar.Rule> rules = new ArrayList<>();
+        for (String day : defaultHolidays) {
+            if (!day.isBlank()) rules.add(new PricingCalendar.Rule("holiday", day.trim(), null, defaultSurchargePct));
+        }
+        current = compile(rules);
+    }
+
+    /** Switches to the stored calendar, if any, without holding up startup. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread t = new Thread(() -> {
+            try {
+                reload();
+            } catch (Exception ex) {
+                System.err.println("HolidayCalendar.warmUp failed: " + ex.getMessage());
+            }
+        }, "holiday-calendar-warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public Snapshot snapshot() {
+        return current;
+    }
+
+    /** Re-reads the stored calendar; keeps the current one if nothing is stored. */
+    public Snapshot reload() {
+        Optional<PricingCalendar> stored = calendarRepository.findById(PricingCalendar.DEFAULT_ID);
+        if (stored.isPresent()) {
+            current = compile(stored.get().getRules());
+        }
+        return current;
+    }
+
+    /**
+     * Validates, stores and activates a new set of rules.
+     * @throws IllegalArgumentException if a rule cannot be parsed
+     */
+    public Snapshot replace(List<PricingCalendar.Rule> rules) {
+        Snapshot next = compile(rules);
+        calendarRepository.save(new PricingCalendar(new ArrayList<>(rules), new Date()));
+        current = next;
+        return next;
+    }
+
+    /**
+     * Epoch day of an ISO date / date-time string ("2026-12-24", "2026-12-24T08:00"),
+     * or NO_DAY if it has no leading yyyy-MM-dd.
+     */
+    public static int epochDayOf(String dateTime) {
+        if (dateTime == null || dateTime.length() < 10) return NO_DAY;
+        try {
+            return (int) LocalDate.parse(dateTime.substring(0, 10)).toEpochDay();
+        } catch (DateTimeParseException ex) {
+            return NO_DAY;
+        }
+    }
+
+    Snapshot compile(List<PricingCalendar.Rule> rules) {
+        List<CompiledRule> compiled = new ArrayList<>(rules.size());
+        for (PricingCalendar.Rule r : rules) {
+            compiled.add(CompiledRule.of(r));
+        }
+
+        int year = LocalDate.now().getYear();
+        LocalDate first = LocalDate.of(year - 1, 1, 1);
+        LocalDate last = LocalDate.of(year + Math.max(0, yearsAhead), 12, 31);
+        int firstDay = (int) first.toEpochDay();
+        short[] bp = new short[(int) (last.toEpochDay() - firstDay) + 1];
+        LocalDate d = first;
+        for (int i = 0; i < bp.length; i++, d = d.plusDays(1)) {
+            bp[i] = (short) surchargeBp(compiled, d);
+        }
+        return new Snapshot(firstDay, bp, compiled, Collections.unmodifiableList(new ArrayList<>(rules)));
+    }
+
+    private static int surchargeBp(List<CompiledRule> rules, LocalDate day) {
+        int max = 0;
+        for (CompiledRule r : rules) {
+            if (r.bp > max && r.matches(day)) max = r.bp;
+        }
+        return max;
+    }
+
+    /** Immutable compiled calendar. */
+    public static final class Snapshot {
+        private final int firstDay;
+        private final short[] bp;
+        private final List<CompiledRule> compiled;
+        private final List<PricingCalendar.Rule> rules;
+
+        private Snapshot(int firstDay, short[] bp, List<CompiledRule> compiled, List<PricingCalendar.Rule> rules) {
+            this.firstDay = firstDay;
+            this.bp = bp;
+            this.compiled = compiled;
+            this.rules = rules;
+        }
+
+        /** Surcharge in basis points (+20% = 2000) for a travel day. */
+        public int surchargeBp(int epochDay) {
+            int i = epochDay - firstDay;
+            if (i >= 0 && i < bp.length) return bp[i];
+            return HolidayCalendar.surchargeBp(compiled, LocalDate.ofEpochDay(epochDay));
+        }
+
+        public LocalDate firstDay() { return LocalDate.ofEpochDay(firstDay); }
+        public LocalDate lastDay() { return LocalDate.ofEpochDay(firstDay + bp.length - 1L); }
+        public List<PricingCalendar.Rule> rules() { return rules; }
+    }
+
+    private static final class CompiledRule {
+        final int bp;
+        final LocalDate fromDate, toDate;     // one-off range
+        final MonthDay fromDay, toDay;        // yearly range
+
+        private CompiledRule(int bp, LocalDate fromDate, LocalDate toDate, MonthDay fromDay, MonthDay toDay) {
+            this.bp = bp;
+            this.fromDate = fromDate;
+            this.toDate = toDate;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+        }
+
+        static CompiledRule of(PricingCalendar.Rule r) {
+            if (r.getFrom() == null || r.getFrom().isBlank()) {
+                throw new IllegalArgumentException("rule 'from' is required");
+            }
+            if (r.getSurchargePct() < 0 || r.getSurchargePct() > 100) {
+                throw new IllegalArgumentException("surchargePct must be between 0 and 100: " + r.getFrom());
+            }
+            int bp = (int) Math.round(r.getSurchargePct() * 100.0);
+            String from = r.getFrom().trim();
+            String to = r.getTo() == null || r.getTo().isBlank() ? from : r.getTo().trim();
+            try {
+                if (from.length() == 5 && to.length() == 5) {
+                    return new CompiledRule(bp, null, null, MonthDay.parse("--" + from), MonthDay.parse("--" + to));
+                }
+                LocalDate f = LocalDate.parse(from);
+                LocalDate t = LocalDate.parse(to);
+                if (t.isBefore(f)) throw new IllegalArgumentException("rule ends before it starts: " + from + ".." + to);
+                return new CompiledRule(bp, f, t, null, null);
+            } catch (DateTimeParseException ex) {
+                throw new IllegalArgumentException("dates must be MM-dd or yyyy-MM-dd: " + from + ".." + to);
+            }
+        }
+
+        boolean matches(LocalDate d) {
+            if (fromDate != null) {
+                return !d.isBefore(fromDate) && !d.isAfter(toDate);
+            }
+            MonthDay md = MonthDay.from(d);
+            if (!fromDay.isAfter(toDay)) {
+                return !md.isBefore(fromDay) && !md.isAfter(toDay);
+            }
+            return !md.isBefore(fromDay) || !md.isAfter(toDay); // wraps over new year
+        }
+    }
+}
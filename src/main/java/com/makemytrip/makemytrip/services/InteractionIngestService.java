@@ -0,0 +1,269 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.UserInteraction;
+import org.bson.types.ObjectId;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * InteractionIngestService
+ *
+ * Buffers POST /recommendations/interactions instead of writing every event on the
+ * request thread:
+ *  - events go into a bounded queue (recommendations.ingest.queue-capacity); when it is
+ *    full submit() refuses them and the controller answers 429
+ *  - a repeated view of the same item by the same user within
+ *    recommendations.ingest.dedupe-window-ms is dropped (card impressions re-fire a lot)
+ *  - one writer thread drains up to recommendations.ingest.batch-size events, or whatever
+ *    arrived within recommendations.ingest.flush-interval-ms, and writes them with one
+ *    unordered bulk insert, one bulk of profile upserts (entities the theme index lacks are
+ *    fetched with one $in per type first) and one precompute invalidation
+ *  - a failed insert is retried recommendations.ingest.insert-attempts times with doubling
+ *    backoff from recommendations.ingest.retry-backoff-ms; ids are assigned before the first
+ *    attempt, so rows an earlier attempt did write come back as duplicates and are not
+ *    written twice. A batch that still fails is logged as dropped, but trending, profiles
+ *    and precompute invalidation are applied anyway
+ *  - on shutdown the queue is drained and flushed before MongoTemplate goes away
+ */
+@Service
+public class InteractionIngestService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private UserProfileService profileService;
+
+    @Autowired
+    private RecommendationPrecomputeService precomputeService;
+
+    @Value("${recommendations.ingest.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${recommendations.ingest.batch-size:500}")
+    private int batchSize;
+
+    @Value("${recommendations.ingest.flush-interval-ms:200}")
+    private long flushIntervalMs;
+
+    @Value("${recommendations.ingest.dedupe-window-ms:5000}")
+    private long dedupeWindowMs;
+
+    @Value("${recommendations.ingest.insert-attempts:3}")
+    private int insertAttempts;
+
+    @Value("${recommendations.ingest.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    private BlockingQueue<UserInteraction> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    /** "userId|type|id" -> when that view was last accepted */
+    private final Map<String, Long> lastView = new ConcurrentHashMap<>();
+    private long lastPrune; // writer thread only
+
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong deduped = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        running = true;
+        writer = new Thread(this::run, "interaction-ingest");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Stops taking events, lets the writer finish its batch and flushes what is left. */
+    @PreDestroy
+    public void stop() {
+        // no interrupt: it could abort a bulk write in flight; the writer polls with a timeout
+        running = false;
+        try {
+            writer.join(10_000L);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        List<UserInteraction> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int i = 0; i < rest.size(); i += Math.max(1, batchSize)) {
+            flush(rest.subList(i, Math.min(rest.size(), i + Math.max(1, batchSize))));
+        }
+    }
+
+    /**
+     * Queues the event. False when the queue is full (or shutting down); a deduplicated
+     * view counts as accepted.
+     */
+    public boolean submit(UserInteraction ui) {
+        if (!running) {
+            rejected.incrementAndGet();
+            return false;
+        }
+        String viewKey = "view".equals(ui.getAction())
+                ? ui.getUserId() + '|' + ui.getEntityType() + '|' + ui.getEntityId() : null;
+        Long viewedAt = viewKey == null ? null : recordView(viewKey);
+        if (viewKey != null && viewedAt == null) {
+            deduped.incrementAndGet();
+            return true;
+        }
+        if (!queue.offer(ui)) {
+            // a refused view must not make its retry look like a repeat
+            if (viewKey != null) lastView.remove(viewKey, viewedAt);
+            rejected.incrementAndGet();
+            return false;
+        }
+        accepted.incrementAndGet();
+        return true;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("queued", queue.size());
+        out.put("capacity", queueCapacity);
+        out.put("accepted", accepted.get());
+        out.put("deduped", deduped.get());
+        out.put("rejected", rejected.get());
+        out.put("written", written.get());
+        out.put("batches", batches.get());
+        out.put("retriedInserts", retried.get());
+        out.put("failedBatches", failed.get());
+        return out;
+    }
+
+    /** Records the view and returns its time, or null if the same view was accepted within the window. */
+    private Long recordView(String key) {
+        long now = System.currentTimeMillis();
+        boolean[] repeated = {false};
+        Long stamp = lastView.compute(key, (k, seen) -> {
+            if (seen != null && now - seen < dedupeWindowMs) {
+                repeated[0] = true;
+                return seen;
+            }
+            return now;
+        });
+        return repeated[0] ? null : stamp;
+    }
+
+    private void run() {
+        List<UserInteraction> batch = new ArrayList<>(Math.max(1, batchSize));
+        while (running) {
+            try {
+                pruneViews();
+                UserInteraction first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                long deadline = System.currentTimeMillis() + flushIntervalMs;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long wait = deadline - System.currentTimeMillis();
+                    if (batch.size() >= batchSize || wait <= 0) break;
+                    UserInteraction next = queue.poll(wait, TimeUnit.MILLISECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<UserInteraction> batch) {
+        Set<String> users = new LinkedHashSet<>();
+        for (UserInteraction ui : batch) users.add(ui.getUserId());
+        users.remove(null);
+        Set<String> backfilled;
+        try {
+            // asked before the insert: these profiles were built without this batch
+            backfilled = profileService.backfilled(users);
+        } catch (Exception ex) {
+            backfilled = null;
+            System.err.println("InteractionIngestService: profile lookup failed: " + ex.getMessage());
+        }
+        if (insert(batch)) {
+            written.addAndGet(batch.size());
+            batches.incrementAndGet();
+        } else {
+            failed.incrementAndGet();
+        }
+        for (UserInteraction ui : batch) trendingService.recordInteraction(ui);
+        try {
+            // without the lookup every profile of the batch is rebuilt from history
+            profileService.onInteractions(batch, backfilled == null ? Set.of() : backfilled);
+            precomputeService.invalidateAll(users);
+        } catch (Exception ex) {
+            System.err.println("InteractionIngestService: profile update failed: " + ex.getMessage());
+        }
+    }
+
+    /** Bulk-inserts the batch, retrying with backoff; false once every attempt failed. */
+    private boolean insert(List<UserInteraction> batch) {
+        for (UserInteraction ui : batch) {
+            if (ui.getId() == null) ui.setId(new ObjectId().toHexString());
+        }
+        int attempts = Math.max(1, insertAttempts);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserInteraction.class)
+                        .insert(new ArrayList<>(batch))
+                        .execute();
+                return true;
+            } catch (Exception ex) {
+                if (ex instanceof BulkOperationException bulk
+                        && bulk.getErrors().stream().allMatch(e -> e.getCode() == DUPLICATE_KEY)) {
+                    return true; // the rest were written by an earlier attempt
+                }
+                if (attempt >= attempts) {
+                    System.err.println("InteractionIngestService: dropped " + batch.size() + " events after "
+                            + attempts + " failed inserts: " + ex.getMessage());
+                    return false;
+                }
+                retried.incrementAndGet();
+            }
+            try {
+                Thread.sleep(retryBackoffMs << (attempt - 1));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                System.err.println("InteractionIngestService: dropped " + batch.size() + " events, interrupted while retrying");
+                return false;
+            }
+        }
+    }
+
+    /** Forgets views older than the dedupe window, at most once per window. */
+    private void pruneViews() {
+        long now = System.currentTimeMillis();
+        if (now - lastPrune < dedupeWindowMs) return;
+        lastPrune = now;
+        lastView.values().removeIf(seen -> seen < now - dedupeWindowMs);
+    }
+}
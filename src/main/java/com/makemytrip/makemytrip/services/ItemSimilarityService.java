@@ -0,0 +1,440 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Booking;
+import com.makemytrip.makemytrip.models.ItemNeighbors;
+import com.makemytrip.makemytrip.models.UserInteraction;
+import com.makemytrip.makemytrip.repositories.ItemNeighborsRepository;
+import com.makemytrip.makemytrip.util.LongFloatHashMap;
+import com.makemytrip.makemytrip.util.TopK;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * ItemSimilarityService
+ *
+ * Offline item-item collaborative model: "travellers who looked at / booked this also
+ * looked at / booked that".
+ *  - a nightly job (recommendations.similarity.cron) streams user_interactions and bookings
+ *    sorted by userId with cursors, so one user's basket is in memory at a time; it runs
+ *    on its own thread, not on the scheduler thread the pricing sweep shares
+ *  - pair co-occurrences accumulate in a primitive long -> float hash, then become a CSR
+ *    matrix (int row pointers, int columns, float cosine similarities)
+ *  - only the top recommendations.similarity.neighbors per item are kept, persisted to
+ *    item_neighbors and served from compact in-memory arrays
+ *
+ * Items are keyed "type:id", e.g. "flight:65f0...".
+ */
+@Service
+public class ItemSimilarityService {
+
+    private static final float RECENCY_DECAY = 0.95f;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ItemNeighborsRepository neighborsRepository;
+
+    @Value("${recommendations.similarity.neighbors:50}")
+    private int topN;
+
+    @Value("${recommendations.similarity.max-items-per-user:50}")
+    private int maxItemsPerUser;
+
+    @Value("${recommendations.similarity.batch-size:1000}")
+    private int batchSize;
+
+    private volatile Model model = Model.EMPTY;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** Creates the indexes the userId-ordered cursors need and loads the last model, off the startup thread. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread t = new Thread(() -> {
+            try {
+                mongoTemplate.indexOps(UserInteraction.class).ensureIndex(
+                        new Index().on("userId", Sort.Direction.ASC).on("timestamp", Sort.Direction.DESC));
+                mongoTemplate.indexOps(Booking.class).ensureIndex(new Index().on("userId", Sort.Direction.ASC));
+                List<ItemNeighbors> rows = new ArrayList<>();
+                try (Stream<ItemNeighbors> s = mongoTemplate.stream(new Query(), ItemNeighbors.class)) {
+                    s.forEach(rows::add);
+                }
+                model = Model.of(rows);
+            } catch (Exception ex) {
+                System.err.println("ItemSimilarityService.warmUp failed: " + ex.getMessage());
+            }
+        }, "item-similarity-warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public static String key(String type, String id) {
+        return type + ":" + id;
+    }
+
+    public static String typeOf(String key) {
+        return key.substring(0, key.indexOf(':'));
+    }
+
+    public static String idOf(String key) {
+        return key.substring(key.indexOf(':') + 1);
+    }
+
+    /**
+     * Items most similar to the user's recent items (keys, most recent first), best first.
+     * The user's own items and excluded ids are skipped.
+     */
+    public List<TopK.Scored<String>> similarTo(Collection<String> recentKeys, Set<String> excludeIds, int k) {
+        Model m = model;
+        if (m.items.length == 0 || k <= 0) return List.of();
+
+        Map<Integer, Float> scores = new HashMap<>();
+        Set<Integer> own = new HashSet<>();
+        float w = 1f;
+        for (String key : recentKeys) {
+            Integer row = m.index.get(key);
+            if (row != null) {
+                own.add(row);
+                for (int p = m.rowPtr[row]; p < m.rowPtr[row + 1]; p++) {
+                    scores.merge(m.neighbors[p], w * m.scores[p], Float::sum);
+                }
+            }
+            w *= RECENCY_DECAY;
+        }
+
+        TopK<String> top = new TopK<>(k);
+        for (Map.Entry<Integer, Float> e : scores.entrySet()) {
+            if (e.getValue() <= top.threshold()) continue;
+            String item = m.items[e.getKey()];
+            if (!own.contains(e.getKey()) && !excludeIds.contains(idOf(item))) top.offer(item, e.getValue());
+        }
+        return top.ranked();
+    }
+
+    public Map<String, Object> stats() {
+        Model m = model;
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("items", m.items.length);
+        out.put("edges", m.neighbors.length);
+        out.put("builtAt", m.builtAt);
+        return out;
+    }
+
+    /** Starts a rebuild on its own thread so the shared scheduler keeps firing; a no-op while one runs. */
+    @Scheduled(cron = "${recommendations.similarity.cron:0 30 1 * * ?}")
+    public void rebuild() {
+        if (!running.compareAndSet(false, true)) return;
+        Thread t = new Thread(this::runRebuild, "item-similarity-rebuild");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void runRebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            Counts counts = countCoOccurrences();
+            Model built = topNeighbors(counts, new Date(started));
+            persist(built);
+            model = built;
+        } catch (Exception ex) {
+            System.err.println("ItemSimilarityService.rebuild failed: " + ex.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /** Streams both collections in userId order and counts item pairs per user basket. */
+    private Counts countCoOccurrences() {
+        Query interactions = new Query(Criteria.where("userId").ne(null).and("action").ne("ignore"))
+                .with(Sort.by(Sort.Order.asc("userId"), Sort.Order.desc("timestamp")))
+                .allowDiskUse(true);
+        interactions.fields().include("userId", "entityType", "entityId");
+        Query bookings = new Query(Criteria.where("userId").ne(null).and("status").ne("CANCELLED"))
+                .with(Sort.by(Sort.Order.asc("userId")))
+                .allowDiskUse(true);
+        bookings.fields().include("userId", "bookingType", "bookingRef");
+
+        Counts c = new Counts();
+        int[] basket = new int[Math.max(2, maxItemsPerUser)];
+        try (Stream<UserInteraction> si = mongoTemplate.stream(interactions, UserInteraction.class);
+             Stream<Booking> sb = mongoTemplate.stream(bookings, Booking.class)) {
+            Peeking<UserInteraction> a = new Peeking<>(si.iterator());
+            Peeking<Booking> b = new Peeking<>(sb.iterator());
+            while (a.peek() != null || b.peek() != null) {
+                String user = a.peek() == null ? b.peek().getUserId()
+                        : b.peek() == null ? a.peek().getUserId()
+                        : min(a.peek().getUserId(), b.peek().getUserId());
+                int n = 0;
+                // bookings first: when the basket is capped they are the stronger signal
+                while (b.peek() != null && user.equals(b.peek().getUserId())) {
+                    Booking x = b.next();
+                    c.events++;
+                    if (x.getBookingType() != null && x.getBookingRef() != null) {
+                        n = addToBasket(basket, n, c.item(key(x.getBookingType().toLowerCase(Locale.ROOT), x.getBookingRef())));
+                    }
+                }
+                while (a.peek() != null && user.equals(a.peek().getUserId())) {
+                    UserInteraction x = a.next();
+                    c.events++;
+                    if ((ThemeIndex.FLIGHT.equals(x.getEntityType()) || ThemeIndex.HOTEL.equals(x.getEntityType()))
+                            && x.getEntityId() != null) {
+                        n = addToBasket(basket, n, c.item(key(x.getEntityType(), x.getEntityId())));
+                    }
+                }
+                c.addBasket(basket, n);
+            }
+        }
+        return c;
+    }
+
+    private static String min(String a, String b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static int addToBasket(int[] basket, int n, int item) {
+        if (n == basket.length) return n;
+        for (int i = 0; i < n; i++) if (basket[i] == item) return n;
+        basket[n] = item;
+        return n + 1;
+    }
+
+    /** Pairs -> CSR cosine matrix -> top N per row, as a compact model. */
+    private Model topNeighbors(Counts c, Date builtAt) {
+        int n = c.items.size();
+        int[] rowPtr = new int[n + 1];
+        c.pairs.forEach((key, v) -> {
+            rowPtr[(int) (key >>> 32) + 1]++;
+            rowPtr[(int) key + 1]++;
+        });
+        for (int i = 0; i < n; i++) rowPtr[i + 1] += rowPtr[i];
+        int[] cols = new int[rowPtr[n]];
+        float[] sims = new float[rowPtr[n]];
+        int[] fill = Arrays.copyOf(rowPtr, n);
+        float[] users = c.itemUsers;
+        c.pairs.forEach((key, v) -> {
+            int i = (int) (key >>> 32), j = (int) key;
+            float sim = (float) (v / Math.sqrt((double) users[i] * users[j]));
+            cols[fill[i]] = j;
+            sims[fill[i]++] = sim;
+            cols[fill[j]] = i;
+            sims[fill[j]++] = sim;
+        });
+
+        int[] outPtr = new int[n + 1];
+        int[] outCols = new int[Math.min(cols.length, n * Math.max(1, topN))];
+        float[] outSims = new float[outCols.length];
+        int[] heap = new int[Math.max(1, topN)];
+        for (int r = 0; r < n; r++) {
+            int k = selectTop(cols, sims, rowPtr[r], rowPtr[r + 1], heap);
+            int base = outPtr[r];
+            for (int q = 0; q < k; q++) {
+                outCols[base + q] = cols[heap[q]];
+                outSims[base + q] = sims[heap[q]];
+            }
+            outPtr[r + 1] = base + k;
+        }
+        return new Model(c.items.toArray(new String[0]), outPtr,
+                Arrays.copyOf(outCols, outPtr[n]), Arrays.copyOf(outSims, outPtr[n]), builtAt);
+    }
+
+    /**
+     * Positions of the (up to heap.length) highest values in [from, to), written to heap
+     * best first. Uses heap as a min-heap while scanning.
+     */
+    private static int selectTop(int[] cols, float[] vals, int from, int to, int[] heap) {
+        int cap = heap.length, size = 0;
+        for (int p = from; p < to; p++) {
+            if (size < cap) {
+                heap[size] = p;
+                siftUp(heap, vals, size++);
+            } else if (vals[p] > vals[heap[0]]) {
+                heap[0] = p;
+                siftDown(heap, vals, 0, size);
+            }
+        }
+        // heap-sort in place: repeatedly move the minimum to the end -> descending order
+        for (int end = size - 1; end > 0; end--) {
+            int t = heap[0];
+            heap[0] = heap[end];
+            heap[end] = t;
+            siftDown(heap, vals, 0, end);
+        }
+        return size;
+    }
+
+    private static void siftUp(int[] heap, float[] vals, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (vals[heap[i]] >= vals[heap[parent]]) return;
+            int t = heap[i];
+            heap[i] = heap[parent];
+            heap[parent] = t;
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, float[] vals, int i, int size) {
+        while (true) {
+            int l = 2 * i + 1, r = l + 1, min = i;
+            if (l < size && vals[heap[l]] < vals[heap[min]]) min = l;
+            if (r < size && vals[heap[r]] < vals[heap[min]]) min = r;
+            if (min == i) return;
+            int t = heap[i];
+            heap[i] = heap[min];
+            heap[min] = t;
+            i = min;
+        }
+    }
+
+    /** Upserts one document per item in unordered bulk batches, then drops rows of older builds. */
+    private void persist(Model m) {
+        BulkOperations ops = null;
+        int pending = 0;
+        for (int r = 0; r < m.items.length; r++) {
+            int from = m.rowPtr[r], to = m.rowPtr[r + 1];
+            if (from == to) continue;
+            String[] ids = new String[to - from];
+            for (int p = from; p < to; p++) ids[p - from] = m.items[m.neighbors[p]];
+            ItemNeighbors doc = new ItemNeighbors(m.items[r], ids, Arrays.copyOfRange(m.scores, from, to), m.builtAt);
+            if (ops == null) ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ItemNeighbors.class);
+            ops.replaceOne(Query.query(Criteria.where("_id").is(doc.getId())), doc, FindAndReplaceOptions.options().upsert());
+            if (++pending >= batchSize) {
+                ops.execute();
+                ops = null;
+                pending = 0;
+            }
+        }
+        if (ops != null) ops.execute();
+        neighborsRepository.deleteByBuiltAtBefore(m.builtAt);
+    }
+
+    /** Output of the counting pass. */
+    private static final class Counts {
+        final Map<String, Integer> index = new HashMap<>();
+        final List<String> items = new ArrayList<>();
+        float[] itemUsers = new float[1024];
+        final LongFloatHashMap pairs = new LongFloatHashMap(1 << 16);
+        long events;
+        long users;
+
+        int item(String key) {
+            Integer i = index.get(key);
+            if (i != null) return i;
+            int id = items.size();
+            index.put(key, id);
+            items.add(key);
+            if (id == itemUsers.length) itemUsers = Arrays.copyOf(itemUsers, id * 2);
+            return id;
+        }
+
+        /** Heavy users are damped so one user's long basket does not dominate its pairs. */
+        void addBasket(int[] basket, int n) {
+            if (n == 0) return;
+            users++;
+            float w = (float) (1.0 / Math.log(2 + n));
+            for (int i = 0; i < n; i++) {
+                itemUsers[basket[i]] += 1f;
+                for (int j = i + 1; j < n; j++) {
+                    int lo = Math.min(basket[i], basket[j]), hi = Math.max(basket[i], basket[j]);
+                    pairs.add(((long) lo << 32) | hi, w);
+                }
+            }
+        }
+    }
+
+    /** Immutable serving model: top neighbors per item in CSR form. */
+    private static final class Model {
+        static final Model EMPTY = new Model(new String[0], new int[]{0}, new int[0], new float[0], null);
+
+        final String[] items;
+        final Map<String, Integer> index;
+        final int[] rowPtr;
+        final int[] neighbors;
+        final float[] scores;
+        final Date builtAt;
+
+        Model(String[] items, int[] rowPtr, int[] neighbors, float[] scores, Date builtAt) {
+            this.items = items;
+            this.rowPtr = rowPtr;
+            this.neighbors = neighbors;
+            this.scores = scores;
+            this.builtAt = builtAt;
+            Map<String, Integer> idx = new HashMap<>(items.length * 2);
+            for (int i = 0; i < items.length; i++) idx.put(items[i], i);
+            this.index = idx;
+        }
+
+        /** Rebuilds the CSR arrays from persisted rows. */
+        static Model of(List<ItemNeighbors> rows) {
+            Map<String, Integer> idx = new HashMap<>();
+            List<String> items = new ArrayList<>();
+            for (ItemNeighbors r : rows) intern(idx, items, r.getId());
+            int[] rowPtr = new int[rows.size() + 1];
+            int edges = 0;
+            for (ItemNeighbors r : rows) edges += r.getNeighbors() == null ? 0 : r.getNeighbors().length;
+            int[] cols = new int[edges];
+            float[] sims = new float[edges];
+            int p = 0;
+            Date builtAt = null;
+            for (int i = 0; i < rows.size(); i++) {
+                ItemNeighbors r = rows.get(i);
+                String[] ns = r.getNeighbors() == null ? new String[0] : r.getNeighbors();
+                for (int q = 0; q < ns.length; q++) {
+                    cols[p] = intern(idx, items, ns[q]);
+                    sims[p++] = r.getScores() != null && q < r.getScores().length ? r.getScores()[q] : 0f;
+                }
+                rowPtr[i + 1] = p;
+                if (builtAt == null || (r.getBuiltAt() != null && r.getBuiltAt().after(builtAt))) builtAt = r.getBuiltAt();
+            }
+            // neighbors that have no row of their own get empty rows
+            int[] fullPtr = Arrays.copyOf(rowPtr, items.size() + 1);
+            for (int i = rows.size() + 1; i <= items.size(); i++) fullPtr[i] = p;
+            return new Model(items.toArray(new String[0]), fullPtr, cols, sims, builtAt);
+        }
+
+        private static int intern(Map<String, Integer> idx, List<String> items, String key) {
+            Integer i = idx.get(key);
+            if (i != null) return i;
+            idx.put(key, items.size());
+            items.add(key);
+            return items.size() - 1;
+        }
+    }
+
+    /** Iterator with one element of lookahead, for merging the two cursors. */
+    private static final class Peeking<T> {
+        private final Iterator<T> it;
+        private T head;
+
+        Peeking(Iterator<T> it) {
+            this.it = it;
+            this.head = it.hasNext() ? it.next() : null;
+        }
+
+        T peek() {
+            return head;
+        }
+
+        T next() {
+            T t = head;
+            head = it.hasNext() ? it.next() : null;
+            return t;
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.PriceHistory;
+import com.makemytrip.makemytrip.models.PriceHistoryBucket;
+import com.makemytrip.makemytrip.models.PricePoint;
+import com.makemytrip.makemytrip.repositories.PriceHistoryBucketRepository;
+import com.makemytrip.makemytrip.repositories.PriceHistoryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * PriceHistoryService
+ *
+ * Stores price changes as one PriceHistoryBucket per product per UTC day
+ * (upsert + $push into packed arrays) and serves ranged, downsampled reads.
+ *
+ * Rows in the old one-document-per-change "price_history" collection are still
+ * read for the days of a range that have no bucket, so a range spanning the
+ * migration returns both.
+ */
+@Service
+public class PriceHistoryService {
+
+    private static final long HOUR_MS = 3_600_000L;
+    private static final long DAY_MS = 24 * HOUR_MS;
+
+    public enum Resolution {
+        RAW(0L), HOUR(HOUR_MS), DAY(DAY_MS);
+
+        final long stepMs;
+
+        Resolution(long stepMs) {
+            this.stepMs = stepMs;
+        }
+
+        /** "raw" | "hour" | "day" | "auto" / null -> picked from the span */
+        public static Resolution parse(String value, long spanMs) {
+            if (value == null || value.isBlank() || "auto".equalsIgnoreCase(value)) {
+                if (spanMs <= 2 * DAY_MS) return RAW;
+                if (spanMs <= 60 * DAY_MS) return HOUR;
+                return DAY;
+            }
+            return Resolution.valueOf(value.trim().toUpperCase());
+        }
+    }
+
+    @Autowired
+    private PriceHistoryBucketRepository bucketRepository;
+
+    @Autowired
+    private PriceHistoryRepository legacyRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    public void record(String productType, String productId, double price, Date timestamp, String reason) {
+        recordAll(List.of(new PriceHistory(productType, productId, price, timestamp, reason)));
+    }
+
+    /**
+     * Appends all entries with one unordered bulk of upserts.
+     */
+    public void recordAll(List<PriceHistory> entries) {
+        if (entries.isEmpty()) return;
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, PriceHistoryBucket.class);
+        for (PriceHistory e : entries) {
+            long ts = e.getTimestamp().getTime();
+            long day = ts - Math.floorMod(ts, DAY_MS);
+            Update u = new Update()
+                    .setOnInsert("productType", e.getProductType())
+                    .setOnInsert("productId", e.getProductId())
+                    .setOnInsert("day", new Date(day))
+                    .push("ts", ts)
+                    .push("prices", e.getPrice())
+                    .push("reasons", e.getReason())
+                    .inc("count", 1)
+                    .min("minPrice", e.getPrice())
+                    .max("maxPrice", e.getPrice())
+                    .set("lastPrice", e.getPrice());
+            ops.upsert(Query.query(Criteria.where("_id").is(bucketId(e.getProductType(), e.getProductId(), day))), u);
+        }
+        ops.execute();
+    }
+
+    /**
+     * Price points for [from, to], one per resolution step (last price of the step,
+     * with its min / max). At most limit points are returned, oldest first.
+     */
+    public List<PricePoint> query(String productType, String productId, Date from, Date to,
+                                  Resolution resolution, int limit) {
+        long fromMs = from.getTime();
+        long toMs = to.getTime();
+        long fromDay = fromMs - Math.floorMod(fromMs, DAY_MS);
+        long toDay = toMs - Math.floorMod(toMs, DAY_MS);
+
+        // at DAY resolution only the two edge days can need points: read summaries first
+        boolean summariesOnly = resolution == Resolution.DAY;
+        String fromId = bucketId(productType, productId, fromDay);
+        String toId = bucketId(productType, productId, toDay);
+        List<PriceHistoryBucket> buckets = summariesOnly
+                ? bucketRepository.findSummariesByIdRange(fromId, toId)
+                : bucketRepository.findByIdRange(fromId, toId);
+
+        // legacy rows, for the days no bucket covers (history written before bucketing)
+        Set<Long> covered = new HashSet<>();
+        for (PriceHistoryBucket b : buckets) covered.add(dayOf(b));
+        Deque<PriceHistory> legacy = new ArrayDeque<>();
+        if (covered.size() < (toDay - fromDay) / DAY_MS + 1) {
+            for (PriceHistory h : legacyRepository.findInRange(productType, productId, from, to)) {
+                long t = h.getTimestamp().getTime();
+                if (!covered.contains(t - Math.floorMod(t, DAY_MS))) legacy.add(h);
+            }
+        }
+
+        Downsampler ds = new Downsampler(resolution, limit);
+        for (PriceHistoryBucket b : buckets) {
+            long day = dayOf(b);
+            if (!addLegacy(ds, legacy, day)) return ds.finish();
+            // a whole day inside the range at DAY resolution comes straight from the bucket summary
+            if (resolution == Resolution.DAY && day >= fromMs && day + DAY_MS - 1 <= toMs && b.getCount() > 0) {
+                if (!ds.addSummary(day, b.getLastPrice(), b.getMinPrice(), b.getMaxPrice(), b.getCount())) return ds.finish();
+                continue;
+            }
+            if (summariesOnly) {
+                b = bucketRepository.findById(b.getId()).orElse(b);
+            }
+            List<Long> ts = b.getTs();
+            for (int i = 0; i < ts.size(); i++) {
+                long t = ts.get(i);
+                if (t < fromMs || t > toMs) continue;
+                String reason = i < b.getReasons().size() ? b.getReasons().get(i) : null;
+                if (!ds.add(t, b.getPrices().get(i), reason)) return ds.finish();
+            }
+        }
+        addLegacy(ds, legacy, Long.MAX_VALUE);
+        return ds.finish();
+    }
+
+    /** Feeds the legacy rows from before the given day; false once the downsampler is full. */
+    private static boolean addLegacy(Downsampler ds, Deque<PriceHistory> legacy, long beforeMs) {
+        while (!legacy.isEmpty() && legacy.peekFirst().getTimestamp().getTime() < beforeMs) {
+            PriceHistory h = legacy.pollFirst();
+            if (!ds.add(h.getTimestamp().getTime(), h.getPrice(), h.getReason())) return false;
+        }
+        return true;
+    }
+
+    private static long dayOf(PriceHistoryBucket b) {
+        return b.getDay() != null ? b.getDay().getTime() : -1L;
+    }
+
+    static String bucketId(String productType, String productId, long dayMs) {
+        LocalDate d = Instant.ofEpochMilli(dayMs).atOffset(ZoneOffset.UTC).toLocalDate();
+        return productType + ":" + productId + ":" + d;
+    }
+
+    /**
+     * Folds time-ordered prices into one point per step. add() returns false once
+     * limit points are complete, so callers can stop reading early.
+     */
+    private static final class Downsampler {
+        private final Resolution resolution;
+        private final int limit;
+        private final List<PricePoint> out = new ArrayList<>();
+        private PricePoint open;
+        private long openStep = Long.MIN_VALUE;
+
+        Downsampler(Resolution resolution, int limit) {
+            this.resolution = resolution;
+            this.limit = limit;
+        }
+
+        boolean add(long t, double price, String reason) {
+            if (resolution == Resolution.RAW) {
+                if (out.size() >= limit) return false;
+                out.add(new PricePoint(new Date(t), price, price, price, 1, reason));
+                return true;
+            }
+            long step = t - Math.floorMod(t, resolution.stepMs);
+            if (open != null && step == openStep) {
+                open.setPrice(price);
+                open.setMin(Math.min(open.getMin(), price));
+                open.setMax(Math.max(open.getMax(), price));
+                open.setChanges(open.getChanges() + 1);
+                return true;
+            }
+            if (!close()) return false;
+            open = new PricePoint(new Date(step), price, price, price, 1, null);
+            openStep = step;
+            return true;
+        }
+
+        boolean addSummary(long step, double last, double min, double max, int changes) {
+            if (!close()) return false;
+            out.add(new PricePoint(new Date(step), last, min, max, changes, null));
+            return out.size() < limit;
+        }
+
+        private boolean close() {
+            if (open != null) {
+                out.add(open);
+                open = null;
+            }
+            return out.size() < limit;
+        }
+
+        List<PricePoint> finish() {
+            close();
+            return out.size() > limit ? out.subList(0, limit) : out;
+        }
+    }
+}
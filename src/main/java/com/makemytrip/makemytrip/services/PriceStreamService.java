@@ -0,0 +1,159 @@
+package com.makemytrip.makemytrip.services;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * PriceStreamService
+ *
+ * Pushes committed flight price changes to SSE subscribers.
+ *  - a subscriber watches any number of flight ids over one connection
+ *  - changes are taken from FlightPriceCache write-throughs, so they are only
+ *    seen after the pricing engine / admin endpoint saved them
+ *  - per subscriber, changes are coalesced: every pricing.stream.coalesce-ms at most
+ *    one "prices" event is sent, holding only the latest price of each changed flight
+ *  - every pricing.stream.heartbeat-ms each connection gets an SSE comment, so one whose
+ *    client went away is found (the send fails) even on a quiet flight, and connections
+ *    end after pricing.stream.timeout-ms (EventSource clients reconnect)
+ */
+@Service
+public class PriceStreamService {
+
+    private static final int MAX_FLIGHTS_PER_SUBSCRIBER = 500;
+
+    @Autowired
+    private FlightPriceCache priceCache;
+
+    @Value("${pricing.stream.coalesce-ms:1000}")
+    private long coalesceMs;
+
+    @Value("${pricing.stream.heartbeat-ms:15000}")
+    private long heartbeatMs;
+
+    @Value("${pricing.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    // flightId -> subscribers watching it
+    private final Map<String, Set<Subscriber>> watchers = new ConcurrentHashMap<>();
+
+    // subscribers with pending changes, so a flush never scans idle connections
+    private final Set<Subscriber> dirty = ConcurrentHashMap.newKeySet();
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "price-stream");
+        t.setDaemon(true);
+        return t;
+    });
+
+    @PostConstruct
+    public void start() {
+        priceCache.addListener(this::onPriceChange);
+        scheduler.scheduleWithFixedDelay(this::flush, coalesceMs, coalesceMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public SseEmitter subscribe(Collection<String> flightIds) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (String id : flightIds) {
+            if (id != null && !id.isBlank()) ids.add(id.trim());
+            if (ids.size() >= MAX_FLIGHTS_PER_SUBSCRIBER) break;
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscriber sub = new Subscriber(emitter, ids);
+        subscribers.add(sub);
+        for (String id : ids) {
+            watchers.computeIfAbsent(id, k -> ConcurrentHashMap.newKeySet()).add(sub);
+        }
+
+        emitter.onCompletion(() -> remove(sub));
+        emitter.onTimeout(() -> remove(sub));
+        emitter.onError(e -> remove(sub));
+
+        // initial snapshot of whatever is already cached
+        List<FlightPriceCache.Entry> init = new ArrayList<>();
+        for (String id : ids) {
+            FlightPriceCache.Entry e = priceCache.peek(id);
+            if (e != null) init.add(e);
+        }
+        send(sub, SseEmitter.event().name("init").data(init));
+
+        return emitter;
+    }
+
+    private void onPriceChange(FlightPriceCache.Entry e) {
+        Set<Subscriber> subs = watchers.get(e.getFlightId());
+        if (subs == null) return;
+        for (Subscriber sub : subs) {
+            // keep only the newest version per flight until the next flush
+            sub.pending.merge(e.getFlightId(), e, (a, b) -> a.getVersion() >= b.getVersion() ? a : b);
+            dirty.add(sub);
+        }
+    }
+
+    private void flush() {
+        for (Iterator<Subscriber> it = dirty.iterator(); it.hasNext(); ) {
+            Subscriber sub = it.next();
+            it.remove();
+
+            List<FlightPriceCache.Entry> batch = new ArrayList<>(sub.pending.size());
+            for (String id : new ArrayList<>(sub.pending.keySet())) {
+                FlightPriceCache.Entry e = sub.pending.remove(id);
+                if (e != null) batch.add(e);
+            }
+            if (batch.isEmpty()) continue;
+
+            send(sub, SseEmitter.event().name("prices").data(batch));
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber sub : subscribers) send(sub, SseEmitter.event().comment("keep-alive"));
+    }
+
+    /** Sends the event; a connection that cannot take it is closed and forgotten. */
+    private void send(Subscriber sub, SseEmitter.SseEventBuilder event) {
+        try {
+            sub.emitter.send(event);
+        } catch (Exception ex) {
+            try { sub.emitter.complete(); } catch (Exception ignore) {}
+            remove(sub);
+        }
+    }
+
+    private void remove(Subscriber sub) {
+        subscribers.remove(sub);
+        dirty.remove(sub);
+        for (String id : sub.flightIds) {
+            watchers.computeIfPresent(id, (k, set) -> {
+                set.remove(sub);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final Set<String> flightIds;
+        final ConcurrentHashMap<String, FlightPriceCache.Entry> pending = new ConcurrentHashMap<>();
+
+        Subscriber(SseEmitter emitter, Set<String> flightIds) {
+            this.emitter = emitter;
+            this.flightIds = flightIds;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.makemytrip.makemytrip.services;
+
+import java.util.*;
+
+/**
+ * PriceTable
+ *
+ * Column store of the pricing inputs of one product type ("flight", "room"),
+ * one row per product:
+ *  - ids / demandKeys: product id and the bookingRef its demand is counted under
+ *    (the flight itself, or the hotel of a room type)
+ *  - baseCents / currentCents / demand / travelDay: inputs of PricingEngine
+ *    (travelDay is the epoch day of departure, or HolidayCalendar.NO_DAY)
+ *  - next: scratch column the engine writes new prices to
+ *
+ * Rows are stable: a product keeps its row across loads, so ranges of rows can be
+ * used as sweep partitions. Products missing from a load get base 0 and are skipped.
+ *
+ * Not thread-safe; DynamicPricingService confines writers to its synchronized cycles
+ * and lets pool threads touch disjoint row ranges only.
+ */
+public final class PriceTable {
+
+    private final String productType;
+    private final Map<String, Integer> rowOf = new HashMap<>();
+    private final Map<String, List<Integer>> rowsByDemandKey = new HashMap<>();
+    private int size;
+
+    String[] ids;
+    String[] demandKeys;
+    long[] baseCents;
+    long[] currentCents;
+    int[] demand;
+    int[] travelDay;
+    long[] next;
+    private boolean[] seen;
+
+    public PriceTable(String productType, int initialCapacity) {
+        this.productType = productType;
+        int cap = Math.max(16, initialCapacity);
+        ids = new String[cap];
+        demandKeys = new String[cap];
+        baseCents = new long[cap];
+        currentCents = new long[cap];
+        demand = new int[cap];
+        travelDay = new int[cap];
+        next = new long[cap];
+        seen = new boolean[cap];
+    }
+
+    public String productType() {
+        return productType;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** @return row of the product, or -1 */
+    public int rowOf(String id) {
+        Integer r = rowOf.get(id);
+        return r == null ? -1 : r;
+    }
+
+    public List<Integer> rowsForDemandKey(String key) {
+        List<Integer> rows = rowsByDemandKey.get(key);
+        return rows == null ? Collections.emptyList() : rows;
+    }
+
+    public String id(int row) { return ids[row]; }
+    public String demandKey(int row) { return demandKeys[row]; }
+    public long baseCents(int row) { return baseCents[row]; }
+    public long currentCents(int row) { return currentCents[row]; }
+    public int demand(int row) { return demand[row]; }
+    public int travelDay(int row) { return travelDay[row]; }
+    public long nextCents(int row) { return next[row]; }
+
+    public void setDemand(int row, int value) { demand[row] = value; }
+    public void setCurrentCents(int row, long cents) { currentCents[row] = cents; }
+
+    /** Adds or overwrites a product; @return its row */
+    public int upsert(String id, String demandKey, long base, long current, int day) {
+        Integer r = rowOf.get(id);
+        int row;
+        if (r == null) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowOf.put(id, row);
+            ids[row] = id;
+        } else {
+            row = r;
+        }
+        String key = demandKey != null ? demandKey : id;
+        if (!key.equals(demandKeys[row])) {
+            List<Integer> old = demandKeys[row] == null ? null : rowsByDemandKey.get(demandKeys[row]);
+            if (old != null) old.remove(Integer.valueOf(row));
+            demandKeys[row] = key;
+            rowsByDemandKey.computeIfAbsent(key, k -> new ArrayList<>(1)).add(row);
+        }
+        baseCents[row] = base;
+        currentCents[row] = current;
+        travelDay[row] = day;
+        seen[row] = true;
+        return row;
+    }
+
+    /** Starts a full load; rows not upserted before endLoad() lose their base price. */
+    public void beginLoad() {
+        Arrays.fill(seen, 0, size, false);
+    }
+
+    public void endLoad() {
+        for (int i = 0; i < size; i++) {
+            if (!seen[i]) {
+                baseCents[i] = 0L;
+            }
+        }
+    }
+
+    private void ensureCapacity(int min) {
+        if (min <= ids.length) return;
+        int cap = Math.max(min, ids.length * 2);
+        ids = Arrays.copyOf(ids, cap);
+        demandKeys = Arrays.copyOf(demandKeys, cap);
+        baseCents = Arrays.copyOf(baseCents, cap);
+        currentCents = Arrays.copyOf(currentCents, cap);
+        demand = Arrays.copyOf(demand, cap);
+        travelDay = Arrays.copyOf(travelDay, cap);
+        next = Arrays.copyOf(next, cap);
+        seen = Arrays.copyOf(seen, cap);
+    }
+}
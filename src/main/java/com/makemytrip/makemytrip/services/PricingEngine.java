@@ -0,0 +1,75 @@
+package com.makemytrip.makemytrip.services;
+
+/**
+ * PricingEngine
+ *
+ * The pricing rules as integer arithmetic over PriceTable columns. Prices are whole
+ * cents (paise) and factors are basis points, so there is no floating point rounding
+ * in the loop and a price is rounded exactly once, half up.
+ *
+ * Rules (same as before, now shared by flights and room types):
+ *  - holiday / season surcharge of the row's travel day, from a HolidayCalendar snapshot
+ *    (rows without a travel day use today's)
+ *  - demand surcharge from bookings in the last 7 days:
+ *      0-4: +0%, 5-9: +10%, 10-19: +20%, 20+: +30%
+ *  - total factor capped at 1.5x the base price
+ */
+public final class PricingEngine {
+
+    public static final int ONE_BP = 10_000;
+    static final int MAX_FACTOR_BP = 15_000;
+
+    private PricingEngine() {}
+
+    public static int demandSurchargeBp(int demand) {
+        if (demand >= 20) return 3_000;
+        if (demand >= 10) return 2_000;
+        if (demand >= 5) return 1_000;
+        return 0;
+    }
+
+    public static long priceCents(long baseCents, int demand, int surchargeBp) {
+        int factor = Math.min(ONE_BP + surchargeBp + demandSurchargeBp(demand), MAX_FACTOR_BP);
+        return (baseCents * factor + ONE_BP / 2) / ONE_BP;
+    }
+
+    /**
+     * Reprices rows [from, to) of the table. Rows without a base price are skipped;
+     * a row counts as changed when its price moves by more than one cent.
+     * New prices go to t.next, changed row numbers to changed[0..n).
+     *
+     * @return n, the number of changed rows
+     */
+    public static int reprice(PriceTable t, HolidayCalendar.Snapshot calendar, int today,
+                              int from, int to, int[] changed) {
+        final long[] base = t.baseCents;
+        final long[] current = t.currentCents;
+        final int[] demand = t.demand;
+        final int[] travelDay = t.travelDay;
+        final long[] next = t.next;
+        int n = 0;
+        for (int i = from; i < to; i++) {
+            long b = base[i];
+            if (b <= 0) continue;
+            int day = travelDay[i] == HolidayCalendar.NO_DAY ? today : travelDay[i];
+            int factor = ONE_BP + calendar.surchargeBp(day) + demandSurchargeBp(demand[i]);
+            if (factor > MAX_FACTOR_BP) factor = MAX_FACTOR_BP;
+            long p = (b * factor + ONE_BP / 2) / ONE_BP;
+            long c = current[i] > 0 ? current[i] : b;
+            long diff = p - c;
+            if (diff > 1 || diff < -1) {
+                next[i] = p;
+                changed[n++] = i;
+            }
+        }
+        return n;
+    }
+
+    public static long toCents(double amount) {
+        return Math.round(amount * 100.0);
+    }
+
+    public static double toAmount(long cents) {
+        return cents / 100.0;
+    }
+}
@@ -0,0 +1,332 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Recommendation;
+import com.makemytrip.makemytrip.models.UserInteraction;
+import com.makemytrip.makemytrip.models.UserRecommendations;
+import com.makemytrip.makemytrip.repositories.FlightRepository;
+import com.makemytrip.makemytrip.repositories.UserRecommendationsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * RecommendationPrecomputeService
+ *
+ * Serves /recommendations/{userId} from user_recommendations instead of computing
+ * on every request.
+ *  - a cron job (recommendations.precompute.cron) recomputes every user active in the
+ *    last recommendations.precompute.active-days, in parallel chunks, against one
+ *    catalog snapshot shared by the whole batch. The batch runs on its own thread, fed
+ *    by a $group cursor over interactions, so the shared scheduler thread is only
+ *    borrowed to start it
+ *  - reads serve the stored list while it is younger than recommendations.cache.max-age-ms,
+ *    otherwise compute on demand and store the result
+ *  - the most recently read entries (recommendations.cache.hot-users) stay in memory,
+ *    so a repeated read costs only an _id lookup of the stored generatedAt (which
+ *    catches invalidations and rewrites made by other nodes) and no re-serialization:
+ *    each Recommendation keeps its JSON once built (getJson)
+ *  - a stored list can be a day old, so prices are overlaid on read: flights from
+ *    FlightPriceCache (misses filled with one $in read), hotels from ThemeIndex, which
+ *    follows admin rate edits. A repriced list replaces the one held in memory, so its
+ *    JSON is rebuilt once per price change rather than on every read
+ *  - a new interaction or feedback invalidates the user's entry; a batch or recompute
+ *    that started before the invalidation does not leave it written back
+ */
+@Service
+public class RecommendationPrecomputeService {
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private UserRecommendationsRepository store;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private FlightPriceCache priceCache;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private ThemeIndex themeIndex;
+
+    @Autowired
+    @Qualifier("recommendationExecutor")
+    private ExecutorService executor;
+
+    @Value("${recommendations.cache.size:12}")
+    private int cacheSize;
+
+    @Value("${recommendations.cache.max-age-ms:93600000}")
+    private long maxAgeMs;
+
+    @Value("${recommendations.cache.hot-users:10000}")
+    private int hotUsers;
+
+    @Value("${recommendations.precompute.active-days:30}")
+    private int activeDays;
+
+    @Value("${recommendations.precompute.chunk-size:200}")
+    private int chunkSize;
+
+    /** userId -> when its entry was last invalidated. Only needs to outlive a batch. */
+    private final Map<String, Long> invalidatedAt = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    /** userId -> entry last read or written here, least recently used first. */
+    private final Map<String, UserRecommendations> hot = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, UserRecommendations> eldest) {
+            return size() > hotUsers;
+        }
+    };
+
+    /** Stored recommendations if fresh enough, else computed now and stored. */
+    public List<Recommendation> get(String userId, int limit) {
+        UserRecommendations cached = hot(userId);
+        if (cached != null && !stillStored(cached)) {
+            forget(List.of(userId));
+            cached = null;
+        }
+        if (cached == null) {
+            cached = store.findById(userId).orElse(null);
+            if (cached != null && isFresh(cached)) remember(cached);
+        }
+        if (cached != null && isFresh(cached)) {
+            List<Recommendation> recs = cached.getRecommendations();
+            // a list shorter than cacheSize means there was nothing more to recommend
+            if (recs.size() >= limit || recs.size() < cacheSize) {
+                List<Recommendation> priced = priced(recs);
+                if (priced != recs) cached.setRecommendations(priced);
+                return head(priced, limit);
+            }
+        }
+        return head(recompute(userId, Math.max(limit, cacheSize)), limit);
+    }
+
+    /** get() as a JSON array, built from each recommendation's cached JSON. */
+    public String getJson(String userId, int limit) {
+        return Recommendation.toJsonArray(get(userId, limit), limit);
+    }
+
+    /** Computes and stores the user's recommendations now. */
+    public List<Recommendation> recompute(String userId, int limit) {
+        long started = System.currentTimeMillis();
+        List<Recommendation> recs = recommendationService.recommendForUser(userId, limit);
+        if (!invalidatedSince(userId, started)) {
+            UserRecommendations r = entry(userId, recs);
+            store.save(r);
+            // an invalidation that raced the write wins
+            if (invalidatedSince(userId, started)) store.deleteById(userId);
+            else remember(r);
+        }
+        return recs;
+    }
+
+    /** Drops the user's stored recommendations; the next read recomputes them. */
+    public void invalidate(String userId) {
+        if (userId == null) return;
+        invalidatedAt.put(userId, System.currentTimeMillis());
+        forget(List.of(userId));
+        store.deleteById(userId);
+    }
+
+    /** invalidate() for many users, with one delete. */
+    public void invalidateAll(Collection<String> userIds) {
+        if (userIds.isEmpty()) return;
+        long now = System.currentTimeMillis();
+        for (String userId : userIds) invalidatedAt.put(userId, now);
+        forget(userIds);
+        store.deleteAllById(userIds);
+    }
+
+    /** Starts the batch on its own thread; a no-op while one is still running. */
+    @Scheduled(cron = "${recommendations.precompute.cron:0 0 2 * * ?}")
+    public void precomputeAll() {
+        if (!running.compareAndSet(false, true)) return;
+        Thread t = new Thread(this::runBatch, "recommendation-precompute");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    private void runBatch() {
+        long started = System.currentTimeMillis();
+        try {
+            RecommendationService.Catalog catalog = recommendationService.snapshot();
+
+            // chunks are submitted while the cursor is read; when the pool's queue is full
+            // this thread computes the chunk itself, which paces the cursor
+            List<Future<Integer>> chunks = new ArrayList<>();
+            try (Stream<Document> active = activeUsers()) {
+                List<String> chunk = new ArrayList<>(chunkSize);
+                for (Iterator<Document> it = active.iterator(); it.hasNext(); ) {
+                    Object userId = it.next().get("_id");
+                    if (userId == null) continue;
+                    chunk.add(userId.toString());
+                    if (chunk.size() == chunkSize) {
+                        List<String> batch = chunk;
+                        chunks.add(executor.submit(() -> computeChunk(batch, catalog, started)));
+                        chunk = new ArrayList<>(chunkSize);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    List<String> batch = chunk;
+                    chunks.add(executor.submit(() -> computeChunk(batch, catalog, started)));
+                }
+            }
+            for (Future<Integer> f : chunks) {
+                try {
+                    f.get();
+                } catch (ExecutionException ex) {
+                    System.err.println("Recommendation precompute chunk failed: " + ex.getCause());
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            System.err.println("Recommendation precompute failed: " + ex.getMessage());
+        } finally {
+            invalidatedAt.values().removeIf(t -> t < started);
+            running.set(false);
+        }
+    }
+
+    private int computeChunk(List<String> users, RecommendationService.Catalog catalog, long started) {
+        List<UserRecommendations> out = new ArrayList<>(users.size());
+        for (String userId : users) {
+            if (invalidatedSince(userId, started)) continue;
+            try {
+                out.add(entry(userId, recommendationService.recommendForUser(userId, cacheSize, catalog)));
+            } catch (Exception ex) {
+                System.err.println("Recommendation precompute failed for " + userId + ": " + ex.getMessage());
+            }
+        }
+        store.saveAll(out);
+        // an invalidation that raced the write wins
+        List<String> written = new ArrayList<>(out.size());
+        for (UserRecommendations r : out) {
+            if (invalidatedSince(r.getUserId(), started)) store.deleteById(r.getUserId());
+            else written.add(r.getUserId());
+        }
+        // entries read before the batch are stale now
+        forget(written);
+        return out.size();
+    }
+
+    /** { _id: userId } per user active since the cutoff, read through a cursor (no 16 MB distinct result). */
+    private Stream<Document> activeUsers() {
+        LocalDateTime since = LocalDateTime.now().minusDays(activeDays);
+        Aggregation groupByUser = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("timestamp").gte(since)),
+                Aggregation.group("userId")
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).cursorBatchSize(chunkSize).build());
+        return mongoTemplate.aggregateStream(groupByUser, UserInteraction.class, Document.class);
+    }
+
+    /** The recommendations at current prices; the same list if none changed. */
+    List<Recommendation> priced(List<Recommendation> recs) {
+        List<String> misses = new ArrayList<>();
+        for (Recommendation r : recs) {
+            if (ThemeIndex.FLIGHT.equals(r.getType()) && priceCache.get(r.getId()) == null) misses.add(r.getId());
+        }
+        if (!misses.isEmpty()) {
+            for (Flight f : flightRepository.findThemeFieldsByIdIn(misses)) priceCache.putIfAbsent(f);
+        }
+        List<Recommendation> out = null;
+        for (int i = 0; i < recs.size(); i++) {
+            Recommendation r = recs.get(i);
+            double price = currentPrice(r);
+            Recommendation next = price > 0.0 ? r.withPrice(price) : r;
+            if (next == r) continue;
+            if (out == null) out = new ArrayList<>(recs);
+            out.set(i, next);
+        }
+        return out == null ? recs : out;
+    }
+
+    /** Current price of the recommended flight or hotel, or 0 if it is not known here. */
+    private double currentPrice(Recommendation r) {
+        if (ThemeIndex.FLIGHT.equals(r.getType())) {
+            FlightPriceCache.Entry e = priceCache.peek(r.getId());
+            if (e == null) return 0.0;
+            return e.getCurrentPrice() > 0.0 ? e.getCurrentPrice() : e.getBasePrice();
+        }
+        ThemeIndex.Entry e = themeIndex.get(r.getId());
+        return e == null || !ThemeIndex.HOTEL.equals(e.type()) ? 0.0 : e.price();
+    }
+
+    private boolean invalidatedSince(String userId, long since) {
+        Long t = invalidatedAt.get(userId);
+        return t != null && t >= since;
+    }
+
+    /** Whether the stored entry is still the one held here (another node may have deleted or rewritten it). */
+    private boolean stillStored(UserRecommendations r) {
+        Query q = new Query(Criteria.where("_id").is(r.getId()));
+        q.fields().include("generatedAt");
+        UserRecommendations stored = mongoTemplate.findOne(q, UserRecommendations.class);
+        return stored != null && r.getGeneratedAt() != null && r.getGeneratedAt().equals(stored.getGeneratedAt());
+    }
+
+    private boolean isFresh(UserRecommendations r) {
+        return r.getRecommendations() != null && r.getGeneratedAt() != null
+                && r.getGeneratedAt().isAfter(LocalDateTime.now().minus(maxAgeMs, ChronoUnit.MILLIS));
+    }
+
+    private UserRecommendations hot(String userId) {
+        synchronized (hot) {
+            return hot.get(userId);
+        }
+    }
+
+    private void remember(UserRecommendations r) {
+        synchronized (hot) {
+            hot.put(r.getId(), r);
+        }
+    }
+
+    private void forget(Collection<String> userIds) {
+        synchronized (hot) {
+            for (String userId : userIds) hot.remove(userId);
+        }
+    }
+
+    private static UserRecommendations entry(String userId, List<Recommendation> recs) {
+        // millisecond precision, as stored, so stillStored() can compare it
+        UserRecommendations r = new UserRecommendations(userId, recs, LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS));
+        r.setId(userId);
+        return r;
+    }
+
+    private static List<Recommendation> head(List<Recommendation> recs, int limit) {
+        return recs.size() <= limit ? recs : new ArrayList<>(recs.subList(0, Math.max(0, limit)));
+    }
+}
@@ -1,33 +1,31 @@
 package com.makemytrip.makemytrip.services;
 
-import com.makemytrip.makemytrip.models.Booking;
 import com.makemytrip.makemytrip.models.Flight;
 import com.makemytrip.makemytrip.models.Hotel;
-import com.makemytrip.makemytrip.models.UserInteraction;
-import com.makemytrip.makemytrip.models.RecommendationFeedback;
-import com.makemytrip.makemytrip.repositories.BookingRepository;
+import com.makemytrip.makemytrip.models.Recommendation;
+import com.makemytrip.makemytrip.models.UserProfile;
 import com.makemytrip.makemytrip.repositories.FlightRepository;
 import com.makemytrip.makemytrip.repositories.HotelRepository;
-import com.makemytrip.makemytrip.repositories.UserInteractionRepository;
-import com.makemytrip.makemytrip.repositories.RecommendationFeedbackRepository;
 
+import com.makemytrip.makemytrip.util.LatencyHistogram;
+import com.makemytrip.makemytrip.util.TopK;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class RecommendationService {
 
     @Autowired
-    private UserInteractionRepository interactionRepository;
+    private UserProfileService profileService;
 
     @Autowired
-    private RecommendationFeedbackRepository feedbackRepository;
+    private TrendingService trendingService;
 
     @Autowired
-    private BookingRepository bookingRepository;
+    private ItemSimilarityService itemSimilarity;
 
     @Autowired
     private FlightRepository flightRepository;
@@ -35,226 +33,358 @@ public class RecommendationService {
     @Autowired
     private HotelRepository hotelRepo;
 
-    /** Theme keywords */
-    private static final Map<String, String> THEME_KEYWORDS = Map.ofEntries(
-    		  // --- BEACH / SEA / ISLAND ---
-            Map.entry("beach", "Beach"),
-            Map.entry("sea", "Beach"),
-            Map.entry("ocean", "Beach"),
-            Map.entry("island", "Beach"),
-
-            // --- MOUNTAINS / HILLS ---
-            Map.entry("mountain", "Mountains"),
-            Map.entry("hill", "Mountains"),
-            Map.entry("hills", "Mountains"),
-
-            // --- LUXURY / PREMIUM ---
-            Map.entry("luxury", "Luxury"),
-            Map.entry("premium", "Luxury"),
-            Map.entry("spa", "Luxury"),
-            Map.entry("resort", "Luxury"),
-            Map.entry("villa", "Luxury"),
-            Map.entry("5-star", "Luxury"),
-            Map.entry("five star", "Luxury"),
-
-            // --- BUSINESS / METRO TRAVEL ---
-            Map.entry("chennai", "Metro Travel"),
-            Map.entry("delhi", "Metro Travel"),
-            Map.entry("bengaluru", "Metro Travel"),
-            Map.entry("bangalore", "Metro Travel"),
-            Map.entry("hyderabad", "Metro Travel"),
-            Map.entry("mumbai", "Metro Travel"),
-            Map.entry("kolkata", "Metro Travel"),
-
-            // --- NIGHTLIFE / PARTY ---
-            Map.entry("nightlife", "Party"),
-            Map.entry("club", "Party"),
-            Map.entry("bar", "Party"),
-            Map.entry("pub", "Party"),
-            Map.entry("lounge", "Party"),
-
-            // --- CULTURE / HERITAGE ---
-            Map.entry("temple", "Culture"),
-            Map.entry("heritage", "Culture"),
-            Map.entry("museum", "Culture"),
-            Map.entry("historic", "Culture"),
-            Map.entry("culture", "Culture"),
-
-            // --- FOOD / DINING ---
-            Map.entry("restaurant", "Dining"),
-            Map.entry("dining", "Dining"),
-            Map.entry("cafe", "Dining"),
-            Map.entry("buffet", "Dining"),
-
-            // --- NATURE / GARDENS ---
-            Map.entry("garden", "Nature"),
-            Map.entry("park", "Nature"),
-            Map.entry("greenery", "Nature")
-    );
-
-    private Set<String> extractThemes(String... fields) {
-        Set<String> themes = new HashSet<>();
-        for (String text : fields) {
-            if (text == null) continue;
-            String lower = text.toLowerCase();
-            for (String key : THEME_KEYWORDS.keySet()) {
-                if (lower.contains(key)) themes.add(THEME_KEYWORDS.get(key));
-            }
-        }
-        return themes;
-    }
+    @Autowired
+    private ThemeIndex themeIndex;
 
-    /** FINAL RECOMMENDER */
-    public List<Map<String, Object>> recommendForUser(String userId, int maxResults) {
+    @Autowired
+    private ContentVectorIndex contentVectors;
 
-        List<UserInteraction> interactions =
-                interactionRepository.findByUserIdOrderByTimestampDesc(userId);
+    private static final int SNAPSHOT_TRENDING = 1000;
 
-        // 1. COLD START
-        if (interactions.isEmpty()) {
-            return coldStartRecommendations(maxResults);
+    // hotels first: on equal scores the type offered first wins
+    private static final List<String> TYPES = List.of(ThemeIndex.HOTEL, ThemeIndex.FLIGHT);
+
+    // trending score that counts as half way to "hot" (about one fresh booking)
+    private static final double TREND_HALF = 5.0;
+
+    // ranking = theme overlap with the profile, recent popularity and closeness to the
+    // user's usual price, weighted
+    @Value("${recommendations.ranking.theme-weight:0.6}")
+    private double themeWeight;
+
+    @Value("${recommendations.ranking.trend-weight:0.25}")
+    private double trendWeight;
+
+    @Value("${recommendations.ranking.price-weight:0.15}")
+    private double priceWeight;
+
+    // trending candidates per result slot and type, and the batch size of trend lookups
+    @Value("${recommendations.ranking.candidates-per-slot:4}")
+    private int candidatesPerSlot;
+
+    // per-stage latency of recommendForUser, exposed at GET /recommendations/stats
+    private final LatencyHistogram profileLatency = new LatencyHistogram();
+    private final LatencyHistogram rankLatency = new LatencyHistogram();
+    private final LatencyHistogram totalLatency = new LatencyHistogram();
+    private final LatencyHistogram similarLatency = new LatencyHistogram();
+
+    /**
+     * Where recommended flights and hotels are loaded from: the repositories for a
+     * single request, or one in-memory snapshot shared by a whole precompute batch.
+     */
+    public interface Catalog {
+        Map<String, Flight> flights(List<String> ids);
+
+        Map<String, Hotel> hotels(List<String> ids);
+
+        /** Trending ids of the type ("flight" / "hotel"), best first. */
+        List<String> trending(String type, int limit);
+    }
+
+    private final Catalog live = new Catalog() {
+        @Override
+        public Map<String, Flight> flights(List<String> ids) {
+            Map<String, Flight> out = new HashMap<>();
+            if (!ids.isEmpty()) flightRepository.findAllById(ids).forEach(f -> out.put(f.getId(), f));
+            return out;
+        }
+
+        @Override
+        public Map<String, Hotel> hotels(List<String> ids) {
+            Map<String, Hotel> out = new HashMap<>();
+            if (!ids.isEmpty()) hotelRepo.findAllById(ids).forEach(h -> out.put(h.getId(), h));
+            return out;
         }
 
-        // 2. THEME DETECTION
-        Set<String> userThemes = new HashSet<>();
+        @Override
+        public List<String> trending(String type, int limit) {
+            return trendingService.topIds(type, limit);
+        }
+    };
+
+    /** Loads the whole catalog once, for computing recommendations of many users. */
+    public Catalog snapshot() {
+        Map<String, Flight> flights = new HashMap<>();
+        flightRepository.findAll().forEach(f -> flights.put(f.getId(), f));
+        Map<String, Hotel> hotels = new HashMap<>();
+        hotelRepo.findAll().forEach(h -> hotels.put(h.getId(), h));
+        // the batch sees one trending ranking, taken when it starts
+        Map<String, List<String>> trending = Map.of(
+                ThemeIndex.FLIGHT, trendingService.topIds(ThemeIndex.FLIGHT, SNAPSHOT_TRENDING),
+                ThemeIndex.HOTEL, trendingService.topIds(ThemeIndex.HOTEL, SNAPSHOT_TRENDING));
+
+        return new Catalog() {
+            @Override
+            public Map<String, Flight> flights(List<String> ids) {
+                return pick(flights, ids);
+            }
 
-        for (UserInteraction ui : interactions) {
-            if ("flight".equals(ui.getEntityType())) {
-                flightRepository.findById(ui.getEntityId()).ifPresent(f ->
-                        userThemes.addAll(extractThemes(f.getFlightName(), f.getTo()))
-                );
+            @Override
+            public Map<String, Hotel> hotels(List<String> ids) {
+                return pick(hotels, ids);
             }
 
-            if ("hotel".equals(ui.getEntityType())) {
-                hotelRepo.findById(ui.getEntityId()).ifPresent(h ->
-                        userThemes.addAll(extractThemes(
-                                h.getHotelName(),
-                                h.getLocation(),
-                                h.getAmenities(),
-                                h.getDescription()
-                        ))
-                );
+            @Override
+            public List<String> trending(String type, int limit) {
+                List<String> ids = trending.getOrDefault(type, List.of());
+                return ids.subList(0, Math.min(ids.size(), Math.max(0, limit)));
             }
+        };
+    }
+
+    private static <T> Map<String, T> pick(Map<String, T> all, List<String> ids) {
+        Map<String, T> out = new HashMap<>();
+        for (String id : ids) {
+            T t = all.get(id);
+            if (t != null) out.put(id, t);
         }
+        return out;
+    }
+
+    public List<Recommendation> recommendForUser(String userId, int maxResults) {
+        return recommendForUser(userId, maxResults, live);
+    }
 
-        // 3. IF NO THEMES → POPULAR RECOMMENDATIONS
-        if (userThemes.isEmpty()) {
-            return collaborativeFilteringFallback(userId, maxResults);
+    /** FINAL RECOMMENDER */
+    public List<Recommendation> recommendForUser(String userId, int maxResults, Catalog catalog) {
+        long started = System.nanoTime();
+        try {
+            return recommend(userId, maxResults, catalog);
+        } finally {
+            totalLatency.recordSince(started);
         }
+    }
 
-        // 4. RANKED RECOMMENDATIONS
-        List<Map<String, Object>> recommendations = new ArrayList<>();
+    private List<Recommendation> recommend(String userId, int maxResults, Catalog catalog) {
 
-        for (Flight f : flightRepository.findAll()) {
-            Set<String> matched = extractThemes(f.getFlightName(), f.getTo());
-            if (!Collections.disjoint(userThemes, matched)) {
-                recommendations.add(buildFlightRec(f, matched));
-            }
+        themeIndex.ensureLoaded();
+
+        long t = System.nanoTime();
+        UserProfile profile = profileService.load(userId);
+        profileLatency.recordSince(t);
+
+        // 1. COLD START
+        if (profile == null) {
+            return popularRecommendations(maxResults, catalog);
         }
 
-        for (Hotel h : hotelRepo.findAll()) {
-            Set<String> matched = extractThemes(
-                    h.getHotelName(),
-                    h.getLocation(),
-                    h.getAmenities(),
-                    h.getDescription()
-            );
-            if (!Collections.disjoint(userThemes, matched)) {
-                recommendations.add(buildHotelRec(h, matched));
-            }
+        // 2. THEMES FROM THE PROFILE'S DECAYED WEIGHTS
+        long userThemes = profileService.themeMask(profile);
+
+        // 3. FEEDBACK FILTER
+        Set<String> disliked = profile.getDislikedIds() == null ? Set.of() : profile.getDislikedIds();
+
+        // 4. IF NO THEMES → COLLABORATIVE (ITEM-ITEM), THEN POPULAR
+        if (userThemes == 0L) {
+            return collaborativeRecommendations(profileService.recentKeys(profile), disliked, maxResults, catalog);
         }
 
-        // 5. FEEDBACK FILTER
-        Set<String> disliked = feedbackRepository.findByUserId(userId).stream()
-                .filter(f -> !f.isLiked())
-                .map(RecommendationFeedback::getRecommendedEntityId)
-                .collect(Collectors.toSet());
-
-        recommendations = recommendations.stream()
-                .filter(r -> !disliked.contains(r.get("id")))
-                .collect(Collectors.toList());
-
-       
-     // 6. MIX HOTELS + FLIGHTS IF NEEDED (GUARANTEED MINIMUM RESULTS)
-        if (recommendations.size() < maxResults) {
-            for (Hotel h : hotelRepo.findAll()) {
-                if (recommendations.stream().noneMatch(r -> r.get("id").equals(h.getId()))) {
-                    recommendations.add(buildHotelRec(h, Set.of("Popular")));
-                }
-                if (recommendations.size() >= maxResults) break;
+        // 5. SCORE EVERY THEME MATCH (PLUS TRENDING) INTO A TOP-K HEAP, TREND LOOKUPS IN BATCHES
+        t = System.nanoTime();
+        double[] shares = profileService.themeShares(profile);
+        int pool = Math.max(1, maxResults) * Math.max(1, candidatesPerSlot);
+        TopK<ThemeIndex.Entry> top = new TopK<>(maxResults);
+        Set<String> seen = new HashSet<>(disliked);
+        List<ThemeIndex.Entry> candidates = new ArrayList<>(pool);
+        List<String> candidateIds = new ArrayList<>(pool);
+        for (String type : TYPES) {
+            double usualPrice = profileService.usualPrice(profile, type);
+            for (String id : catalog.trending(type, pool)) {
+                collect(candidates, candidateIds, seen, type, id);
             }
+            themeIndex.forEachMatching(type, userThemes, e -> {
+                if (!seen.add(e.id())) return;
+                candidates.add(e);
+                candidateIds.add(e.id());
+                if (candidates.size() >= pool) offerAll(top, type, candidates, candidateIds, shares, usualPrice);
+            });
+            offerAll(top, type, candidates, candidateIds, shares, usualPrice);
         }
-
-        if (recommendations.size() < maxResults) {
-            for (Flight f : flightRepository.findAll()) {
-                if (recommendations.stream().noneMatch(r -> r.get("id").equals(f.getId()))) {
-                    recommendations.add(buildFlightRec(f, Set.of("Popular")));
-                }
-                if (recommendations.size() >= maxResults) break;
+        List<TopK.Scored<ThemeIndex.Entry>> ranked = new ArrayList<>(top.ranked());
+
+        // 6. GUARANTEED MINIMUM RESULTS: TOP UP IN CATALOG ORDER
+        for (String type : TYPES) {
+            if (ranked.size() >= maxResults) break;
+            for (String id : themeIndex.catalog(type, seen, maxResults - ranked.size())) {
+                ThemeIndex.Entry e = themeIndex.get(id);
+                if (e != null) ranked.add(new TopK.Scored<>(e, 0.0));
             }
         }
+        rankLatency.recordSince(t);
 
-
-        // 7. SORT → Hotels first, then flights
-        return recommendations.stream()
-                .sorted(Comparator.comparing(r -> r.get("type").equals("hotel") ? 0 : 1))
-                .limit(maxResults)
-                .collect(Collectors.toList());
+        // 7. LOAD ONLY THE CHOSEN ENTITIES
+        List<String> flightIds = new ArrayList<>();
+        List<String> hotelIds = new ArrayList<>();
+        for (TopK.Scored<ThemeIndex.Entry> s : ranked) {
+            (ThemeIndex.FLIGHT.equals(s.item().type()) ? flightIds : hotelIds).add(s.item().id());
+        }
+        Map<String, Flight> flights = catalog.flights(flightIds);
+        Map<String, Hotel> hotels = catalog.hotels(hotelIds);
+
+        List<Recommendation> recommendations = new ArrayList<>(ranked.size());
+        for (TopK.Scored<ThemeIndex.Entry> s : ranked) {
+            ThemeIndex.Entry e = s.item();
+            long shared = e.themes() & userThemes;
+            Set<String> why = shared == 0L ? Set.of("Popular") : themeIndex.themeNames(shared);
+            Flight f = flights.get(e.id());
+            Hotel h = hotels.get(e.id());
+            if (f != null) recommendations.add(flightRec(f, why, s.score()));
+            else if (h != null) recommendations.add(hotelRec(h, why, s.score()));
+        }
+        return recommendations;
     }
 
-    /** Popular flights fallback */
-    private List<Map<String,Object>> collaborativeFilteringFallback(String userId, int maxResults) {
+    private void collect(List<ThemeIndex.Entry> candidates, List<String> ids, Set<String> seen,
+                         String type, String id) {
+        if (!seen.add(id)) return;
+        ThemeIndex.Entry e = themeIndex.get(id);
+        if (e == null || !type.equals(e.type())) return;
+        candidates.add(e);
+        ids.add(id);
+    }
 
-        Map<String,Integer> counts = new HashMap<>();
-        for (Booking b : bookingRepository.findAll()) {
-            if ("flight".equalsIgnoreCase(b.getBookingType())) {
-                counts.put(b.getBookingRef(), counts.getOrDefault(b.getBookingRef(), 0) + 1);
-            }
+    /** Scores the candidates into top and clears them. */
+    private void offerAll(TopK<ThemeIndex.Entry> top, String type, List<ThemeIndex.Entry> candidates,
+                          List<String> ids, double[] shares, double usualPrice) {
+        double[] trend = trendingService.scores(type, ids);
+        for (int i = 0; i < candidates.size(); i++) {
+            top.offer(candidates.get(i), score(candidates.get(i), shares, trend[i], usualPrice));
         }
+        candidates.clear();
+        ids.clear();
+    }
 
-        List<Map<String,Object>> out = new ArrayList<>();
+    /**
+     * Weighted sum of three parts in [0, 1]: the profile's share of the entity's themes,
+     * how much it is trending, and how close its price is to what the user usually pays
+     * (0.5 when either price is unknown).
+     */
+    private double score(ThemeIndex.Entry e, double[] shares, double trending, double usualPrice) {
+        double overlap = 0;
+        for (long m = e.themes(); m != 0; m &= m - 1) overlap += shares[Long.numberOfTrailingZeros(m)];
+        double trend = trending / (trending + TREND_HALF);
+        double priceFit = 0.5;
+        if (e.price() > 0 && usualPrice > 0) {
+            priceFit = Math.min(e.price(), usualPrice) / Math.max(e.price(), usualPrice);
+        }
+        return themeWeight * overlap + trendWeight * trend + priceWeight * priceFit;
+    }
 
-        for (String id : counts.keySet()) {
-            Optional<Flight> f = flightRepository.findById(id);
-            f.ifPresent(flight -> out.add(buildFlightRec(flight, Set.of("Popular"))));
-            if (out.size() >= maxResults) break;
+    /**
+     * Flights or hotels whose content is most like the given one (ContentVectorIndex),
+     * best first, scored by cosine similarity.
+     */
+    public List<Recommendation> similarTo(String type, String id, int limit) {
+        contentVectors.ensureLoaded();
+        long t = System.nanoTime();
+        List<TopK.Scored<String>> similar = contentVectors.similar(type, id, limit);
+        similarLatency.recordSince(t);
+
+        List<String> ids = new ArrayList<>(similar.size());
+        for (TopK.Scored<String> s : similar) ids.add(s.item());
+        List<Recommendation> out = new ArrayList<>(similar.size());
+        if (ThemeIndex.FLIGHT.equals(type)) {
+            Map<String, Flight> flights = live.flights(ids);
+            for (TopK.Scored<String> s : similar) {
+                Flight f = flights.get(s.item());
+                if (f != null) out.add(Recommendation.flight(f, "Similar to what you are viewing", round(s.score())));
+            }
+        } else {
+            Map<String, Hotel> hotels = live.hotels(ids);
+            for (TopK.Scored<String> s : similar) {
+                Hotel h = hotels.get(s.item());
+                if (h != null) out.add(Recommendation.hotel(h, "Similar to what you are viewing", round(s.score())));
+            }
         }
+        return out;
+    }
 
+    /** Latency of each recommendForUser stage. */
+    public Map<String, Object> stats() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("loadProfile", profileLatency.stats());
+        out.put("rank", rankLatency.stats());
+        out.put("total", totalLatency.stats());
+        out.put("itemSimilarity", itemSimilarity.stats());
+        out.put("similarContent", similarLatency.stats());
+        out.put("contentVectors", contentVectors.stats());
         return out;
     }
 
-    /** Cold Start: mix flights + hotels */
-    private List<Map<String,Object>> coldStartRecommendations(int max) {
-        List<Map<String,Object>> out = new ArrayList<>();
-        List<Flight> flights = flightRepository.findAll();
-        List<Hotel> hotels = hotelRepo.findAll();
+    /**
+     * Items that co-occur with the user's recent flights and hotels in other users'
+     * histories (ItemSimilarityService), topped up with popular ones.
+     */
+    private List<Recommendation> collaborativeRecommendations(Set<String> recent,
+            Set<String> disliked, int max, Catalog catalog) {
+        List<TopK.Scored<String>> similar = itemSimilarity.similarTo(recent, disliked, max);
+
+        List<String> flightIds = new ArrayList<>();
+        List<String> hotelIds = new ArrayList<>();
+        for (TopK.Scored<String> s : similar) {
+            String key = s.item();
+            if (ThemeIndex.FLIGHT.equals(ItemSimilarityService.typeOf(key))) flightIds.add(ItemSimilarityService.idOf(key));
+            else hotelIds.add(ItemSimilarityService.idOf(key));
+        }
+        Map<String, Flight> flights = catalog.flights(flightIds);
+        Map<String, Hotel> hotels = catalog.hotels(hotelIds);
+
+        List<Recommendation> out = new ArrayList<>(max);
+        Set<String> taken = new HashSet<>();
+        for (TopK.Scored<String> s : similar) {
+            String id = ItemSimilarityService.idOf(s.item());
+            Flight f = flights.get(id);
+            Hotel h = hotels.get(id);
+            if (f != null) out.add(flightRec(f, Set.of("Similar trips"), s.score()));
+            else if (h != null) out.add(hotelRec(h, Set.of("Similar trips"), s.score()));
+            else continue;
+            taken.add(id);
+        }
+        if (out.size() < max) {
+            for (Recommendation rec : popularRecommendations(max, catalog)) {
+                if (out.size() >= max) break;
+                if (!taken.contains(rec.getId()) && !disliked.contains(rec.getId())) out.add(rec);
+            }
+        }
+        return out;
+    }
 
-        for (int i = 0; i < max; i++) {
-            if (i < flights.size()) out.add(buildFlightRec(flights.get(i), Set.of("Popular")));
-            if (i < hotels.size()) out.add(buildHotelRec(hotels.get(i), Set.of("Popular")));
+    /**
+     * Cold start and fallback: trending flights and hotels, interleaved, topped up in
+     * catalog order while there is not enough activity to rank them.
+     */
+    private List<Recommendation> popularRecommendations(int max, Catalog catalog) {
+        List<Recommendation> out = new ArrayList<>(max);
+        List<String> flightIds = topUp(ThemeIndex.FLIGHT, catalog.trending(ThemeIndex.FLIGHT, max), max);
+        List<String> hotelIds = topUp(ThemeIndex.HOTEL, catalog.trending(ThemeIndex.HOTEL, max), max);
+        Map<String, Flight> flights = catalog.flights(flightIds);
+        Map<String, Hotel> hotels = catalog.hotels(hotelIds);
+
+        for (int i = 0; i < max && out.size() < max; i++) {
+            Flight f = i < flightIds.size() ? flights.get(flightIds.get(i)) : null;
+            Hotel h = i < hotelIds.size() ? hotels.get(hotelIds.get(i)) : null;
+            if (f != null) out.add(flightRec(f, Set.of("Popular"), trendingService.score(ThemeIndex.FLIGHT, f.getId())));
+            if (h != null && out.size() < max) out.add(hotelRec(h, Set.of("Popular"), trendingService.score(ThemeIndex.HOTEL, h.getId())));
         }
         return out;
     }
 
-    private Map<String, Object> buildFlightRec(Flight f, Set<String> themes) {
-        return Map.of(
-                "type", "flight",
-                "id", f.getId(),
-                "title", f.getFlightName() + " → " + f.getTo(),
-                "destination", f.getTo(),
-                "price", f.getCurrentPrice(),
-                "why", "Because you like: " + String.join(", ", themes)
-        );
+    private List<String> topUp(String type, List<String> ids, int max) {
+        if (ids.size() >= max) return ids;
+        List<String> out = new ArrayList<>(ids);
+        out.addAll(themeIndex.catalog(type, new HashSet<>(ids), max - ids.size()));
+        return out;
+    }
+
+    private static Recommendation flightRec(Flight f, Set<String> themes, double score) {
+        return Recommendation.flight(f, "Because you like: " + String.join(", ", themes), round(score));
+    }
+
+    private static Recommendation hotelRec(Hotel h, Set<String> themes, double score) {
+        return Recommendation.hotel(h, "Because you enjoy: " + String.join(", ", themes), round(score));
     }
 
-    private Map<String, Object> buildHotelRec(Hotel h, Set<String> themes) {
-        return Map.of(
-                "type", "hotel",
-                "id", h.getId(),
-                "title", h.getHotelName(),
-                "location", h.getLocation(),
-                "price", h.getPricePerNight(),
-                "why", "Because you enjoy: " + String.join(", ", themes)
-        );
+    private static double round(double score) {
+        return Math.round(score * 1000) / 1000.0;
     }
 }
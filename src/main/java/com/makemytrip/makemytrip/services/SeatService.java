@@ -1,131 +1,693 @@
 package com.makemytrip.makemytrip.services;
 
 import com.makemytrip.makemytrip.models.Seat;
+import com.makemytrip.makemytrip.models.SeatLayout;
+import com.makemytrip.makemytrip.repositories.SeatRepository;
+import com.makemytrip.makemytrip.util.HashedTimingWheel;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
- * Simple thread-safe SeatService for development/testing.
- * - stores seats in-memory
- * - provides getSeatMap, saveSeat, reserveSeat, releaseSeat
+ * SeatService
  *
- * Replace with DB-backed implementation in production.
+ * Seat maps, reservations and releases, shared by every instance of the app.
+ * - the seats collection is the source of truth. Reserving is one conditional
+ *   findAndModify on the seat's _id ({reserved != true} -> reserved, reservedBy,
+ *   version + 1), upserted so only seats ever reserved or saved get a document; two
+ *   nodes racing for a seat hit the same _id, and the loser gets no match or a
+ *   duplicate key. Releasing is the same with {reserved, reservedBy = user}
+ * - each node keeps a read cache per flight: the SeatLayout shared by flights flown
+ *   with it plus one slot per seat (null until touched). Seat ids are flightId-rowcol.
+ *   A flight with no seat documents yet is flown with seats.layout.default
+ *   Writes land in the cache as Mongo returns them and a change stream on seats applies
+ *   the other nodes' writes; a slot only moves to a higher version, so arrival order
+ *   does not matter. Without a change stream (standalone server) a cached flight is
+ *   re-read after seats.cache.ttl-ms
+ * - a reservation is a hold until the booking confirms it (confirmSeat): it lapses
+ *   seats.hold.ttl-ms after it was taken. Lapsed holds are free to the next reserve
+ *   straight away ({holdUntil <= now} is part of the reserve condition) and are released
+ *   by a hashed timing wheel whose turn covers the TTL, so a tick only visits the holds
+ *   due in it however many are outstanding. Releases made that way, and other nodes'
+ *   writes seen on the change stream, go to the change listeners (the SSE feed)
  */
 @Service
 public class SeatService {
 
-	// seatId -> Seat
-	private final ConcurrentHashMap<String, Seat> seatsById = new ConcurrentHashMap<>();
+	// holder of a seat saved as reserved without a reservedBy; compared by identity
+	private static final String UNKNOWN_HOLDER = new String("?");
 
-	// flightId -> set of seatIds (index)
-	private final ConcurrentHashMap<String, Set<String>> seatsByFlight = new ConcurrentHashMap<>();
+	@Autowired
+	private MongoTemplate mongoTemplate;
+
+	@Autowired
+	private SeatRepository seatRepository;
+
+	@Value("${seats.cache.ttl-ms:5000}")
+	private long cacheTtlMs;
+
+	@Value("${seats.layout.default:narrow-body-20x6}")
+	private String defaultTemplate; // flights without seat documents are flown with it; blank: none
+
+	@Value("${seats.change-stream.retry-ms:30000}")
+	private long changeStreamRetryMs;
+
+	@Value("${seats.hold.ttl-ms:0}")
+	private long holdTtlMs; // 0: reservations never lapse
+
+	@Value("${seats.hold.tick-ms:1000}")
+	private long holdTickMs;
+
+	/** Last known state of a seat; holder null when free, holdUntil 0 when not lapsing. */
+	private record SeatState(String holder, long version, long holdUntil) {
+		boolean reserved() {
+			return holder != null;
+		}
+
+		/** Reserved and, if a hold, not lapsed yet (the clock is only read for holds). */
+		boolean held() {
+			return holder != null && (holdUntil == 0 || holdUntil > System.currentTimeMillis());
+		}
+	}
+
+	/** A hold to drop at its deadline, if the seat is still at this version then. */
+	private record Hold(String seatId, long version) {}
+
+	/**
+	 * One flight: its layout, the shared template it was seeded from (null for a layout
+	 * built seat by seat) and each position's state (null: never touched, free).
+	 */
+	private record FlightSeats(String flightId, SeatLayout layout, String template,
+							   AtomicReferenceArray<SeatState> states, Map<String, String> customIds, long loadedAt) {
+
+		String seatId(int i) {
+			String label = layout.label(i);
+			String id = customIds.get(label);
+			return id != null ? id : flightId + "-" + label;
+		}
+	}
+
+	private record Position(String flightId, String label) {}
+
+	private record SeatRef(FlightSeats f, int i) {}
+
+	// flightId -> layout + seat states
+	private final ConcurrentHashMap<String, FlightSeats> flights = new ConcurrentHashMap<>();
+
+	// seatId -> position, only for seats saved with an id other than flightId-rowcol
+	private final ConcurrentHashMap<String, Position> customPositions = new ConcurrentHashMap<>();
+
+	private final List<Consumer<Seat>> listeners = new CopyOnWriteArrayList<>();
+
+	// null while holds do not lapse
+	private HashedTimingWheel<Hold> holdExpiry;
+	private ExecutorService holdReleaser;
+
+	private volatile boolean running = true;
+	private volatile boolean streaming;
 
 	public SeatService() {
 		// optional: initial seeding can be done by controller when no seats found
 	}
 
-	// Return list of seats for flight (snapshot)
+	/** Starts the hold expiry wheel when holds lapse; its turn spans the TTL, so no hold waits out extra rounds. */
+	@PostConstruct
+	public void start() {
+		if (holdTtlMs <= 0) return;
+		int slots = (int) Math.min(1 << 20, holdTtlMs / holdTickMs + 2);
+		holdExpiry = new HashedTimingWheel<>("seat-hold-expiry", holdTickMs, slots, this::expire);
+		holdReleaser = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "seat-hold-release");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Indexes seats, schedules the stored holds and follows other nodes' seat writes,
+	 * off the startup thread.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		Thread t = new Thread(() -> {
+			try {
+				mongoTemplate.indexOps(Seat.class).ensureIndex(new Index().on("flightId", Sort.Direction.ASC));
+				mongoTemplate.indexOps(Seat.class).ensureIndex(new Index().on("holdUntil", Sort.Direction.ASC).sparse());
+				if (holdExpiry != null) scheduleStoredHolds();
+			} catch (Exception ex) {
+				System.err.println("SeatService.warmUp failed: " + ex.getMessage());
+			}
+			watch();
+		}, "seat-change-stream");
+		t.setDaemon(true);
+		t.start();
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		if (holdExpiry != null) {
+			holdExpiry.stop();
+			holdReleaser.shutdownNow();
+		}
+	}
+
+	/**
+	 * Called with every seat change this node did not make for a caller: lapsed holds
+	 * released here and, with a change stream, writes made by other nodes.
+	 */
+	public void addChangeListener(Consumer<Seat> listener) {
+		listeners.add(listener);
+	}
+
+	/** The flight's layout, or null if it has no seats. */
+	public SeatLayout getLayout(String flightId) {
+		FlightSeats f = flightId == null ? null : flight(flightId);
+		return f == null ? null : f.layout;
+	}
+
+	// Return list of seats for flight (each seat's state is read once, atomically), in layout order
 	public List<Seat> getSeatMap(String flightId) {
 		if (flightId == null) return Collections.emptyList();
-		Set<String> ids = seatsByFlight.getOrDefault(flightId, Collections.emptySet());
-		List<Seat> list = new ArrayList<>();
-		for (String id : ids) {
-			Seat s = seatsById.get(id);
-			if (s != null) list.add(copySeat(s));
-		}
-		// sort by row then col for deterministic UI
-		list.sort(Comparator.comparing(Seat::getRow, Comparator.nullsFirst(String::compareTo))
-				.thenComparing(Seat::getCol, Comparator.nullsFirst(String::compareTo)));
+		FlightSeats f = flight(flightId);
+		if (f == null) return Collections.emptyList();
+		int n = f.layout.size();
+		List<Seat> list = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) list.add(view(f, i, f.seatId(i), f.states.get(i)));
 		return list;
 	}
 
-	// Save or update a seat (persist in-memory)
+	/**
+	 * The seat map without the layout: "reserved" is a base64 bitmap (bit i of byte i/8
+	 * is layout position i) and "reservedBy" maps positions to user ids. Clients take
+	 * the rest from the layout payload, which is the same for every flight sharing it.
+	 */
+	public Map<String, Object> getCompactSeatMap(String flightId) {
+		FlightSeats f = flightId == null ? null : flight(flightId);
+		if (f == null) return null;
+		int n = f.layout.size();
+		byte[] bits = new byte[(n + 7) / 8];
+		Map<Integer, String> holders = new LinkedHashMap<>();
+		for (int i = 0; i < n; i++) {
+			SeatState s = f.states.get(i);
+			if (s == null || !s.held()) continue;
+			bits[i >>> 3] |= (byte) (1 << (i & 7));
+			if (s.holder != UNKNOWN_HOLDER) holders.put(i, s.holder);
+		}
+		Map<String, Object> out = new LinkedHashMap<>();
+		out.put("flightId", flightId);
+		out.put("layout", f.layout.getName());
+		out.put("seats", n);
+		out.put("reserved", Base64.getEncoder().encodeToString(bits));
+		out.put("reservedBy", holders);
+		return out;
+	}
+
+	// Save or update a seat. Meant for seeding/admin: a layout change copies the flight's
+	// cached states, so it must not race bookings on that flight.
 	public Seat saveSeat(Seat seat) {
-		if (seat == null || seat.getId() == null) return null;
-		seatsById.put(seat.getId(), deepCopySeat(seat));
-		seatsByFlight.computeIfAbsent(seat.getFlightId(), k -> Collections.newSetFromMap(new ConcurrentHashMap<>()))
-		.add(seat.getId());
-		return copySeat(seat);
+		if (seat == null || seat.getId() == null || seat.getFlightId() == null) return null;
+		FlightSeats f = flight(seat.getFlightId());
+		Update update = new Update()
+				.set("reserved", seat.isReserved())
+				.set("reservedBy", seat.getReservedBy())
+				.set("holdUntil", seat.getHoldUntil())
+				.set("layout", f == null ? null : f.template)
+				.inc("version", 1);
+		layoutFields(seat, update::set);
+		Seat saved = mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(seat.getId())), update,
+				FindAndModifyOptions.options().returnNew(true).upsert(true), Seat.class);
+		cacheSeat(saved, saved.getVersion());
+		return saved;
 	}
 
-	// Reserve seat: thread-safe per-seat
+	// Reserve seat: a hold lapsing after seats.hold.ttl-ms; one conditional write
 	public Seat reserveSeat(String seatId, String userId) {
 		if (seatId == null || userId == null) throw new IllegalArgumentException("seatId and userId required");
+		return claim(seatId, userId, holdTtlMs > 0 ? System.currentTimeMillis() + holdTtlMs : 0L);
+	}
 
-		// synchronize on interned seatId string to guard concurrent reservations for same seat
-		synchronized (seatId.intern()) {
-			Seat s = seatsById.get(seatId);
-			if (s == null) throw new IllegalStateException("Seat not found");
+	// Confirm seat for a booking: the user's hold (or the free seat) becomes a reservation
+	// that no longer lapses
+	public Seat confirmSeat(String seatId, String userId) {
+		if (seatId == null || userId == null) throw new IllegalArgumentException("seatId and userId required");
+		return claim(seatId, userId, 0L);
+	}
 
-			if (Boolean.TRUE.equals(s.getReserved())) {
-				// already reserved
-				if (userId.equals(s.getReservedBy())) {
-					// idempotent: already reserved by same user
-					return copySeat(s);
-				}
-				throw new IllegalStateException("Seat already reserved by another user");
+	/**
+	 * Takes the seat for the user until holdUntil (0: for good) unless someone else holds
+	 * it. A hold only ever becomes permanent: reserving a seat the user already holds
+	 * returns it as is.
+	 */
+	private Seat claim(String seatId, String userId, long holdUntil) {
+		SeatRef ref = locate(seatId);
+		if (ref == null) throw new IllegalStateException("Seat not found");
+		FlightSeats f = ref.f;
+		int i = ref.i;
+
+		// free, lapsed, or (confirming) this user's hold
+		List<Criteria> claimable = new ArrayList<>(List.of(
+				Criteria.where("reserved").ne(true),
+				Criteria.where("holdUntil").lte(new Date())));
+		if (holdUntil == 0) claimable.add(Criteria.where("reservedBy").is(userId));
+		Update update = new Update().set("reserved", true).set("reservedBy", userId)
+				.set("holdUntil", holdUntil == 0 ? null : new Date(holdUntil)).inc("version", 1)
+				.setOnInsert("layout", f.template);
+		layoutFields(f.layout.seat(i, seatId, f.flightId, false, null), update::setOnInsert);
+		try {
+			Seat saved = mongoTemplate.findAndModify(
+					Query.query(Criteria.where("_id").is(seatId).orOperator(claimable)), update,
+					FindAndModifyOptions.options().returnNew(true).upsert(true), Seat.class);
+			schedule(saved.getId(), stateOf(saved));
+			return apply(saved);
+		} catch (DuplicateKeyException taken) {
+			// the seat document exists and is held: by this user is fine (idempotent)
+			Seat current = seatRepository.findById(seatId).orElse(null);
+			if (current != null) {
+				apply(current);
+				if (current.isReserved() && userId.equals(current.getReservedBy())) return current;
 			}
+			throw new IllegalStateException("Seat already reserved by another user");
+		}
+	}
+
+	/**
+	 * Reserves all the given seats of one flight for the user (holds, as reserveSeat), or
+	 * none, in a fixed number of round trips whatever the party size: insert the seats
+	 * never written yet, one conditional updateMulti tagged with a claim id, read back.
+	 * If any seat is someone else's, the seats carrying the claim id are released again
+	 * and the call fails; otherwise the claim id is unset.
+	 *
+	 * Nothing is locked and nothing waits: each seat is one atomic single-document write
+	 * (the updateMulti visits them in _id order), so there is no lock order to get wrong
+	 * and no deadlock. Two groups overlapping on some seats can both fail, each having
+	 * lost a different seat to the other; while a failing group rolls back its seats
+	 * look held, so a single reserveSeat can be refused one of them.
+	 */
+	public List<Seat> reserveSeats(String flightId, Collection<String> seatIds, String userId) {
+		if (flightId == null || seatIds == null || seatIds.isEmpty() || userId == null) {
+			throw new IllegalArgumentException("flightId, seatIds and userId required");
+		}
+		FlightSeats flight = flight(flightId); // once, so the party size adds no reads
+		List<SeatRef> refs = new ArrayList<>(seatIds.size());
+		for (String seatId : new LinkedHashSet<>(seatIds)) {
+			SeatRef ref = seatId == null || flight == null ? null : locateIn(flight, seatId);
+			if (ref == null) {
+				if (seatId == null || locate(seatId) == null) throw new IllegalStateException("Seat not found: " + seatId);
+				throw new IllegalArgumentException("Seat " + seatId + " is not on flight " + flightId);
+			}
+			refs.add(ref);
+		}
+		refs.sort(Comparator.comparingInt(SeatRef::i));
+		long holdUntil = holdTtlMs > 0 ? System.currentTimeMillis() + holdTtlMs : 0L;
+
+		List<String> ids = new ArrayList<>(refs.size());
+		BulkOperations inserts = null;
+		for (SeatRef ref : refs) {
+			String seatId = ref.f.seatId(ref.i);
+			ids.add(seatId);
+			if (ref.f.states.get(ref.i) != null) continue; // written before, so it has a document
+			Update insert = new Update().setOnInsert("reserved", false).setOnInsert("version", 0L)
+					.setOnInsert("layout", ref.f.template);
+			layoutFields(ref.f.layout.seat(ref.i, seatId, ref.f.flightId, false, null), insert::setOnInsert);
+			if (inserts == null) inserts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Seat.class);
+			inserts.upsert(Query.query(Criteria.where("_id").is(seatId)), insert);
+		}
+		if (inserts != null) inserts.execute();
+
+		String claim = UUID.randomUUID().toString();
+		mongoTemplate.updateMulti(
+				Query.query(Criteria.where("_id").in(ids).orOperator(
+						Criteria.where("reserved").ne(true),
+						Criteria.where("holdUntil").lte(new Date()))),
+				new Update().set("reserved", true).set("reservedBy", userId)
+						.set("holdUntil", holdUntil == 0 ? null : new Date(holdUntil))
+						.set("claim", claim).inc("version", 1),
+				Seat.class);
 
-			// mark reserved
-			s.setReserved(true);
-			s.setReservedBy(userId);
-			seatsById.put(seatId, deepCopySeat(s));
-			return copySeat(s);
+		Map<String, Seat> stored = new HashMap<>();
+		for (Seat s : mongoTemplate.find(Query.query(Criteria.where("_id").in(ids)), Seat.class)) stored.put(s.getId(), apply(s));
+		List<String> lost = new ArrayList<>();
+		for (String id : ids) {
+			Seat s = stored.get(id);
+			// a seat the user already held counts, as in reserveSeat
+			if (s == null || !stateOf(s).held() || !userId.equals(s.getReservedBy())) lost.add(id);
+		}
+		Query claimed = Query.query(Criteria.where("_id").in(ids).and("claim").is(claim));
+		if (!lost.isEmpty()) {
+			mongoTemplate.updateMulti(claimed,
+					new Update().set("reserved", false).set("reservedBy", null).set("holdUntil", null)
+							.unset("claim").inc("version", 1),
+					Seat.class);
+			for (Seat s : mongoTemplate.find(Query.query(Criteria.where("_id").in(ids)), Seat.class)) apply(s);
+			throw new IllegalStateException("Seat already reserved by another user: " + String.join(", ", lost));
 		}
+		// the seat state is unchanged, so the version stays
+		mongoTemplate.updateMulti(claimed, new Update().unset("claim"), Seat.class);
+		List<Seat> out = new ArrayList<>(ids.size());
+		for (String id : ids) {
+			Seat s = stored.get(id);
+			if (claim.equals(s.getClaim())) schedule(id, stateOf(s));
+			s.setClaim(null);
+			out.add(s);
+		}
+		return out;
 	}
 
 	// Release seat: only by same user
 	public Seat releaseSeat(String seatId, String userId) {
 		if (seatId == null || userId == null) throw new IllegalArgumentException("seatId and userId required");
+		SeatRef ref = locate(seatId);
+		if (ref == null) throw new IllegalStateException("Seat not found");
 
-		synchronized (seatId.intern()) {
-			Seat s = seatsById.get(seatId);
-			if (s == null) throw new IllegalStateException("Seat not found");
+		Seat saved = mongoTemplate.findAndModify(
+				Query.query(Criteria.where("_id").is(seatId).and("reserved").is(true).and("reservedBy").is(userId)),
+				new Update().set("reserved", false).set("reservedBy", null).set("holdUntil", null).inc("version", 1),
+				FindAndModifyOptions.options().returnNew(true), Seat.class);
+		if (saved != null) return apply(saved);
+		Seat current = seatRepository.findById(seatId).orElse(null);
+		if (current != null) apply(current);
+		if (current == null || !current.isReserved()) throw new IllegalStateException("Seat is not reserved");
+		throw new IllegalStateException("Seat reserved by another user");
+	}
 
-			if (!Boolean.TRUE.equals(s.getReserved())) {
-				throw new IllegalStateException("Seat is not reserved");
+	// ---- hold expiry ----
+
+	private void schedule(String seatId, SeatState state) {
+		if (holdExpiry != null && state.holdUntil > 0) {
+			holdExpiry.scheduleAt(new Hold(seatId, state.version), state.holdUntil);
+		}
+	}
+
+	/** Holds stored by any node, so they lapse even if the node that took them is gone. */
+	private void scheduleStoredHolds() {
+		Query query = Query.query(Criteria.where("reserved").is(true).and("holdUntil").ne(null));
+		query.fields().include("_id").include("version").include("holdUntil");
+		try (Stream<Seat> holds = mongoTemplate.stream(query, Seat.class)) {
+			holds.forEach(s -> schedule(s.getId(), new SeatState(UNKNOWN_HOLDER, s.getVersion(), s.getHoldUntil().getTime())));
+		}
+	}
+
+	// timing wheel callback: the release itself may go to Mongo, so not on the wheel thread
+	private void expire(Hold hold) {
+		holdReleaser.execute(() -> {
+			try {
+				Seat released = releaseLapsed(hold);
+				if (released != null) notifyListeners(released);
+			} catch (Exception ex) {
+				System.err.println("SeatService: releasing lapsed hold on " + hold.seatId + " failed: " + ex.getMessage());
 			}
-			if (!userId.equals(s.getReservedBy())) {
-				throw new IllegalStateException("Seat reserved by another user");
+		});
+	}
+
+	/** Frees the seat if it is still that hold (same version, lapsed); null if it moved on meanwhile. */
+	private Seat releaseLapsed(Hold hold) {
+		Seat released = mongoTemplate.findAndModify(
+				Query.query(Criteria.where("_id").is(hold.seatId).and("version").is(hold.version)
+						.and("reserved").is(true).and("holdUntil").lte(new Date())),
+				new Update().set("reserved", false).set("reservedBy", null).set("holdUntil", null).inc("version", 1),
+				FindAndModifyOptions.options().returnNew(true), Seat.class);
+		return released == null ? null : apply(released);
+	}
+
+	private void notifyListeners(Seat seat) {
+		for (Consumer<Seat> l : listeners) {
+			try {
+				l.accept(seat);
+			} catch (Exception ex) {
+				System.err.println("SeatService: change listener failed: " + ex.getMessage());
 			}
+		}
+	}
+
+	// ---- cache ----
 
-			// release
-			s.setReserved(false);
-			s.setReservedBy(null);
-			seatsById.put(seatId, deepCopySeat(s));
-			return copySeat(s);
+	/** The cached flight, (re)read when missing or, without a change stream, older than the TTL. */
+	private FlightSeats flight(String flightId) {
+		FlightSeats f = flights.get(flightId);
+		if (f != null && (streaming || System.currentTimeMillis() - f.loadedAt < cacheTtlMs)) return f;
+		FlightSeats loaded = load(flightId, f);
+		if (loaded == null) return f;
+		return flights.merge(flightId, loaded, SeatService::newer);
+	}
+
+	/**
+	 * The flight as stored: its template (from the documents, else the cached one, else
+	 * seats.layout.default for a flight nobody has written a seat of) plus every seat document.
+	 */
+	private FlightSeats load(String flightId, FlightSeats cached) {
+		List<Seat> docs = seatRepository.findByFlightId(flightId);
+		String template = cached == null ? null : cached.template;
+		for (Seat d : docs) {
+			if (SeatLayout.named(d.getLayout()) != null) {
+				template = d.getLayout();
+				break;
+			}
+		}
+		// the same on every node and after a restart, so reserve works without a prior GET
+		if (template == null && cached == null && docs.isEmpty()) template = defaultTemplate;
+		SeatLayout layout = SeatLayout.named(template);
+		if (layout == null && docs.isEmpty()) return null;
+		Map<String, String> customIds = new HashMap<>();
+		for (Seat d : docs) {
+			layout = layout == null
+					? SeatLayout.of("flight:" + flightId, List.of(d))
+					: layout.with("flight:" + flightId, d);
+			String label = SeatLayout.label(d);
+			if (!d.getId().equals(flightId + "-" + label)) {
+				customIds.put(label, d.getId());
+				customPositions.put(d.getId(), new Position(flightId, label));
+			}
 		}
+		AtomicReferenceArray<SeatState> states = new AtomicReferenceArray<>(layout.size());
+		for (Seat d : docs) states.set(layout.indexOf(SeatLayout.label(d)), stateOf(d));
+		return new FlightSeats(flightId, layout, template, states, Map.copyOf(customIds), System.currentTimeMillis());
 	}
 
-	private Seat copySeat(Seat s) {
-		if (s == null) return null;
-		Seat c = new Seat();
+	/** A fresh read, keeping any slot the cache already has at a higher version (a write that raced the read). */
+	private static FlightSeats newer(FlightSeats cached, FlightSeats loaded) {
+		for (int i = 0; i < loaded.layout.size(); i++) {
+			int j = cached.layout.indexOf(loaded.layout.label(i));
+			SeatState c = j < 0 ? null : cached.states.get(j);
+			if (c != null && c.version > version(loaded.states.get(i))) loaded.states.set(i, c);
+		}
+		return loaded;
+	}
 
-		c.setId(s.getId());
-		c.setFlightId(s.getFlightId());
-		c.setRow(s.getRow());
-		c.setCol(s.getCol());
-		c.setCategory(s.getCategory());
+	/** Adds or replaces the seat in the cached flight; version 0 means one past the cached state. */
+	private FlightSeats cacheSeat(Seat seat, long version) {
+		String label = SeatLayout.label(seat);
+		return flights.compute(seat.getFlightId(), (flightId, f) -> {
+			SeatLayout old = f == null ? null : f.layout;
+			SeatLayout layout = old == null
+					? SeatLayout.of("flight:" + flightId, List.of(seat))
+					: old.with("flight:" + flightId, seat);
+			AtomicReferenceArray<SeatState> states = f == null ? null : f.states;
+			if (layout != old) {
+				states = new AtomicReferenceArray<>(layout.size());
+				for (int i = 0; old != null && i < old.size(); i++) {
+					states.set(layout.indexOf(old.label(i)), f.states.get(i));
+				}
+			}
+			int i = layout.indexOf(label);
+			SeatState prev = states.get(i);
+			long v = version > 0 ? version : version(prev) + 1;
+			if (v > version(prev)) states.set(i, stateOf(seat, v));
 
-		c.setWindow(s.isWindow());
-		c.setAisle(s.isAisle());
-		c.setReserved(s.isReserved());
-		c.setReservedBy(s.getReservedBy());
+			Map<String, String> customIds = f == null ? Map.of() : f.customIds;
+			if (!seat.getId().equals(flightId + "-" + label)) {
+				Map<String, String> ids = new HashMap<>(customIds);
+				ids.put(label, seat.getId());
+				customIds = Map.copyOf(ids);
+				customPositions.put(seat.getId(), new Position(flightId, label));
+			}
+			if (f != null && layout == old && customIds == f.customIds) return f;
+			return new FlightSeats(flightId, layout, f == null ? null : f.template, states, customIds,
+					f == null ? System.currentTimeMillis() : f.loadedAt);
+		});
+	}
 
-		// 🔥 These were missing!
-		c.setPremium(s.isPremium());
-		c.setPremiumPrice(s.getPremiumPrice());
+	/** Moves the cached slot of a stored seat forward to it, and hands the seat out. */
+	private Seat apply(Seat stored) {
+		FlightSeats f = flights.get(stored.getFlightId()); // looked up again: a reload may have replaced it
+		int i = f == null ? -1 : f.layout.indexOf(SeatLayout.label(stored));
+		if (i >= 0) advance(f.states, i, stateOf(stored));
+		return stored;
+	}
 
-		c.setUpsellPrice(s.getUpsellPrice());
-		c.setNotes(s.getNotes());
+	/** Moves slot i to next unless it is already there or past it; true if it moved. */
+	private static boolean advance(AtomicReferenceArray<SeatState> states, int i, SeatState next) {
+		while (true) {
+			SeatState current = states.get(i);
+			if (current != null && current.version >= next.version) return false;
+			if (states.compareAndSet(i, current, next)) return true;
+		}
+	}
 
-		return c;
+	// ---- change stream ----
+
+	private void watch() {
+		BsonDocument resumeToken = null;
+		while (running) {
+			try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = openStream(resumeToken)) {
+				// starting over: writes made while nobody was listening are not in the cache
+				if (resumeToken == null) flights.clear();
+				streaming = true;
+				while (running) {
+					ChangeStreamDocument<Document> event = cursor.tryNext();
+					if (event == null) continue;
+					resumeToken = event.getResumeToken();
+					onChange(event);
+				}
+			} catch (Exception ex) {
+				streaming = false;
+				resumeToken = null;
+				System.err.println("SeatService: seat change stream unavailable (" + ex.getMessage()
+						+ "); cached seat maps are re-read after " + cacheTtlMs + " ms");
+				try {
+					Thread.sleep(changeStreamRetryMs);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			}
+		}
+		streaming = false;
+	}
+
+	private MongoChangeStreamCursor<ChangeStreamDocument<Document>> openStream(BsonDocument resumeToken) {
+		ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Seat.class))
+				.watch()
+				.fullDocument(FullDocument.UPDATE_LOOKUP)
+				.maxAwaitTime(1, TimeUnit.SECONDS);
+		if (resumeToken != null) stream = stream.resumeAfter(resumeToken);
+		return stream.cursor();
 	}
 
+	private void onChange(ChangeStreamDocument<Document> event) {
+		Document doc = event.getFullDocument();
+		if (doc == null) {
+			// a delete or drop: which flight is not known, so drop everything
+			flights.clear();
+			return;
+		}
+		Seat seat = mongoTemplate.getConverter().read(Seat.class, doc);
+		FlightSeats f = seat.getFlightId() == null ? null : flights.get(seat.getFlightId());
+		if (f == null) return; // not cached on this node
+		int i = f.layout.indexOf(SeatLayout.label(seat));
+		boolean sameSeat = i >= 0
+				&& f.layout.with(f.layout.getName(), seat) == f.layout
+				&& seat.getId().equals(f.seatId(i));
+		if (sameSeat) {
+			SeatState state = stateOf(seat);
+			if (advance(f.states, i, state)) {
+				// another node's write (ours are in the cache already): its hold lapses here too
+				schedule(seat.getId(), state);
+				notifyListeners(view(f, i, seat.getId(), state));
+			}
+		} else {
+			// the seat itself was changed or added elsewhere: re-read the flight on next use
+			flights.remove(seat.getFlightId(), f);
+		}
+	}
+
+	// ---- helpers ----
+
+	/** The flight and layout position a seat id points at, or null. */
+	private SeatRef locate(String seatId) {
+		Position p = customPositions.isEmpty() ? null : customPositions.get(seatId);
+		if (p != null) {
+			FlightSeats f = flight(p.flightId);
+			int i = f == null ? -1 : f.layout.indexOf(p.label);
+			return i < 0 ? null : new SeatRef(f, i);
+		}
+		int dash = seatId.lastIndexOf('-');
+		FlightSeats f = dash <= 0 ? null : flight(seatId.substring(0, dash));
+		return f == null ? null : templateSeat(f, seatId, dash);
+	}
 
-	private Seat deepCopySeat(Seat s) {
-		return copySeat(s);
+	/** As locate, within an already resolved flight; null if the seat is not on it. */
+	private SeatRef locateIn(FlightSeats f, String seatId) {
+		Position p = customPositions.isEmpty() ? null : customPositions.get(seatId);
+		if (p != null) {
+			int i = p.flightId.equals(f.flightId) ? f.layout.indexOf(p.label) : -1;
+			return i < 0 ? null : new SeatRef(f, i);
+		}
+		int dash = seatId.lastIndexOf('-');
+		return dash == f.flightId.length() && seatId.startsWith(f.flightId) ? templateSeat(f, seatId, dash) : null;
+	}
+
+	private static SeatRef templateSeat(FlightSeats f, String seatId, int dash) {
+		int i = f.layout.indexOf(seatId, dash + 1);
+		// a template seat whose id was replaced by a custom one is only reachable by that id
+		return i < 0 || f.customIds.containsKey(f.layout.label(i)) ? null : new SeatRef(f, i);
+	}
+
+	/** The fixed (layout) fields of a seat document, for $set or $setOnInsert. */
+	private static void layoutFields(Seat s, BiFunction<String, Object, Update> field) {
+		field.apply("flightId", s.getFlightId());
+		field.apply("row", s.getRow());
+		field.apply("col", s.getCol());
+		field.apply("category", s.getCategory());
+		field.apply("window", s.isWindow());
+		field.apply("aisle", s.isAisle());
+		field.apply("premium", s.isPremium());
+		field.apply("premiumPrice", s.getPremiumPrice());
+		field.apply("upsellPrice", s.getUpsellPrice());
+		field.apply("notes", s.getNotes());
+	}
+
+	private static SeatState stateOf(Seat s) {
+		return stateOf(s, s.getVersion());
+	}
+
+	private static SeatState stateOf(Seat s, long version) {
+		String holder = !s.isReserved() ? null : s.getReservedBy() == null ? UNKNOWN_HOLDER : s.getReservedBy();
+		return new SeatState(holder, version, holder == null || s.getHoldUntil() == null ? 0L : s.getHoldUntil().getTime());
+	}
+
+	private static long version(SeatState s) {
+		return s == null ? 0L : s.version;
+	}
+
+	/** The one Seat copy handed out per call: layout position plus the given state (a lapsed hold shows free). */
+	private Seat view(FlightSeats f, int i, String seatId, SeatState state) {
+		boolean reserved = state != null && state.held();
+		Seat c = f.layout.seat(i, seatId, f.flightId, reserved,
+				reserved && state.holder != UNKNOWN_HOLDER ? state.holder : null);
+		if (reserved && state.holdUntil > 0) c.setHoldUntil(new Date(state.holdUntil));
+		c.setVersion(version(state));
+		c.setLayout(f.template);
+		return c;
 	}
 }
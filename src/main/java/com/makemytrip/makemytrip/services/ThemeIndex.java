@@ -0,0 +1,274 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.repositories.FlightRepository;
+import com.makemytrip.makemytrip.repositories.HotelRepository;
+import com.makemytrip.makemytrip.util.AhoCorasick;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+
+/**
+ * ThemeIndex
+ *
+ * Theme set of every flight and hotel, extracted once, plus a theme -> entity id
+ * postings list per product type. Themes and their keywords come from a table
+ * (recommendations.themes.file) compiled into one Aho-Corasick matcher, and a theme
+ * set is stored as a bitmask. Recommendations walk the postings of the user's
+ * themes instead of loading and re-tagging the whole catalog on every request.
+ *
+ *  - built from a projection of the catalog at startup (off the startup thread)
+ *  - kept current by AdminController through index(Flight) / index(Hotel)
+ *  - rebuilt periodically to pick up edits made outside the admin API
+ *
+ * Ids are kept sorted, so postings and catalog walks come back in a stable order.
+ */
+@Service
+public class ThemeIndex {
+
+    public static final String FLIGHT = "flight";
+    public static final String HOTEL = "hotel";
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private HotelRepository hotelRepo;
+
+    @Value("${recommendations.themes.file:classpath:themes.txt}")
+    private Resource themesFile;
+
+    /** Theme names by bit; a theme set is a long with one bit per theme. */
+    private List<String> themes = List.of();
+    private AhoCorasick matcher = AhoCorasick.builder().build();
+
+    /**
+     * One indexed flight or hotel. destination is the flight's "to" or the hotel's location;
+     * price is the flight's base fare or the hotel's nightly rate, used to rank by price fit.
+     */
+    public record Entry(String type, String id, String destination, long themes, double price) {}
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, Postings> byType = Map.of(FLIGHT, new Postings(), HOTEL, new Postings());
+
+    private volatile boolean loaded;
+
+    /**
+     * Compiles the keyword table ("Theme: keyword, keyword, ..." per line) into one
+     * matcher. A broken table fails startup rather than silently tagging nothing.
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        List<String> names = new ArrayList<>();
+        AhoCorasick.Builder builder = AhoCorasick.builder();
+        try (BufferedReader in = new BufferedReader(
+                new InputStreamReader(themesFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                int colon = line.indexOf(':');
+                if (colon <= 0) throw new IllegalStateException("Bad theme line in " + themesFile + ": " + line);
+                String theme = line.substring(0, colon).trim();
+                // theme names are field names in user_profiles.themeWeights
+                if (theme.contains(".") || theme.startsWith("$")) {
+                    throw new IllegalStateException("Theme names cannot contain '.' or start with '$': " + theme);
+                }
+                int bit = names.indexOf(theme);
+                if (bit < 0) {
+                    if (names.size() == 64) throw new IllegalStateException("At most 64 themes are supported");
+                    bit = names.size();
+                    names.add(theme);
+                }
+                for (String keyword : line.substring(colon + 1).split(",")) {
+                    keyword = keyword.trim();
+                    if (keyword.isEmpty()) continue;
+                    builder.add(keyword, bit);
+                }
+            }
+        }
+        themes = List.copyOf(names);
+        matcher = builder.build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread t = new Thread(this::ensureLoaded, "theme-index-warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /** Builds the index on first use if warm-up has not finished yet. */
+    public void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (!loaded) rebuild();
+        }
+    }
+
+    /**
+     * Re-reads the catalog and re-tags every entity. Entities no longer in Mongo
+     * are dropped from the postings.
+     */
+    @Scheduled(fixedDelayString = "${recommendations.theme-index.refresh-ms:3600000}",
+               initialDelayString = "${recommendations.theme-index.refresh-ms:3600000}")
+    public synchronized void rebuild() {
+        try {
+            Set<String> seen = new HashSet<>();
+            for (Flight f : flightRepository.findThemeSnapshot()) {
+                index(f);
+                seen.add(f.getId());
+            }
+            for (Hotel h : hotelRepo.findThemeSnapshot()) {
+                index(h);
+                seen.add(h.getId());
+            }
+            for (String id : new ArrayList<>(entries.keySet())) {
+                if (!seen.contains(id)) remove(id);
+            }
+            loaded = true;
+        } catch (Exception ex) {
+            System.err.println("ThemeIndex.rebuild failed: " + ex.getMessage());
+        }
+    }
+
+    public void index(Flight f) {
+        if (f == null || f.getId() == null) return;
+        double price = f.getBasePrice() > 0 ? f.getBasePrice() : f.getCurrentPrice();
+        put(new Entry(FLIGHT, f.getId(), f.getTo(), themeMask(f.getFlightName(), f.getTo()), price));
+    }
+
+    public void index(Hotel h) {
+        if (h == null || h.getId() == null) return;
+        put(new Entry(HOTEL, h.getId(), h.getLocation(), themeMask(
+                h.getHotelName(),
+                h.getLocation(),
+                h.getAmenities(),
+                h.getDescription()
+        ), h.getPricePerNight()));
+    }
+
+    public synchronized void remove(String id) {
+        Entry old = entries.remove(id);
+        if (old != null) byType.get(old.type()).remove(old);
+    }
+
+    private synchronized void put(Entry e) {
+        Entry old = entries.put(e.id(), e);
+        if (old != null) byType.get(old.type()).remove(old);
+        byType.get(e.type()).add(e);
+    }
+
+    /** Theme set of the text fields, one pass over each; null fields are skipped. */
+    public long themeMask(String... fields) {
+        long mask = 0L;
+        for (String text : fields) mask |= matcher.match(text);
+        return mask;
+    }
+
+    /** Theme names in a theme set, in table order. */
+    public Set<String> themeNames(long mask) {
+        Set<String> names = new LinkedHashSet<>();
+        for (long m = mask; m != 0; m &= m - 1) {
+            names.add(themes.get(Long.numberOfTrailingZeros(m)));
+        }
+        return names;
+    }
+
+    /** Bit of the named theme, or -1 if the theme table has no such theme. */
+    public int themeBit(String name) {
+        return themes.indexOf(name);
+    }
+
+    public Set<String> extractThemes(String... fields) {
+        return themeNames(themeMask(fields));
+    }
+
+    /** The indexed entity, or null. */
+    public Entry get(String id) {
+        return id == null ? null : entries.get(id);
+    }
+
+    /** Destination of the entity, or null if it is not indexed. */
+    public String destinationOf(String id) {
+        Entry e = get(id);
+        return e == null ? null : e.destination();
+    }
+
+    /** Theme set of the entity, or 0 if it is not a known entity of that type. */
+    public long themesOf(String type, String id) {
+        Entry e = get(id);
+        return e == null || !e.type().equals(type) ? 0L : e.themes();
+    }
+
+    /**
+     * Calls action once for every entity of the given type tagged with any of the themes,
+     * walking each theme's postings in id order. An entity on several of them is reported
+     * from the lowest of its matching themes only.
+     */
+    public void forEachMatching(String type, long themes, Consumer<Entry> action) {
+        Postings p = byType.get(type);
+        for (long m = themes; m != 0; m &= m - 1) {
+            int bit = Long.numberOfTrailingZeros(m);
+            for (String id : p.byTheme[bit]) {
+                Entry e = entries.get(id);
+                if (e != null && Long.numberOfTrailingZeros(e.themes() & themes) == bit) action.accept(e);
+            }
+        }
+    }
+
+    /** The first ids of the given type in catalog (id) order, skipping excluded ids. */
+    public List<String> catalog(String type, Set<String> exclude, int limit) {
+        List<String> out = new ArrayList<>(Math.max(0, limit));
+        for (String id : byType.get(type).all) {
+            if (out.size() >= limit) break;
+            if (!exclude.contains(id)) out.add(id);
+        }
+        return out;
+    }
+
+    public int size(String type) {
+        return byType.get(type).all.size();
+    }
+
+    private static final class Postings {
+        final Set<String> all = new ConcurrentSkipListSet<>();
+        final Set<String>[] byTheme = newPostings();
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private static Set<String>[] newPostings() {
+            Set<String>[] lists = new Set[64];
+            for (int i = 0; i < lists.length; i++) lists[i] = new ConcurrentSkipListSet<>();
+            return lists;
+        }
+
+        void add(Entry e) {
+            all.add(e.id());
+            for (long m = e.themes(); m != 0; m &= m - 1) {
+                byTheme[Long.numberOfTrailingZeros(m)].add(e.id());
+            }
+        }
+
+        void remove(Entry e) {
+            all.remove(e.id());
+            for (long m = e.themes(); m != 0; m &= m - 1) {
+                byTheme[Long.numberOfTrailingZeros(m)].remove(e.id());
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Booking;
+import com.makemytrip.makemytrip.models.UserInteraction;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * TrendingService
+ *
+ * What is popular right now, per flight, hotel and destination, without scanning bookings.
+ *  - every booking and interaction adds a weight to the entity (and its destination)
+ *  - scores decay exponentially with recommendations.trending.half-life-hours, using
+ *    forward decay: weights are scaled up from a landmark time instead of decaying every
+ *    score on every tick, and rebased when the scale grows too large
+ *  - each type keeps at most recommendations.trending.capacity entries (Space-Saving:
+ *    a newcomer replaces the lowest entry and inherits its score), so memory is bounded
+ *    no matter how many bookings there are and heavy hitters are never lost
+ *  - on startup the last recommendations.trending.warmup-days of bookings and
+ *    interactions are streamed back in
+ */
+@Service
+public class TrendingService {
+
+    public static final String DESTINATION = "destination";
+
+    private static final double BOOKING_WEIGHT = 5.0;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private ThemeIndex themeIndex;
+
+    @Value("${recommendations.trending.half-life-hours:24}")
+    private double halfLifeHours;
+
+    @Value("${recommendations.trending.capacity:5000}")
+    private int capacity;
+
+    @Value("${recommendations.trending.warmup-days:7}")
+    private int warmupDays;
+
+    private Map<String, TopK> byType = Map.of();
+
+    @PostConstruct
+    public void init() {
+        double lambda = Math.log(2) / (halfLifeHours * 3_600_000d);
+        long now = System.currentTimeMillis();
+        byType = Map.of(
+                ThemeIndex.FLIGHT, new TopK(capacity, lambda, now),
+                ThemeIndex.HOTEL, new TopK(capacity, lambda, now),
+                DESTINATION, new TopK(capacity, lambda, now));
+    }
+
+    /** Replays recent bookings and interactions, off the startup thread. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread t = new Thread(() -> {
+            try {
+                themeIndex.ensureLoaded();
+                LocalDateTime since = LocalDateTime.now().minusDays(warmupDays);
+
+                Query bookings = new Query(Criteria.where("bookingTime").gte(since));
+                bookings.fields().include("bookingType", "bookingRef", "bookingTime");
+                try (Stream<Booking> s = mongoTemplate.stream(bookings, Booking.class)) {
+                    s.forEach(this::recordBooking);
+                }
+
+                Query interactions = new Query(Criteria.where("timestamp").gte(since));
+                interactions.fields().include("entityType", "entityId", "action", "timestamp");
+                try (Stream<UserInteraction> s = mongoTemplate.stream(interactions, UserInteraction.class)) {
+                    s.forEach(this::recordInteraction);
+                }
+            } catch (Exception ex) {
+                System.err.println("TrendingService.warmUp failed: " + ex.getMessage());
+            }
+        }, "trending-warmup");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    public void recordBooking(Booking b) {
+        if (b == null || b.getBookingType() == null) return;
+        String type = b.getBookingType().toLowerCase(Locale.ROOT);
+        record(type, b.getBookingRef(), BOOKING_WEIGHT, millisOf(b.getBookingTime()));
+    }
+
+    public void recordInteraction(UserInteraction ui) {
+        if (ui == null) return;
+        double weight = switch (ui.getAction() == null ? "" : ui.getAction()) {
+            case "view" -> 1.0;
+            case "like" -> 3.0;
+            case "book" -> BOOKING_WEIGHT;
+            default -> 0.0;
+        };
+        record(ui.getEntityType(), ui.getEntityId(), weight, millisOf(ui.getTimestamp()));
+    }
+
+    /** Adds weight to the entity and, for flights and hotels, to its destination. */
+    public void record(String type, String id, double weight, long atMillis) {
+        if (type == null || id == null || weight <= 0) return;
+        if (DESTINATION.equals(type)) {
+            add(DESTINATION, destinationKey(id), weight, atMillis);
+            return;
+        }
+        TopK top = byType.get(type);
+        if (top == null) return;
+        top.add(id, weight, atMillis);
+        String destination = themeIndex.destinationOf(id);
+        if (destination != null) add(DESTINATION, destinationKey(destination), weight, atMillis);
+    }
+
+    private void add(String type, String key, double weight, long atMillis) {
+        if (key.isEmpty()) return;
+        byType.get(type).add(key, weight, atMillis);
+    }
+
+    /** Highest scoring ids of a type, best first. */
+    public List<String> topIds(String type, int k) {
+        TopK top = byType.get(type);
+        if (top == null || k <= 0) return List.of();
+        List<String> out = new ArrayList<>(k);
+        for (Map.Entry<String, Double> e : top.top(k, System.currentTimeMillis())) out.add(e.getKey());
+        return out;
+    }
+
+    /** Highest scoring entries of a type with their current (decayed) score, best first. */
+    public List<Map<String, Object>> top(String type, int k) {
+        TopK top = byType.get(type);
+        if (top == null || k <= 0) return List.of();
+        List<Map<String, Object>> out = new ArrayList<>(k);
+        for (Map.Entry<String, Double> e : top.top(k, System.currentTimeMillis())) {
+            out.add(Map.of("type", type, "id", e.getKey(), "score", Math.round(e.getValue() * 1000) / 1000.0));
+        }
+        return out;
+    }
+
+    /** Current (decayed) score of one entity; 0 if it is not tracked. */
+    public double score(String type, String id) {
+        return scores(type, List.of(id))[0];
+    }
+
+    /** Current (decayed) scores of the entities, in order; 0 for ones not tracked. */
+    public double[] scores(String type, List<String> ids) {
+        TopK top = byType.get(type);
+        double[] out = new double[ids.size()];
+        if (top != null) top.scores(ids, out, System.currentTimeMillis());
+        return out;
+    }
+
+    public boolean supports(String type) {
+        return byType.containsKey(type);
+    }
+
+    private static String destinationKey(String destination) {
+        return destination.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long millisOf(LocalDateTime t) {
+        return t == null ? System.currentTimeMillis() : t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    /**
+     * Bounded top-K of forward-decayed scores. A stored score s means s * e^(-lambda * (now - landmark))
+     * today, so adding an event at time t adds w * e^(lambda * (t - landmark)).
+     */
+    private static final class TopK {
+
+        private static final double REBASE_ABOVE = 1e12;
+
+        private final int capacity;
+        private final double lambda;
+        private long landmark;
+
+        private final Map<String, Node> nodes = new HashMap<>();
+        private final TreeSet<Node> order = new TreeSet<>(
+                Comparator.comparingDouble((Node n) -> n.score).thenComparing(n -> n.id));
+
+        TopK(int capacity, double lambda, long landmark) {
+            this.capacity = Math.max(1, capacity);
+            this.lambda = lambda;
+            this.landmark = landmark;
+        }
+
+        synchronized void add(String id, double weight, long at) {
+            double scaled = weight * Math.exp(lambda * (at - landmark));
+            if (scaled > REBASE_ABOVE) {
+                rebase(at);
+                scaled = weight;
+            }
+            Node n = nodes.get(id);
+            if (n != null) {
+                order.remove(n);
+                n.score += scaled;
+            } else if (nodes.size() < capacity) {
+                n = new Node(id, scaled);
+                nodes.put(id, n);
+            } else {
+                // Space-Saving: take over the smallest counter
+                Node min = order.pollFirst();
+                nodes.remove(min.id);
+                n = new Node(id, min.score + scaled);
+                nodes.put(id, n);
+            }
+            order.add(n);
+        }
+
+        synchronized List<Map.Entry<String, Double>> top(int k, long now) {
+            double decay = Math.exp(-lambda * (now - landmark));
+            List<Map.Entry<String, Double>> out = new ArrayList<>(Math.min(k, nodes.size()));
+            for (Iterator<Node> it = order.descendingIterator(); it.hasNext() && out.size() < k; ) {
+                Node n = it.next();
+                out.add(Map.entry(n.id, n.score * decay));
+            }
+            return out;
+        }
+
+        synchronized void scores(List<String> ids, double[] out, long now) {
+            double decay = Math.exp(-lambda * (now - landmark));
+            for (int i = 0; i < out.length; i++) {
+                Node n = ids.get(i) == null ? null : nodes.get(ids.get(i));
+                out[i] = n == null ? 0.0 : n.score * decay;
+            }
+        }
+
+        /** Moves the landmark forward; rescaling every score keeps their order. */
+        private void rebase(long newLandmark) {
+            double factor = Math.exp(-lambda * (newLandmark - landmark));
+            List<Node> all = new ArrayList<>(order);
+            order.clear();
+            for (Node n : all) {
+                n.score *= factor;
+                order.add(n);
+            }
+            landmark = newLandmark;
+        }
+    }
+
+    private static final class Node {
+        final String id;
+        double score;
+
+        Node(String id, double score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+}
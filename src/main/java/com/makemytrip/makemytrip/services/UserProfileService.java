@@ -0,0 +1,319 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.RecommendationFeedback;
+import com.makemytrip.makemytrip.models.UserInteraction;
+import com.makemytrip.makemytrip.models.UserProfile;
+import com.makemytrip.makemytrip.repositories.FlightRepository;
+import com.makemytrip.makemytrip.repositories.HotelRepository;
+import com.makemytrip.makemytrip.repositories.RecommendationFeedbackRepository;
+import com.makemytrip.makemytrip.repositories.UserInteractionRepository;
+import com.makemytrip.makemytrip.repositories.UserProfileRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * UserProfileService
+ *
+ * Maintains the user_profiles read model that recommendForUser works from:
+ *  - interactions are applied as one atomic upsert per user: $inc on the themes of the
+ *    entities and on the user's price average, a capped $push onto the recent items and
+ *    $set of lastUpdated
+ *  - feedback moves the id between likedIds and dislikedIds ($addToSet / $pull)
+ *  - theme weights decay with recommendations.profile.half-life-days using forward
+ *    decay: an event at time t adds weight * 2^((t - LANDMARK) / halfLife), so old
+ *    interests fade without ever rewriting the document (ratios are all that is read)
+ *  - a profile is built once from the user's interaction window and feedback (and then
+ *    marked backfilled) on their first read or first interaction batch, whichever comes
+ *    first; until then interactions are not $inc'ed, so history is never counted twice.
+ *    The ingest writer asks backfilled() before inserting a batch: a user backfilled by
+ *    then was built without the batch, anyone else is rebuilt after it is inserted
+ */
+@Service
+public class UserProfileService {
+
+    // fixed origin of the forward-decay scale (2024-01-01T00:00Z); with a 30 day half-life
+    // weights stay well inside double range for decades
+    private static final long LANDMARK = 1_704_067_200_000L;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserProfileRepository profileRepository;
+
+    @Autowired
+    private UserInteractionRepository interactionRepository;
+
+    @Autowired
+    private RecommendationFeedbackRepository feedbackRepository;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private HotelRepository hotelRepo;
+
+    @Autowired
+    private ThemeIndex themeIndex;
+
+    @Value("${recommendations.profile.half-life-days:30}")
+    private double halfLifeDays;
+
+    @Value("${recommendations.profile.recent-items:50}")
+    private int recentItems;
+
+    // themes weighing less than this share of the user's strongest theme are ignored
+    @Value("${recommendations.profile.min-theme-share:0.1}")
+    private double minThemeShare;
+
+    @Value("${recommendations.interactions.window:200}")
+    private int interactionWindow;
+
+    /** The users among these whose profile has already been built from their history. */
+    public Set<String> backfilled(Collection<String> userIds) {
+        Set<String> out = new HashSet<>();
+        if (userIds.isEmpty()) return out;
+        Query q = new Query(Criteria.where("_id").in(userIds).and("backfilled").is(true));
+        q.fields().include("_id");
+        for (UserProfile p : mongoTemplate.find(q, UserProfile.class)) out.add(p.getId());
+        return out;
+    }
+
+    /**
+     * Applies a batch of interactions that is already stored in user_interactions. Users in
+     * backfilled (as returned by backfilled() before the batch was stored) get one merged
+     * upsert each, in one unordered bulk; the others are rebuilt from their history, which
+     * includes the batch.
+     */
+    public void onInteractions(List<UserInteraction> interactions, Set<String> backfilled) {
+        Map<String, List<UserInteraction>> byUser = new LinkedHashMap<>();
+        for (UserInteraction ui : interactions) {
+            if (ui == null || ui.getUserId() == null || ui.getEntityId() == null) continue;
+            byUser.computeIfAbsent(ui.getUserId(), k -> new ArrayList<>()).add(ui);
+        }
+        resolveUnknown(interactions);
+        BulkOperations ops = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserProfile.class);
+        int upserts = 0;
+        for (Map.Entry<String, List<UserInteraction>> e : byUser.entrySet()) {
+            if (backfilled.contains(e.getKey())) {
+                ops.upsert(byUser(e.getKey()), update(e.getValue()));
+                upserts++;
+            } else {
+                UserProfile p = fromHistory(e.getKey());
+                // unconditional: a backfill load() stored meanwhile may predate the batch
+                if (p == null) continue;
+                ops.upsert(byUser(e.getKey()), replacement(p));
+                upserts++;
+            }
+        }
+        if (upserts > 0) ops.execute();
+    }
+
+    /** $inc of the summed theme weights, a capped $push of the items (in order) and $set of lastUpdated. */
+    private Update update(List<UserInteraction> interactions) {
+        Update update = new Update().set("lastUpdated", new Date());
+        List<Object> items = new ArrayList<>();
+        UserProfile delta = new UserProfile();
+        for (UserInteraction ui : interactions) {
+            if (!isItem(ui.getEntityType())) continue;
+            items.add(ItemSimilarityService.key(ui.getEntityType(), ui.getEntityId()));
+            accumulate(delta, ui);
+        }
+        if (!items.isEmpty()) {
+            update.push("recentItems").slice(-Math.max(1, recentItems)).each(items.toArray());
+        }
+        delta.getThemeWeights().forEach((theme, w) -> update.inc("themeWeights." + theme, w));
+        delta.getPriceTotals().forEach((type, v) -> update.inc("priceTotals." + type, v));
+        delta.getPriceWeights().forEach((type, v) -> update.inc("priceWeights." + type, v));
+        return update;
+    }
+
+    public void onFeedback(RecommendationFeedback fb) {
+        if (fb == null || fb.getUserId() == null || fb.getRecommendedEntityId() == null) return;
+        String id = fb.getRecommendedEntityId();
+        Update update = new Update().set("lastUpdated", new Date());
+        if (fb.isLiked()) update.addToSet("likedIds", id).pull("dislikedIds", id);
+        else update.addToSet("dislikedIds", id).pull("likedIds", id);
+        mongoTemplate.upsert(byUser(fb.getUserId()), update, UserProfile.class);
+    }
+
+    /** The user's profile, built from their history the first time; null if they have none. */
+    public UserProfile load(String userId) {
+        UserProfile stored = profileRepository.findById(userId).orElse(null);
+        if (stored != null && stored.isBackfilled()) return stored;
+
+        UserProfile p = fromHistory(userId);
+        if (p == null) return stored;
+        try {
+            if (stored == null) return profileRepository.insert(p);
+            // only over a profile nobody has backfilled yet (e.g. one created by feedback)
+            mongoTemplate.updateFirst(byUser(userId).addCriteria(Criteria.where("backfilled").ne(true)),
+                    replacement(p), UserProfile.class);
+            return p;
+        } catch (DuplicateKeyException raced) {
+            // created meanwhile; a backfilled one wins, otherwise the next read retries
+            UserProfile now = profileRepository.findById(userId).orElse(null);
+            return now != null && now.isBackfilled() ? now : p;
+        }
+    }
+
+    /** The profile the user's interaction window and feedback add up to; null if they have none. */
+    private UserProfile fromHistory(String userId) {
+        List<UserInteraction> interactions = interactionRepository.findByUserIdOrderByTimestampDesc(
+                userId, PageRequest.of(0, Math.max(1, interactionWindow)));
+        List<RecommendationFeedback> feedback = feedbackRepository.findByUserId(userId);
+        if (interactions.isEmpty() && feedback.isEmpty()) return null;
+        return backfill(userId, interactions, feedback);
+    }
+
+    /** $set of every field of a backfilled profile. */
+    private static Update replacement(UserProfile p) {
+        return new Update()
+                .set("themeWeights", p.getThemeWeights())
+                .set("priceTotals", p.getPriceTotals())
+                .set("priceWeights", p.getPriceWeights())
+                .set("recentItems", p.getRecentItems())
+                .set("likedIds", p.getLikedIds())
+                .set("dislikedIds", p.getDislikedIds())
+                .set("lastUpdated", p.getLastUpdated())
+                .set("backfilled", true);
+    }
+
+    /** Themes making up at least min-theme-share of the strongest one. */
+    public long themeMask(UserProfile p) {
+        if (p == null || p.getThemeWeights() == null || p.getThemeWeights().isEmpty()) return 0L;
+        double max = 0;
+        for (double w : p.getThemeWeights().values()) max = Math.max(max, w);
+        if (max <= 0) return 0L;
+        long mask = 0L;
+        for (Map.Entry<String, Double> e : p.getThemeWeights().entrySet()) {
+            int bit = themeIndex.themeBit(e.getKey());
+            if (bit >= 0 && e.getValue() >= max * minThemeShare) mask |= 1L << bit;
+        }
+        return mask;
+    }
+
+    /** Distinct recent "type:id" items, most recent first. */
+    public Set<String> recentKeys(UserProfile p) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (p == null || p.getRecentItems() == null) return keys;
+        List<String> items = p.getRecentItems();
+        for (int i = items.size() - 1; i >= 0; i--) keys.add(items.get(i));
+        return keys;
+    }
+
+    private UserProfile backfill(String userId, List<UserInteraction> interactions,
+            List<RecommendationFeedback> feedback) {
+        UserProfile p = new UserProfile(userId);
+        resolveUnknown(interactions);
+        // the window is newest first; recentItems is oldest first
+        for (int i = interactions.size() - 1; i >= 0; i--) {
+            UserInteraction ui = interactions.get(i);
+            if (ui.getEntityId() == null || !isItem(ui.getEntityType())) continue;
+            p.getRecentItems().add(ItemSimilarityService.key(ui.getEntityType(), ui.getEntityId()));
+            accumulate(p, ui);
+        }
+        List<String> recent = p.getRecentItems();
+        if (recent.size() > recentItems) p.setRecentItems(new ArrayList<>(recent.subList(recent.size() - recentItems, recent.size())));
+
+        feedback = new ArrayList<>(feedback);
+        feedback.sort(Comparator.comparing(RecommendationFeedback::getTimestamp,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        for (RecommendationFeedback fb : feedback) {
+            String id = fb.getRecommendedEntityId();
+            if (id == null) continue;
+            (fb.isLiked() ? p.getLikedIds() : p.getDislikedIds()).add(id);
+            (fb.isLiked() ? p.getDislikedIds() : p.getLikedIds()).remove(id);
+        }
+        p.setLastUpdated(new Date());
+        p.setBackfilled(true);
+        return p;
+    }
+
+    /** Indexes the flights and hotels of the interactions the theme index does not know yet: one $in per type. */
+    private void resolveUnknown(List<UserInteraction> interactions) {
+        Set<String> flights = new LinkedHashSet<>();
+        Set<String> hotels = new LinkedHashSet<>();
+        for (UserInteraction ui : interactions) {
+            if (ui == null || ui.getEntityId() == null || themeIndex.get(ui.getEntityId()) != null) continue;
+            if (ThemeIndex.FLIGHT.equals(ui.getEntityType())) flights.add(ui.getEntityId());
+            else if (ThemeIndex.HOTEL.equals(ui.getEntityType())) hotels.add(ui.getEntityId());
+        }
+        if (!flights.isEmpty()) flightRepository.findThemeFieldsByIdIn(flights).forEach(themeIndex::index);
+        if (!hotels.isEmpty()) hotelRepo.findThemeFieldsByIdIn(hotels).forEach(themeIndex::index);
+    }
+
+    /** Adds the decayed weight of the interaction to the entity's themes and to the price average. */
+    private void accumulate(UserProfile p, UserInteraction ui) {
+        double weight = weightOf(ui.getAction()) * scale(millisOf(ui.getTimestamp()));
+        if (weight <= 0) return;
+        ThemeIndex.Entry e = themeIndex.get(ui.getEntityId());
+        if (e == null || !e.type().equals(ui.getEntityType())) return;
+        for (String theme : themeIndex.themeNames(e.themes())) p.getThemeWeights().merge(theme, weight, Double::sum);
+        if (e.price() > 0) {
+            p.getPriceTotals().merge(e.type(), weight * e.price(), Double::sum);
+            p.getPriceWeights().merge(e.type(), weight, Double::sum);
+        }
+    }
+
+    /** Usual price the user pays for the type, or NaN if unknown. */
+    public double usualPrice(UserProfile p, String type) {
+        if (p == null || p.getPriceTotals() == null || p.getPriceWeights() == null) return Double.NaN;
+        Double total = p.getPriceTotals().get(type);
+        Double weight = p.getPriceWeights().get(type);
+        return total == null || weight == null || weight <= 0 ? Double.NaN : total / weight;
+    }
+
+    /** Theme weights by theme bit, as shares of the user's total weight (they sum to 1). */
+    public double[] themeShares(UserProfile p) {
+        double[] shares = new double[64];
+        if (p == null || p.getThemeWeights() == null) return shares;
+        double total = 0;
+        for (Map.Entry<String, Double> e : p.getThemeWeights().entrySet()) {
+            int bit = themeIndex.themeBit(e.getKey());
+            if (bit >= 0 && e.getValue() > 0) {
+                shares[bit] = e.getValue();
+                total += e.getValue();
+            }
+        }
+        if (total > 0) for (int i = 0; i < shares.length; i++) shares[i] /= total;
+        return shares;
+    }
+
+    private double scale(long atMillis) {
+        return Math.pow(2, (atMillis - LANDMARK) / (halfLifeDays * 86_400_000d));
+    }
+
+    private static double weightOf(String action) {
+        return switch (action == null ? "" : action) {
+            case "view" -> 1.0;
+            case "like" -> 3.0;
+            case "book" -> 5.0;
+            default -> 0.0;
+        };
+    }
+
+    private static boolean isItem(String type) {
+        return ThemeIndex.FLIGHT.equals(type) || ThemeIndex.HOTEL.equals(type);
+    }
+
+    private static Query byUser(String userId) {
+        return new Query(Criteria.where("_id").is(userId));
+    }
+
+    private static long millisOf(LocalDateTime t) {
+        return t == null ? System.currentTimeMillis() : t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,160 @@
+package com.makemytrip.makemytrip.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * AhoCorasick
+ *
+ * Compiled multi-keyword matcher. Every keyword carries a bit (0..63); match(text)
+ * returns the OR of the bits of all keywords occurring anywhere in the text, found in
+ * one pass regardless of how many keywords there are.
+ *
+ *  - matching is case-insensitive (keywords are lower-cased when compiled, text per char)
+ *  - the automaton is a full transition table over the keywords' alphabet, so a step is
+ *    one array read; characters outside the alphabet send it back to the root
+ *  - match() does not allocate and the instance is immutable, so it is safe to share
+ */
+public final class AhoCorasick {
+
+    private final int width;          // alphabet size + 1 (class 0 = "not in any keyword")
+    private final int[] delta;        // state * width + class -> next state
+    private final long[] out;         // state -> bits of every keyword ending here
+    private final byte[] asciiClass;  // both cases map to the same class
+    private final char[] otherChars;  // sorted non-ASCII alphabet, for binary search
+    private final int[] otherClass;
+
+    private AhoCorasick(int width, int[] delta, long[] out, byte[] asciiClass, char[] otherChars, int[] otherClass) {
+        this.width = width;
+        this.delta = delta;
+        this.out = out;
+        this.asciiClass = asciiClass;
+        this.otherChars = otherChars;
+        this.otherClass = otherClass;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** Bits of all keywords found in the text; 0 for null or no match. */
+    public long match(CharSequence text) {
+        if (text == null) return 0L;
+        int s = 0;
+        long found = 0L;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            s = delta[s * width + classOf(text.charAt(i))];
+            found |= out[s];
+        }
+        return found;
+    }
+
+    /** Number of automaton states (roughly the total length of the keywords). */
+    public int states() {
+        return out.length;
+    }
+
+    private int classOf(char c) {
+        if (c < 128) return asciiClass[c];
+        char lower = Character.toLowerCase(c);
+        if (lower < 128) return asciiClass[lower];
+        int i = Arrays.binarySearch(otherChars, lower);
+        return i >= 0 ? otherClass[i] : 0;
+    }
+
+    public static final class Builder {
+
+        private final Map<String, Long> keywords = new LinkedHashMap<>();
+
+        private Builder() {}
+
+        /** Adds a keyword reporting the given bit. A keyword may be added with several bits. */
+        public Builder add(String keyword, int bit) {
+            if (keyword == null || keyword.isEmpty()) throw new IllegalArgumentException("keyword must not be empty");
+            if (bit < 0 || bit > 63) throw new IllegalArgumentException("bit must be between 0 and 63");
+            keywords.merge(keyword.toLowerCase(Locale.ROOT), 1L << bit, (a, b) -> a | b);
+            return this;
+        }
+
+        public AhoCorasick build() {
+            // alphabet: every char used by a keyword gets a class, 0 is "anything else"
+            TreeSet<Character> alphabet = new TreeSet<>();
+            int maxStates = 1;
+            for (String k : keywords.keySet()) {
+                for (int i = 0; i < k.length(); i++) alphabet.add(k.charAt(i));
+                maxStates += k.length();
+            }
+            int width = alphabet.size() + 1;
+            byte[] asciiClass = new byte[128];
+            int asciiCount = 0;
+            for (char c : alphabet) if (c < 128) asciiCount++;
+            if (asciiCount > 127) throw new IllegalStateException("too many ASCII symbols");
+            char[] otherChars = new char[alphabet.size() - asciiCount];
+            int[] otherClass = new int[otherChars.length];
+            int[] classes = new int[Character.MAX_VALUE + 1];
+            int next = 1, o = 0;
+            for (char c : alphabet) {
+                classes[c] = next;
+                if (c < 128) {
+                    asciiClass[c] = (byte) next;
+                    char upper = Character.toUpperCase(c);
+                    if (upper < 128 && upper != c && !alphabet.contains(upper)) asciiClass[upper] = (byte) next;
+                } else {
+                    otherChars[o] = c;
+                    otherClass[o++] = next;
+                }
+                next++;
+            }
+
+            // trie
+            int[] delta = new int[maxStates * width];
+            Arrays.fill(delta, -1);
+            long[] out = new long[maxStates];
+            int states = 1;
+            for (Map.Entry<String, Long> e : keywords.entrySet()) {
+                String k = e.getKey();
+                int s = 0;
+                for (int i = 0; i < k.length(); i++) {
+                    int slot = s * width + classes[k.charAt(i)];
+                    if (delta[slot] < 0) delta[slot] = states++;
+                    s = delta[slot];
+                }
+                out[s] |= e.getValue();
+            }
+
+            // failure links, folded into the table breadth-first
+            int[] fail = new int[states];
+            ArrayDeque<Integer> queue = new ArrayDeque<>();
+            for (int c = 0; c < width; c++) {
+                if (delta[c] < 0) {
+                    delta[c] = 0;
+                } else {
+                    fail[delta[c]] = 0;
+                    queue.add(delta[c]);
+                }
+            }
+            while (!queue.isEmpty()) {
+                int s = queue.poll();
+                for (int c = 0; c < width; c++) {
+                    int slot = s * width + c;
+                    int viaFail = delta[fail[s] * width + c];
+                    if (delta[slot] < 0) {
+                        delta[slot] = viaFail;
+                    } else {
+                        int t = delta[slot];
+                        fail[t] = viaFail;
+                        out[t] |= out[viaFail];
+                        queue.add(t);
+                    }
+                }
+            }
+
+            return new AhoCorasick(width, Arrays.copyOf(delta, states * width), Arrays.copyOf(out, states),
+                    asciiClass, otherChars, otherClass);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.makemytrip.makemytrip.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for large numbers of expiring keys.
+ *
+ * A single worker thread advances one slot per tick and fires only the timeouts
+ * hashed into that slot, so the cost of a tick depends on what expires in it and
+ * not on how many timeouts are outstanding. schedule() and cancel() are O(1) and
+ * lock-free for callers: new timeouts go through a queue that the worker drains
+ * on its next tick, and cancelled ones are unlinked from their slot there too.
+ *
+ * Expiry callbacks run on the worker thread and must be short; exceptions are
+ * caught so one bad callback cannot stop the wheel.
+ */
+public class HashedTimingWheel<K> {
+
+    private static final int ST_PENDING = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_EXPIRED = 2;
+
+    public final class Timeout {
+        private final K key;
+        private final long deadlineMs;
+        private final AtomicInteger state = new AtomicInteger(ST_PENDING);
+        private long remainingRounds;
+        private Slot slot;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(K key, long deadlineMs) {
+            this.key = key;
+            this.deadlineMs = deadlineMs;
+        }
+
+        public K key() { return key; }
+        public long deadlineMs() { return deadlineMs; }
+
+        /** @return true if this call prevented the expiry callback from running */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_PENDING, ST_CANCELLED)) return false;
+            cancelled.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() { return state.get() == ST_CANCELLED; }
+    }
+
+    private final class Slot {
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout t) {
+            t.slot = this;
+            if (head == null) {
+                head = tail = t;
+            } else {
+                tail.next = t;
+                t.prev = tail;
+                tail = t;
+            }
+        }
+
+        void remove(Timeout t) {
+            if (t.prev != null) t.prev.next = t.next; else head = t.next;
+            if (t.next != null) t.next.prev = t.prev; else tail = t.prev;
+            t.prev = t.next = null;
+            t.slot = null;
+        }
+
+        void expire(long nowMs) {
+            Timeout t = head;
+            while (t != null) {
+                Timeout next = t.next;
+                if (t.remainingRounds <= 0 && t.deadlineMs <= nowMs) {
+                    remove(t);
+                    if (t.state.compareAndSet(ST_PENDING, ST_EXPIRED)) {
+                        size.decrementAndGet();
+                        try {
+                            onExpire.accept(t.key);
+                        } catch (Exception ex) {
+                            System.err.println("HashedTimingWheel: expiry callback failed: " + ex.getMessage());
+                        }
+                    }
+                } else if (t.remainingRounds > 0) {
+                    t.remainingRounds--;
+                }
+                t = next;
+            }
+        }
+    }
+
+    private final long tickMs;
+    private final Slot[] wheel;
+    private final int mask;
+    private final Consumer<K> onExpire;
+    private final Queue<Timeout> added = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Thread worker;
+    private final long startMs;
+    private long tick;
+    private volatile boolean running = true;
+
+    /**
+     * @param tickMs    resolution of the wheel; timeouts fire up to one tick late
+     * @param slots     number of slots, rounded up to a power of two
+     * @param onExpire  called with the key of each timeout that expires
+     */
+    public HashedTimingWheel(String name, long tickMs, int slots, Consumer<K> onExpire) {
+        if (tickMs <= 0) throw new IllegalArgumentException("tickMs must be > 0");
+        int n = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        this.tickMs = tickMs;
+        this.wheel = newWheel(n);
+        this.mask = n - 1;
+        this.onExpire = onExpire;
+        this.startMs = System.currentTimeMillis();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Slot[] newWheel(int n) {
+        Slot[] slots = new HashedTimingWheel.Slot[n];
+        for (int i = 0; i < n; i++) {
+            slots[i] = new Slot();
+        }
+        return slots;
+    }
+
+    public Timeout schedule(K key, long delay, TimeUnit unit) {
+        return scheduleAt(key, System.currentTimeMillis() + unit.toMillis(Math.max(0, delay)));
+    }
+
+    public Timeout scheduleAt(K key, long deadlineMs) {
+        Timeout t = new Timeout(key, deadlineMs);
+        size.incrementAndGet();
+        added.add(t);
+        return t;
+    }
+
+    /** Outstanding (not yet expired or cancelled) timeouts. */
+    public int size() {
+        return size.get();
+    }
+
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long nextTickAt = startMs + (tick + 1) * tickMs;
+            long sleep = nextTickAt - System.currentTimeMillis();
+            if (sleep > 0) {
+                try {
+                    Thread.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (!running) return;
+                }
+            }
+            tick++;
+            removeCancelled();
+            transferAdded();
+            wheel[(int) (tick & mask)].expire(System.currentTimeMillis());
+        }
+    }
+
+    private void transferAdded() {
+        for (Timeout t; (t = added.poll()) != null; ) {
+            if (t.state.get() != ST_PENDING) continue;
+            long ticksAway = Math.max(tick, (t.deadlineMs - startMs + tickMs - 1) / tickMs);
+            t.remainingRounds = (ticksAway - tick) / wheel.length;
+            wheel[(int) (ticksAway & mask)].add(t);
+        }
+    }
+
+    private void removeCancelled() {
+        for (Timeout t; (t = cancelled.poll()) != null; ) {
+            size.decrementAndGet();
+            if (t.slot != null) {
+                t.slot.remove(t);
+            }
+        }
+    }
+}
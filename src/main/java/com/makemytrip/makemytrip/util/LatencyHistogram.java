@@ -0,0 +1,68 @@
+package com.makemytrip.makemytrip.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram
+ *
+ * Lock-free latency recorder for a hot code path. Samples go into power-of-two
+ * microsecond buckets, so percentiles are upper bounds accurate to within 2x, which is
+ * plenty to see a stage get faster or slower. record() is a few atomic adds.
+ */
+public final class LatencyHistogram {
+
+    private static final int BUCKETS = 40; // 2^39 us is about 6 days
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        long micros = nanos / 1000;
+        int b = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        buckets.incrementAndGet(b);
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    /** Records the time elapsed since startNanos (a System.nanoTime() reading). */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public Map<String, Object> stats() {
+        long[] counts = new long[BUCKETS];
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets.get(i);
+            n += counts[i];
+        }
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("count", n);
+        out.put("meanMs", n == 0 ? 0.0 : totalNanos.sum() / 1e6 / count.sum());
+        out.put("p50Ms", percentileMs(counts, n, 0.50));
+        out.put("p95Ms", percentileMs(counts, n, 0.95));
+        out.put("p99Ms", percentileMs(counts, n, 0.99));
+        out.put("maxMs", maxNanos.get() / 1e6);
+        return out;
+    }
+
+    private static double percentileMs(long[] counts, long n, double p) {
+        if (n == 0) return 0.0;
+        long rank = (long) Math.ceil(p * n);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            // bucket i holds samples below 2^i microseconds
+            if (seen >= rank) return (1L << i) / 1000.0;
+        }
+        return (1L << (counts.length - 1)) / 1000.0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.makemytrip.makemytrip.util;
+
+import java.util.Arrays;
+
+/**
+ * LongFloatHashMap
+ *
+ * Open-addressing long -> float accumulator on two primitive arrays, for counting
+ * millions of pairs without boxing. Keys must be non-negative (-1 marks an empty slot).
+ * Not thread-safe.
+ */
+public final class LongFloatHashMap {
+
+    private static final long EMPTY = -1L;
+    private static final double MAX_LOAD = 0.6;
+
+    private long[] keys;
+    private float[] values;
+    private int size;
+    private int mask;
+
+    public LongFloatHashMap(int expected) {
+        int cap = Integer.highestOneBit(Math.max(16, (int) (expected / MAX_LOAD)) - 1) << 1;
+        keys = new long[cap];
+        values = new float[cap];
+        Arrays.fill(keys, EMPTY);
+        mask = cap - 1;
+    }
+
+    /** Adds delta to the value of key (starting from 0). */
+    public void add(long key, float delta) {
+        if (key < 0) throw new IllegalArgumentException("keys must be non-negative");
+        int i = slot(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                values[i] += delta;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = delta;
+        if (++size > keys.length * MAX_LOAD) grow();
+    }
+
+    public float get(long key) {
+        int i = slot(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) return values[i];
+            i = (i + 1) & mask;
+        }
+        return 0f;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Calls the visitor for every entry, in no particular order. */
+    public void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) visitor.visit(keys[i], values[i]);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long key, float value);
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        float[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new float[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+        mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] == EMPTY) continue;
+            int i = slot(oldKeys[j]);
+            while (keys[i] != EMPTY) i = (i + 1) & mask;
+            keys[i] = oldKeys[j];
+            values[i] = oldValues[j];
+        }
+    }
+}
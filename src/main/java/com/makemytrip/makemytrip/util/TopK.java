@@ -0,0 +1,69 @@
+package com.makemytrip.makemytrip.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * TopK
+ *
+ * The k highest scored items of a stream, kept in a min-heap of size k: offer() is
+ * O(log k) and memory stays O(k) however many candidates are scored. Equal scores keep
+ * the item offered first. Not thread-safe.
+ */
+public final class TopK<T> {
+
+    public record Scored<T>(T item, double score) {}
+
+    private record Slot<T>(T item, double score, long seq) {}
+
+    private final int k;
+    private final PriorityQueue<Slot<T>> heap;
+    private long seq;
+
+    public TopK(int k) {
+        this.k = Math.max(0, k);
+        // worst on top: lowest score, and among equal scores the latest offered
+        this.heap = new PriorityQueue<>(Math.max(1, this.k), (a, b) -> {
+            int c = Double.compare(a.score, b.score);
+            return c != 0 ? c : Long.compare(b.seq, a.seq);
+        });
+    }
+
+    /** Keeps the item if it is among the k best so far. */
+    public boolean offer(T item, double score) {
+        if (k == 0) return false;
+        if (heap.size() < k) {
+            heap.add(new Slot<>(item, score, seq++));
+            return true;
+        }
+        Slot<T> worst = heap.peek();
+        if (score <= worst.score) {
+            seq++;
+            return false;
+        }
+        heap.poll();
+        heap.add(new Slot<>(item, score, seq++));
+        return true;
+    }
+
+    /** Lowest score that still gets in, or negative infinity while there is room. */
+    public double threshold() {
+        return heap.size() < k ? Double.NEGATIVE_INFINITY : heap.peek().score;
+    }
+
+    public int size() {
+        return heap.size();
+    }
+
+    /** The kept items, best first. */
+    public List<Scored<T>> ranked() {
+        List<Slot<T>> slots = new ArrayList<>(heap);
+        slots.sort(heap.comparator());
+        Collections.reverse(slots);
+        List<Scored<T>> out = new ArrayList<>(slots.size());
+        for (Slot<T> s : slots) out.add(new Scored<>(s.item, s.score));
+        return out;
+    }
+}
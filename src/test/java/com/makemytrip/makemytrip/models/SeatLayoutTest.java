@@ -0,0 +1,89 @@
+package com.makemytrip.makemytrip.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatLayoutTest {
+
+	private static Seat seat(String row, String col, String category) {
+		Seat s = new Seat();
+		s.setRow(row);
+		s.setCol(col);
+		s.setCategory(category);
+		return s;
+	}
+
+	@Test
+	void everyLabelOfTheDefaultLayoutIsFound() {
+		SeatLayout layout = SeatLayout.DEFAULT;
+		assertEquals(120, layout.size());
+		for (int i = 0; i < layout.size(); i++) {
+			String label = layout.label(i);
+			assertEquals(i, layout.indexOf(label), label);
+			// the same label inside a seat id, without cutting it out
+			assertEquals(i, layout.indexOf("FL-204-" + label, "FL-204-".length()), label);
+		}
+	}
+
+	@Test
+	void unknownLabelsAreNotFound() {
+		SeatLayout layout = SeatLayout.DEFAULT;
+		for (String label : List.of("", "0A", "1G", "21A", "1", "A1", "1AA", "12c")) {
+			assertEquals(-1, layout.indexOf(label), label);
+		}
+		assertEquals(-1, layout.indexOf("F1-1A", 2)); // "-1A"
+	}
+
+	@Test
+	void seatsAreInDisplayOrderWithUniqueLabels() {
+		List<Seat> seats = new ArrayList<>();
+		seats.add(seat("2", "B", "ECONOMY"));
+		seats.add(seat("1", "A", "ECONOMY"));
+		seats.add(seat("2", "A", "ECONOMY"));
+		seats.add(seat("1", "A", "BUSINESS")); // same label: the later one wins
+		SeatLayout layout = SeatLayout.of("custom", seats);
+
+		assertEquals(3, layout.size());
+		assertEquals(List.of("1A", "2A", "2B"), List.of(layout.label(0), layout.label(1), layout.label(2)));
+		assertEquals("BUSINESS", layout.seat(0, "X-1A", "X", false, null).getCategory());
+	}
+
+	@Test
+	void withReturnsTheSameLayoutForAnUnchangedSeat() {
+		SeatLayout layout = SeatLayout.DEFAULT;
+		Seat same = layout.seat(layout.indexOf("7C"), "F1-7C", "F1", true, "u1");
+		assertSame(layout, layout.with("other", same));
+
+		Seat changed = layout.seat(layout.indexOf("7C"), "F1-7C", "F1", false, null);
+		changed.setNotes("extra legroom");
+		SeatLayout edited = layout.with("flight:F1", changed);
+		assertNotSame(layout, edited);
+		assertEquals("flight:F1", edited.getName());
+		assertEquals(layout.size(), edited.size());
+		assertEquals("extra legroom", edited.seat(edited.indexOf("7C"), null, null, false, null).getNotes());
+		assertNull(layout.seat(layout.indexOf("7C"), null, null, false, null).getNotes());
+
+		SeatLayout grown = layout.with("flight:F1", seat("21", "A", "ECONOMY"));
+		assertEquals(layout.size() + 1, grown.size());
+		assertTrue(grown.indexOf("21A") >= 0);
+	}
+
+	@Test
+	void defaultCabinClasses() {
+		SeatLayout layout = SeatLayout.DEFAULT;
+		Seat business = layout.seat(layout.indexOf("1A"), null, null, false, null);
+		Seat premium = layout.seat(layout.indexOf("5C"), null, null, false, null);
+		Seat economy = layout.seat(layout.indexOf("6D"), null, null, false, null);
+		assertEquals("BUSINESS", business.getCategory());
+		assertTrue(business.isWindow());
+		assertEquals("PREMIUM", premium.getCategory());
+		assertTrue(premium.isAisle());
+		assertEquals("ECONOMY", economy.getCategory());
+		assertFalse(economy.isPremium());
+		assertSame(SeatLayout.DEFAULT, SeatLayout.named(SeatLayout.DEFAULT.getName()));
+	}
+}
@@ -0,0 +1,86 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.FlightDemand;
+import com.makemytrip.makemytrip.repositories.BookingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Events arriving while rebuild() aggregates are replayed by when they were written. */
+class FlightDemandTrackerRebuildTest {
+
+	private static final long HOUR_MS = 3_600_000L;
+
+	/** A tracker whose aggregation returns the snapshot and runs duringRead as if the read were slow. */
+	private static FlightDemandTracker tracker(List<FlightDemand> snapshot, Runnable[] duringRead) {
+		BookingRepository repo = (BookingRepository) Proxy.newProxyInstance(
+				BookingRepository.class.getClassLoader(), new Class<?>[]{BookingRepository.class},
+				(self, method, args) -> {
+					if (!method.getName().equals("countBookingsByHour")) throw new UnsupportedOperationException(method.getName());
+					duringRead[0].run();
+					return snapshot;
+				});
+		FlightDemandTracker t = new FlightDemandTracker();
+		ReflectionTestUtils.setField(t, "bookingRepository", repo);
+		return t;
+	}
+
+	private static long hourOf(LocalDateTime t) {
+		return t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() / HOUR_MS;
+	}
+
+	@Test
+	void aCancellationWrittenDuringTheReadIsReplayedForAnOlderBooking() {
+		LocalDateTime booked = LocalDateTime.now().minusHours(2);
+		Runnable[] during = new Runnable[1];
+		FlightDemandTracker t = tracker(List.of(new FlightDemand("F1", hourOf(booked), 1)), during);
+		during[0] = () -> t.recordCancellation("F1", booked, LocalDateTime.now().plusSeconds(1));
+		t.rebuild();
+		assertEquals(0, t.demand("F1"));
+	}
+
+	@Test
+	void aBookingAlreadyInTheSnapshotIsNotCountedTwice() {
+		LocalDateTime booked = LocalDateTime.now().minusMinutes(5);
+		Runnable[] during = new Runnable[1];
+		FlightDemandTracker t = tracker(List.of(new FlightDemand("F1", hourOf(booked), 1)), during);
+		during[0] = () -> t.recordBooking("F1", booked); // stamped before the cut-off
+		t.rebuild();
+		assertEquals(1, t.demand("F1"));
+	}
+
+	@Test
+	void aBookingWrittenAfterTheCutOffIsReplayed() {
+		Runnable[] during = new Runnable[1];
+		FlightDemandTracker t = tracker(List.of(), during);
+		during[0] = () -> t.recordBooking("F1", LocalDateTime.now().plusSeconds(1));
+		t.rebuild();
+		assertEquals(1, t.demand("F1"));
+	}
+
+	@Test
+	void trackedWritesFinishBeforeTheCutOffIsTaken() throws Exception {
+		Runnable[] during = {() -> {}};
+		FlightDemandTracker t = tracker(List.of(), during);
+		Thread rebuild = new Thread(t::rebuild);
+		t.tracked(() -> {
+			rebuild.start();
+			try {
+				rebuild.join(200);
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			assertTrue(rebuild.isAlive(), "rebuild must wait for the write in flight");
+			return null;
+		});
+		rebuild.join(5_000);
+		assertFalse(rebuild.isAlive());
+		assertTrue(t.isReady());
+	}
+}
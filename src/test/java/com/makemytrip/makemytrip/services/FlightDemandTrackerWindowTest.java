@@ -0,0 +1,78 @@
+package com.makemytrip.makemytrip.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightDemandTrackerWindowTest {
+
+	private static final int HOURS = FlightDemandTracker.WINDOW_HOURS;
+
+	@Test
+	void countsBookingsInsideTheWindowOnly() {
+		long now = 1_000_000L;
+		FlightDemandTracker.Window w = new FlightDemandTracker.Window(now);
+		w.add(now, 1);
+		w.add(now - 10, 2);
+		w.add(now - HOURS + 1, 1); // oldest hour still in the window
+		w.add(now - HOURS, 5);     // just outside
+		assertEquals(4, w.total());
+	}
+
+	@Test
+	void rollingExpiresOldHours() {
+		long now = 1_000_000L;
+		FlightDemandTracker.Window w = new FlightDemandTracker.Window(now);
+		w.add(now - HOURS + 1, 3);
+		w.add(now, 2);
+		w.roll(now + 1);
+		assertEquals(2, w.total());
+		w.roll(now + HOURS);
+		assertEquals(0, w.total());
+		w.roll(now + 10 * HOURS); // far ahead: one pass over the ring
+		assertEquals(0, w.total());
+	}
+
+	@Test
+	void aLaterBookingRollsTheWindow() {
+		long now = 1_000_000L;
+		FlightDemandTracker.Window w = new FlightDemandTracker.Window(now);
+		w.add(now - HOURS + 1, 3);
+		w.add(now + 1, 1);
+		assertEquals(1, w.total());
+	}
+
+	@Test
+	void cancellationsNeverGoBelowZero() {
+		long now = 1_000_000L;
+		FlightDemandTracker.Window w = new FlightDemandTracker.Window(now);
+		w.add(now, 1);
+		w.add(now, -3);
+		assertEquals(0, w.total());
+		w.add(now, 1);
+		assertEquals(1, w.total());
+	}
+
+	@Test
+	void reportsTierChangesOnly() {
+		long now = 1_000_000L;
+		FlightDemandTracker.Window w = new FlightDemandTracker.Window(now);
+		for (int i = 0; i < 4; i++) assertFalse(w.add(now, 1));
+		assertTrue(w.add(now, 1));   // 5: tier 1
+		assertFalse(w.add(now, 1));
+		assertTrue(w.add(now, -2));  // 4: back to tier 0
+		assertFalse(w.roll(now));
+		assertTrue(w.add(now, 2));   // 6: tier 1
+		assertTrue(w.roll(now + HOURS)); // all expired: tier 0
+	}
+
+	@Test
+	void tierBoundaries() {
+		assertEquals(0, FlightDemandTracker.tierOf(4));
+		assertEquals(1, FlightDemandTracker.tierOf(5));
+		assertEquals(1, FlightDemandTracker.tierOf(9));
+		assertEquals(2, FlightDemandTracker.tierOf(10));
+		assertEquals(2, FlightDemandTracker.tierOf(19));
+		assertEquals(3, FlightDemandTracker.tierOf(20));
+	}
+}
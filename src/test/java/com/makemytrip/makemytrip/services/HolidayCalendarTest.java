@@ -0,0 +1,130 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.PricingCalendar;
+import com.makemytrip.makemytrip.models.PricingCalendar.Rule;
+import com.makemytrip.makemytrip.repositories.PricingCalendarRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Rule compilation into the day table and the direct fallback outside it. */
+class HolidayCalendarTest {
+
+	private static final int YEAR = LocalDate.now().getYear();
+
+	private final List<PricingCalendar> saved = new ArrayList<>();
+
+	private HolidayCalendar calendar() {
+		PricingCalendarRepository repo = (PricingCalendarRepository) Proxy.newProxyInstance(
+				PricingCalendarRepository.class.getClassLoader(), new Class<?>[]{PricingCalendarRepository.class},
+				(self, method, args) -> switch (method.getName()) {
+					case "save" -> {
+						saved.add((PricingCalendar) args[0]);
+						yield args[0];
+					}
+					case "findById" -> saved.isEmpty() ? Optional.empty() : Optional.of(saved.get(saved.size() - 1));
+					default -> throw new UnsupportedOperationException(method.getName());
+				});
+		HolidayCalendar c = new HolidayCalendar();
+		ReflectionTestUtils.setField(c, "calendarRepository", repo);
+		ReflectionTestUtils.setField(c, "defaultHolidays", List.of("01-26", " 08-15 ", ""));
+		ReflectionTestUtils.setField(c, "defaultSurchargePct", 20.0);
+		ReflectionTestUtils.setField(c, "yearsAhead", 1);
+		c.init();
+		return c;
+	}
+
+	private static int bp(HolidayCalendar.Snapshot s, int year, int month, int day) {
+		return s.surchargeBp((int) LocalDate.of(year, month, day).toEpochDay());
+	}
+
+	@Test
+	void defaultsApplyEveryYear() {
+		HolidayCalendar.Snapshot s = calendar().snapshot();
+		assertEquals(2_000, bp(s, YEAR, 8, 15));
+		assertEquals(2_000, bp(s, YEAR + 1, 1, 26));
+		assertEquals(0, bp(s, YEAR, 8, 16));
+	}
+
+	@Test
+	void tableSpansLastYearThroughTheYearsAhead() {
+		HolidayCalendar.Snapshot s = calendar().snapshot();
+		assertEquals(LocalDate.of(YEAR - 1, 1, 1), s.firstDay());
+		assertEquals(LocalDate.of(YEAR + 1, 12, 31), s.lastDay());
+	}
+
+	@Test
+	void yearlyRangeWrapsOverNewYear() {
+		HolidayCalendar.Snapshot s = calendar().compile(List.of(new Rule("winter", "12-20", "01-05", 15)));
+		assertEquals(1_500, bp(s, YEAR, 12, 20));
+		assertEquals(1_500, bp(s, YEAR, 12, 31));
+		assertEquals(1_500, bp(s, YEAR + 1, 1, 1));
+		assertEquals(1_500, bp(s, YEAR + 1, 1, 5));
+		assertEquals(0, bp(s, YEAR + 1, 1, 6));
+		assertEquals(0, bp(s, YEAR, 12, 19));
+		assertEquals(0, bp(s, YEAR, 6, 1));
+	}
+
+	@Test
+	void daysOutsideTheTableAreEvaluatedAgainstTheRules() {
+		HolidayCalendar.Snapshot s = calendar().compile(List.of(
+				new Rule("winter", "12-20", "01-05", 15),
+				new Rule("once", (YEAR + 10) + "-07-01", (YEAR + 10) + "-07-03", 40)));
+		assertEquals(1_500, bp(s, YEAR + 10, 1, 2));
+		assertEquals(4_000, bp(s, YEAR + 10, 7, 3));
+		assertEquals(0, bp(s, YEAR + 11, 7, 3));
+		assertEquals(1_500, bp(s, YEAR - 5, 12, 25));
+	}
+
+	@Test
+	void overlappingRulesTakeTheHighestSurcharge() {
+		HolidayCalendar.Snapshot s = calendar().compile(List.of(
+				new Rule("season", "12-01", "12-31", 10),
+				new Rule("xmas", "12-25", null, 25),
+				new Rule("sale", YEAR + "-12-24", YEAR + "-12-26", 5)));
+		assertEquals(1_000, bp(s, YEAR, 12, 24));
+		assertEquals(2_500, bp(s, YEAR, 12, 25));
+		assertEquals(1_000, bp(s, YEAR, 12, 26));
+	}
+
+	@Test
+	void invalidRulesAreRejectedAndNotStored() {
+		HolidayCalendar c = calendar();
+		HolidayCalendar.Snapshot before = c.snapshot();
+		assertThrows(IllegalArgumentException.class, () -> c.replace(List.of(new Rule("x", "13-01", null, 10))));
+		assertThrows(IllegalArgumentException.class, () -> c.replace(List.of(new Rule("x", "12-20", YEAR + "-01-05", 10))));
+		assertThrows(IllegalArgumentException.class, () -> c.replace(List.of(new Rule("x", YEAR + "-05-02", YEAR + "-05-01", 10))));
+		assertThrows(IllegalArgumentException.class, () -> c.replace(List.of(new Rule("x", "05-01", null, 150))));
+		assertThrows(IllegalArgumentException.class, () -> c.replace(List.of(new Rule("x", " ", null, 10))));
+		assertTrue(saved.isEmpty());
+		assertSame(before, c.snapshot());
+	}
+
+	@Test
+	void replaceStoresAndActivatesAndReloadPicksTheStoredRulesUp() {
+		HolidayCalendar c = calendar();
+		c.replace(List.of(new Rule("diwali", "11-08", null, 30)));
+		assertEquals(1, saved.size());
+		assertEquals(3_000, bp(c.snapshot(), YEAR, 11, 8));
+		assertEquals(0, bp(c.snapshot(), YEAR, 8, 15));
+
+		HolidayCalendar restarted = calendar();
+		assertEquals(3_000, bp(restarted.reload(), YEAR, 11, 8));
+	}
+
+	@Test
+	void epochDayOfReadsTheLeadingDate() {
+		int day = (int) LocalDate.of(2026, 12, 24).toEpochDay();
+		assertEquals(day, HolidayCalendar.epochDayOf("2026-12-24"));
+		assertEquals(day, HolidayCalendar.epochDayOf("2026-12-24T08:00"));
+		assertEquals(HolidayCalendar.NO_DAY, HolidayCalendar.epochDayOf("24/12/2026"));
+		assertEquals(HolidayCalendar.NO_DAY, HolidayCalendar.epochDayOf(null));
+	}
+}
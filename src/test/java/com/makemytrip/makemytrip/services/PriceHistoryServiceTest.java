@@ -0,0 +1,217 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.PriceHistory;
+import com.makemytrip.makemytrip.models.PriceHistoryBucket;
+import com.makemytrip.makemytrip.models.PricePoint;
+import com.makemytrip.makemytrip.repositories.PriceHistoryBucketRepository;
+import com.makemytrip.makemytrip.repositories.PriceHistoryRepository;
+import com.makemytrip.makemytrip.services.PriceHistoryService.Resolution;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Bucket and legacy reads folded by the downsampler. */
+class PriceHistoryServiceTest {
+
+	private static final long HOUR_MS = 3_600_000L;
+	private static final long DAY_MS = 24 * HOUR_MS;
+	private static final long DAY1 = Instant.parse("2026-03-01T00:00:00Z").toEpochMilli();
+	private static final long DAY2 = DAY1 + DAY_MS;
+	private static final long DAY3 = DAY2 + DAY_MS;
+
+	private final Map<String, PriceHistoryBucket> buckets = new TreeMap<>();
+	private final List<PriceHistory> legacy = new ArrayList<>();
+	private final List<String> calls = new ArrayList<>();
+
+	@SuppressWarnings("unchecked")
+	private static <R> R repository(Class<R> type, Map<String, Function<Object[], Object>> methods) {
+		return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (self, method, args) -> {
+			Function<Object[], Object> fn = methods.get(method.getName());
+			if (fn == null) throw new UnsupportedOperationException(method.getName());
+			return fn.apply(args);
+		});
+	}
+
+	private PriceHistoryService service() {
+		PriceHistoryBucketRepository bucketRepo = repository(PriceHistoryBucketRepository.class, Map.of(
+				"findByIdRange", args -> {
+					calls.add("range");
+					return range((String) args[0], (String) args[1], false);
+				},
+				"findSummariesByIdRange", args -> {
+					calls.add("summaries");
+					return range((String) args[0], (String) args[1], true);
+				},
+				"findById", args -> {
+					calls.add("findById " + args[0]);
+					return Optional.ofNullable(buckets.get((String) args[0]));
+				}));
+		PriceHistoryRepository legacyRepo = repository(PriceHistoryRepository.class, Map.of(
+				"findInRange", args -> {
+					long from = ((Date) args[2]).getTime();
+					long to = ((Date) args[3]).getTime();
+					return legacy.stream()
+							.filter(h -> h.getTimestamp().getTime() >= from && h.getTimestamp().getTime() <= to)
+							.sorted(Comparator.comparing(PriceHistory::getTimestamp))
+							.toList();
+				}));
+		PriceHistoryService s = new PriceHistoryService();
+		ReflectionTestUtils.setField(s, "bucketRepository", bucketRepo);
+		ReflectionTestUtils.setField(s, "legacyRepository", legacyRepo);
+		return s;
+	}
+
+	private List<PriceHistoryBucket> range(String fromId, String toId, boolean summaries) {
+		List<PriceHistoryBucket> out = new ArrayList<>();
+		for (PriceHistoryBucket b : buckets.values()) {
+			if (b.getId().compareTo(fromId) < 0 || b.getId().compareTo(toId) > 0) continue;
+			if (!summaries) {
+				out.add(b);
+				continue;
+			}
+			PriceHistoryBucket s = new PriceHistoryBucket();
+			s.setId(b.getId());
+			s.setDay(b.getDay());
+			s.setCount(b.getCount());
+			s.setMinPrice(b.getMinPrice());
+			s.setMaxPrice(b.getMaxPrice());
+			s.setLastPrice(b.getLastPrice());
+			out.add(s);
+		}
+		return out;
+	}
+
+	/** Appends a change the way recordAll's upsert does. */
+	private void bucket(long t, double price) {
+		long day = t - Math.floorMod(t, DAY_MS);
+		PriceHistoryBucket b = buckets.computeIfAbsent(PriceHistoryService.bucketId("FLIGHT", "F1", day), id -> {
+			PriceHistoryBucket n = new PriceHistoryBucket();
+			n.setId(id);
+			n.setDay(new Date(day));
+			n.setMinPrice(price);
+			n.setMaxPrice(price);
+			return n;
+		});
+		b.getTs().add(t);
+		b.getPrices().add(price);
+		b.getReasons().add("r" + price);
+		b.setCount(b.getCount() + 1);
+		b.setMinPrice(Math.min(b.getMinPrice(), price));
+		b.setMaxPrice(Math.max(b.getMaxPrice(), price));
+		b.setLastPrice(price);
+	}
+
+	private void legacy(long t, double price) {
+		legacy.add(new PriceHistory("FLIGHT", "F1", price, new Date(t), "legacy"));
+	}
+
+	private List<PricePoint> query(long from, long to, Resolution resolution, int limit) {
+		return service().query("FLIGHT", "F1", new Date(from), new Date(to), resolution, limit);
+	}
+
+	@Test
+	void bucketIdsSortByDay() {
+		assertEquals("FLIGHT:F1:2026-03-01", PriceHistoryService.bucketId("FLIGHT", "F1", DAY1));
+		assertTrue(PriceHistoryService.bucketId("FLIGHT", "F1", DAY1)
+				.compareTo(PriceHistoryService.bucketId("FLIGHT", "F1", DAY2)) < 0);
+	}
+
+	@Test
+	void rawReturnsEveryChangeInRangeUpToTheLimit() {
+		bucket(DAY1 + 10, 100);
+		bucket(DAY1 + 20, 110);
+		bucket(DAY1 + 30, 120);
+		bucket(DAY1 + 40, 130);
+
+		List<PricePoint> points = query(DAY1 + 15, DAY2, Resolution.RAW, 2);
+
+		assertEquals(2, points.size());
+		assertEquals(110, points.get(0).getPrice());
+		assertEquals("r110.0", points.get(0).getReason());
+		assertEquals(120, points.get(1).getPrice());
+	}
+
+	@Test
+	void hourFoldsChangesIntoLastMinMaxAndCount() {
+		bucket(DAY1 + 60_000, 100);
+		bucket(DAY1 + 120_000, 80);
+		bucket(DAY1 + 180_000, 90);
+		bucket(DAY1 + HOUR_MS + 1, 95);
+
+		List<PricePoint> points = query(DAY1, DAY2 - 1, Resolution.HOUR, 10);
+
+		assertEquals(2, points.size());
+		PricePoint first = points.get(0);
+		assertEquals(DAY1, first.getTimestamp().getTime());
+		assertEquals(90, first.getPrice());
+		assertEquals(80, first.getMin());
+		assertEquals(100, first.getMax());
+		assertEquals(3, first.getChanges());
+		assertEquals(DAY1 + HOUR_MS, points.get(1).getTimestamp().getTime());
+		assertEquals(1, points.get(1).getChanges());
+	}
+
+	@Test
+	void legacyRowsFillOnlyTheDaysWithoutABucketInTimeOrder() {
+		legacy(DAY1 + 5, 50);         // no bucket for day 1
+		bucket(DAY2 + 5, 60);
+		legacy(DAY2 + 6, 999);        // day 2 has a bucket: the legacy row is ignored
+		legacy(DAY3 + 5, 70);         // no bucket for day 3
+
+		List<PricePoint> points = query(DAY1, DAY3 + DAY_MS - 1, Resolution.RAW, 10);
+
+		assertEquals(List.of(50.0, 60.0, 70.0), points.stream().map(PricePoint::getPrice).toList());
+	}
+
+	@Test
+	void dayReadsWholeDaysFromSummariesAndLoadsOnlyTheEdgeDays() {
+		bucket(DAY1 + 10 * HOUR_MS, 100);
+		bucket(DAY1 + 20 * HOUR_MS, 120);
+		bucket(DAY2 + HOUR_MS, 90);
+		bucket(DAY2 + 2 * HOUR_MS, 130);
+		bucket(DAY3 + HOUR_MS, 140);
+		bucket(DAY3 + 23 * HOUR_MS, 150); // past the end of the range
+
+		List<PricePoint> points = query(DAY1 + 12 * HOUR_MS, DAY3 + 12 * HOUR_MS, Resolution.DAY, 10);
+
+		assertEquals(3, points.size());
+		assertEquals(120, points.get(0).getPrice());
+		assertEquals(1, points.get(0).getChanges(), "only the in-range change of the first day");
+		PricePoint whole = points.get(1);
+		assertEquals(DAY2, whole.getTimestamp().getTime());
+		assertEquals(130, whole.getPrice());
+		assertEquals(90, whole.getMin());
+		assertEquals(2, whole.getChanges());
+		assertEquals(140, points.get(2).getPrice());
+		assertEquals(1, points.get(2).getChanges());
+		assertEquals(List.of("summaries",
+				"findById " + PriceHistoryService.bucketId("FLIGHT", "F1", DAY1),
+				"findById " + PriceHistoryService.bucketId("FLIGHT", "F1", DAY3)), calls);
+	}
+
+	@Test
+	void readingStopsOnceTheLimitIsReached() {
+		bucket(DAY1 + 10, 100);
+		bucket(DAY1 + HOUR_MS, 110);
+		bucket(DAY1 + 2 * HOUR_MS, 120);
+		legacy(DAY2 + 10, 130);
+
+		List<PricePoint> points = query(DAY1, DAY2 + DAY_MS - 1, Resolution.HOUR, 2);
+
+		assertEquals(List.of(100.0, 110.0), points.stream().map(PricePoint::getPrice).toList());
+	}
+
+	@Test
+	void autoResolutionFollowsTheSpan() {
+		assertEquals(Resolution.RAW, Resolution.parse(null, DAY_MS));
+		assertEquals(Resolution.HOUR, Resolution.parse("auto", 7 * DAY_MS));
+		assertEquals(Resolution.DAY, Resolution.parse("", 90 * DAY_MS));
+		assertEquals(Resolution.HOUR, Resolution.parse(" hour ", 90 * DAY_MS));
+	}
+}
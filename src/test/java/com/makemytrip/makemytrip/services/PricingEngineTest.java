@@ -0,0 +1,111 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.PricingCalendar;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Integer repricing over PriceTable columns. */
+class PricingEngineTest {
+
+	private static final int TODAY = (int) LocalDate.of(2026, 6, 10).toEpochDay();
+	private static final int CHRISTMAS = (int) LocalDate.of(2026, 12, 25).toEpochDay();
+
+	private static HolidayCalendar.Snapshot calendar(PricingCalendar.Rule... rules) {
+		HolidayCalendar c = new HolidayCalendar();
+		ReflectionTestUtils.setField(c, "yearsAhead", 1);
+		return c.compile(List.of(rules));
+	}
+
+	@Test
+	void demandSurchargeSteps() {
+		assertEquals(0, PricingEngine.demandSurchargeBp(4));
+		assertEquals(1_000, PricingEngine.demandSurchargeBp(5));
+		assertEquals(2_000, PricingEngine.demandSurchargeBp(10));
+		assertEquals(2_000, PricingEngine.demandSurchargeBp(19));
+		assertEquals(3_000, PricingEngine.demandSurchargeBp(20));
+	}
+
+	@Test
+	void priceRoundsHalfUpOnceAndIsCappedAtOneAndAHalf() {
+		assertEquals(11, PricingEngine.priceCents(10, 5, 0));          // 10 * 1.1
+		assertEquals(2, PricingEngine.priceCents(1, 0, 5_000));        // 1.5 rounds up
+		assertEquals(15_000, PricingEngine.priceCents(10_000, 20, 4_000)); // 1.7x capped
+		assertEquals(1_250, PricingEngine.toCents(12.5));
+		assertEquals(1234.57, PricingEngine.toAmount(123_457));
+	}
+
+	@Test
+	void repriceWritesOnlyRowsThatMoveByMoreThanACent() {
+		PriceTable t = new PriceTable("flight", 4);
+		int quiet = t.upsert("F1", null, 10_000, 10_000, HolidayCalendar.NO_DAY);
+		int busy = t.upsert("F2", null, 10_000, 10_000, HolidayCalendar.NO_DAY);
+		int tiny = t.upsert("F3", null, 100, 101, HolidayCalendar.NO_DAY);   // 1.1 -> 110, off by 9
+		int unpriced = t.upsert("F4", null, 0, 0, HolidayCalendar.NO_DAY);
+		int atOne = t.upsert("F5", null, 1_000, 1_101, HolidayCalendar.NO_DAY); // 1100, off by one
+		t.setDemand(busy, 12);
+		t.setDemand(tiny, 5);
+		t.setDemand(unpriced, 20);
+		t.setDemand(atOne, 5);
+
+		int[] changed = new int[t.size()];
+		int n = PricingEngine.reprice(t, calendar(), TODAY, 0, t.size(), changed);
+
+		assertEquals(2, n);
+		assertEquals(busy, changed[0]);
+		assertEquals(12_000, t.nextCents(busy));
+		assertEquals(tiny, changed[1]);
+		assertEquals(110, t.nextCents(tiny));
+		assertEquals(0, t.nextCents(quiet));
+	}
+
+	@Test
+	void repriceUsesTheTravelDayAndTodayForRowsWithoutOne() {
+		HolidayCalendar.Snapshot cal = calendar(new PricingCalendar.Rule("xmas", "12-25", null, 20));
+		PriceTable t = new PriceTable("flight", 2);
+		int dated = t.upsert("F1", null, 10_000, 0, CHRISTMAS);
+		int undated = t.upsert("F2", null, 10_000, 0, HolidayCalendar.NO_DAY);
+		t.setDemand(dated, 20);
+
+		int[] changed = new int[t.size()];
+		assertEquals(1, PricingEngine.reprice(t, cal, TODAY, 0, t.size(), changed));
+		assertEquals(dated, changed[0]);
+		assertEquals(15_000, t.nextCents(dated)); // 1.2 + 0.3, capped
+
+		assertEquals(1, PricingEngine.reprice(t, cal, CHRISTMAS, undated, undated + 1, changed));
+		assertEquals(12_000, t.nextCents(undated));
+	}
+
+	@Test
+	void rowsAreStableAcrossLoadsAndMissingProductsLoseTheirBase() {
+		PriceTable t = new PriceTable("room", 1);
+		for (int i = 0; i < 40; i++) t.upsert("R" + i, "H" + (i % 2), 1_000 + i, 0, HolidayCalendar.NO_DAY);
+		assertEquals(40, t.size());
+		assertEquals(20, t.rowsForDemandKey("H0").size());
+
+		t.beginLoad();
+		t.upsert("R7", "H1", 5_000, 5_100, HolidayCalendar.NO_DAY);
+		t.endLoad();
+
+		assertEquals(7, t.rowOf("R7"));
+		assertEquals(5_000, t.baseCents(7));
+		assertEquals(5_100, t.currentCents(7));
+		assertEquals(0, t.baseCents(8));
+		assertEquals(-1, t.rowOf("R40"));
+	}
+
+	@Test
+	void movingARowToAnotherDemandKeyDropsItFromTheOldOne() {
+		PriceTable t = new PriceTable("room", 4);
+		int row = t.upsert("R1", "H1", 1_000, 0, HolidayCalendar.NO_DAY);
+		t.upsert("R1", "H2", 1_000, 0, HolidayCalendar.NO_DAY);
+
+		assertEquals(List.of(), t.rowsForDemandKey("H1"));
+		assertEquals(List.of(row), t.rowsForDemandKey("H2"));
+		assertEquals("H2", t.demandKey(row));
+	}
+}
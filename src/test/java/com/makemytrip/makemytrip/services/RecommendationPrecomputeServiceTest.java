@@ -0,0 +1,185 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Flight;
+import com.makemytrip.makemytrip.models.Hotel;
+import com.makemytrip.makemytrip.models.Recommendation;
+import com.makemytrip.makemytrip.models.UserRecommendations;
+import com.makemytrip.makemytrip.repositories.FlightRepository;
+import com.makemytrip.makemytrip.repositories.UserRecommendationsRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Invalidations racing a recompute, and prices overlaid on stored lists. */
+class RecommendationPrecomputeServiceTest {
+
+	private final Map<String, UserRecommendations> stored = new HashMap<>();
+	private final List<String> flightReads = new ArrayList<>();
+	private final AtomicInteger computed = new AtomicInteger();
+	private final FlightPriceCache priceCache = new FlightPriceCache(64);
+	private final ThemeIndex themeIndex = new ThemeIndex();
+	private final MongoClient client = MongoClients.create("mongodb://localhost:1"); // never connected
+	private final MongoTemplate template = new MongoTemplate(client, "test") {
+		@Override
+		public <T> T findOne(Query query, Class<T> entityClass) {
+			return entityClass.cast(stored.get((String) query.getQueryObject().get("_id")));
+		}
+	};
+
+	/** Runs during the next recommendForUser or store.save. */
+	private Runnable duringCompute = () -> {};
+	private Runnable duringSave = () -> {};
+	private List<Recommendation> next = List.of();
+
+	@AfterEach
+	void close() {
+		client.close();
+	}
+
+	private RecommendationPrecomputeService service() {
+		RecommendationService recommender = new RecommendationService() {
+			@Override
+			public List<Recommendation> recommendForUser(String userId, int maxResults) {
+				computed.incrementAndGet();
+				duringCompute.run();
+				return next;
+			}
+		};
+		UserRecommendationsRepository store = (UserRecommendationsRepository) Proxy.newProxyInstance(
+				UserRecommendationsRepository.class.getClassLoader(), new Class<?>[]{UserRecommendationsRepository.class},
+				(self, method, args) -> switch (method.getName()) {
+					case "findById" -> Optional.ofNullable(stored.get((String) args[0]));
+					case "save" -> {
+						UserRecommendations r = (UserRecommendations) args[0];
+						stored.put(r.getId(), r);
+						duringSave.run();
+						yield r;
+					}
+					case "deleteById" -> {
+						stored.remove((String) args[0]);
+						yield null;
+					}
+					case "deleteAllById" -> {
+						for (Object id : (Iterable<?>) args[0]) stored.remove((String) id);
+						yield null;
+					}
+					default -> throw new UnsupportedOperationException(method.getName());
+				});
+		FlightRepository flights = (FlightRepository) Proxy.newProxyInstance(
+				FlightRepository.class.getClassLoader(), new Class<?>[]{FlightRepository.class},
+				(self, method, args) -> {
+					if (!method.getName().equals("findThemeFieldsByIdIn")) throw new UnsupportedOperationException(method.getName());
+					List<Flight> out = new ArrayList<>();
+					for (Object id : (Collection<?>) args[0]) {
+						flightReads.add((String) id);
+						out.add(flight((String) id, 100.0, 180.0));
+					}
+					return out;
+				});
+		RecommendationPrecomputeService s = new RecommendationPrecomputeService();
+		ReflectionTestUtils.setField(s, "recommendationService", recommender);
+		ReflectionTestUtils.setField(s, "store", store);
+		ReflectionTestUtils.setField(s, "mongoTemplate", template);
+		ReflectionTestUtils.setField(s, "priceCache", priceCache);
+		ReflectionTestUtils.setField(s, "flightRepository", flights);
+		ReflectionTestUtils.setField(s, "themeIndex", themeIndex);
+		ReflectionTestUtils.setField(s, "cacheSize", 2);
+		ReflectionTestUtils.setField(s, "maxAgeMs", 3_600_000L);
+		ReflectionTestUtils.setField(s, "hotUsers", 10);
+		return s;
+	}
+
+	private static Flight flight(String id, double base, double current) {
+		Flight f = new Flight();
+		f.setId(id);
+		f.setBasePrice(base);
+		f.setCurrentPrice(current);
+		return f;
+	}
+
+	private static Recommendation rec(String type, String id, double price) {
+		return new Recommendation(type, id, id, null, null, price, "Popular", 1.0);
+	}
+
+	@Test
+	void anInvalidationDuringTheComputeKeepsTheResultOutOfTheStore() {
+		RecommendationPrecomputeService s = service();
+		next = List.of(rec("hotel", "H1", 0));
+		duringCompute = () -> s.invalidate("U1");
+
+		assertEquals(1, s.recompute("U1", 2).size());
+
+		assertFalse(stored.containsKey("U1"));
+		duringCompute = () -> {};
+		s.get("U1", 2);
+		assertEquals(2, computed.get(), "the next read computes again");
+	}
+
+	@Test
+	void anInvalidationRacingTheWriteDeletesWhatWasWritten() {
+		RecommendationPrecomputeService s = service();
+		next = List.of(rec("hotel", "H1", 0));
+		duringSave = () -> s.invalidateAll(List.of("U1"));
+
+		s.recompute("U1", 2);
+
+		assertFalse(stored.containsKey("U1"));
+		duringSave = () -> {};
+		s.get("U1", 2);
+		assertEquals(2, computed.get());
+	}
+
+	@Test
+	void aFreshStoredListIsServedWithoutComputing() {
+		RecommendationPrecomputeService s = service();
+		next = List.of(rec("hotel", "H1", 0));
+		s.recompute("U1", 2);
+
+		s.get("U1", 2);
+		s.get("U1", 1);
+
+		assertEquals(1, computed.get());
+	}
+
+	@Test
+	void storedPricesAreReplacedByCurrentOnes() {
+		RecommendationPrecomputeService s = service();
+		priceCache.put("F1", 100.0, 150.0);
+		Hotel h = new Hotel();
+		h.setId("H1");
+		h.setPricePerNight(90.0);
+		themeIndex.index(h);
+		next = List.of(rec("flight", "F1", 120.0), rec("hotel", "H1", 80.0), rec("flight", "F2", 110.0));
+		ReflectionTestUtils.setField(s, "cacheSize", 3);
+		s.recompute("U1", 3);
+
+		List<Recommendation> recs = s.get("U1", 3);
+
+		assertEquals(List.of(150.0, 90.0, 180.0), recs.stream().map(Recommendation::getPrice).toList());
+		assertEquals(List.of("F2"), flightReads, "only cache misses are read, with one query");
+		assertTrue(s.getJson("U1", 1).contains("\"price\":150.0"));
+
+		priceCache.put("F1", 100.0, 140.0);
+		assertEquals(140.0, s.get("U1", 3).get(0).getPrice());
+		assertEquals(List.of("F2"), flightReads);
+	}
+
+	@Test
+	void anUnchangedListKeepsItsRecommendations() {
+		RecommendationPrecomputeService s = service();
+		priceCache.put("F1", 100.0, 150.0);
+		List<Recommendation> recs = List.of(rec("flight", "F1", 150.0), rec("hotel", "unknown", 80.0));
+
+		assertSame(recs, s.priced(recs));
+	}
+}
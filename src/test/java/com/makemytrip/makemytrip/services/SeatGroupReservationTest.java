@@ -0,0 +1,104 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Seat;
+import com.makemytrip.makemytrip.models.SeatLayout;
+import com.makemytrip.makemytrip.support.FakeSeatTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** reserveSeats: all or nothing, in the same number of round trips for any party size. */
+class SeatGroupReservationTest {
+
+	private final FakeSeatTemplate mongo = new FakeSeatTemplate();
+
+	@AfterEach
+	void close() {
+		mongo.close();
+	}
+
+	private SeatService node() {
+		SeatService s = new SeatService();
+		ReflectionTestUtils.setField(s, "mongoTemplate", mongo);
+		ReflectionTestUtils.setField(s, "seatRepository", mongo.seatRepository());
+		ReflectionTestUtils.setField(s, "cacheTtlMs", 0L);
+		ReflectionTestUtils.setField(s, "defaultTemplate", SeatLayout.DEFAULT.getName());
+		ReflectionTestUtils.setField(s, "holdTtlMs", 600_000L);
+		return s;
+	}
+
+	private long roundTrips(Runnable call) {
+		long before = mongo.roundTrips.sum();
+		call.run();
+		return mongo.roundTrips.sum() - before;
+	}
+
+	@Test
+	void theWholePartyIsHeldAndTheClaimIsCleared() {
+		List<Seat> seats = node().reserveSeats("F1", List.of("F1-3A", "F1-3B", "F1-3C"), "u1");
+
+		assertEquals(List.of("F1-3A", "F1-3B", "F1-3C"), seats.stream().map(Seat::getId).toList());
+		for (Seat s : seats) {
+			assertTrue(s.isReserved());
+			assertEquals("u1", s.getReservedBy());
+			assertNotNull(s.getHoldUntil());
+			assertNull(s.getClaim());
+			assertNull(mongo.document(s.getId()).get("claim"));
+			assertEquals(1L, ((Number) mongo.document(s.getId()).get("version")).longValue());
+		}
+	}
+
+	@Test
+	void oneTakenSeatFailsThePartyAndReleasesOnlyItsOwnClaims() {
+		SeatService s = node();
+		s.reserveSeat("F1-3B", "u2");
+		s.reserveSeat("F1-3C", "u1");
+
+		IllegalStateException ex = assertThrows(IllegalStateException.class,
+				() -> node().reserveSeats("F1", List.of("F1-3A", "F1-3B", "F1-3C"), "u1"));
+
+		assertEquals("Seat already reserved by another user: F1-3B", ex.getMessage());
+		assertEquals(false, mongo.document("F1-3A").get("reserved"));
+		assertNull(mongo.document("F1-3A").get("claim"));
+		assertEquals("u2", mongo.document("F1-3B").get("reservedBy"));
+		assertEquals(1L, ((Number) mongo.document("F1-3B").get("version")).longValue());
+		assertEquals("u1", mongo.document("F1-3C").get("reservedBy"), "the user's earlier hold stays");
+		assertEquals("u3", s.reserveSeat("F1-3A", "u3").getReservedBy());
+	}
+
+	@Test
+	void aSeatTheUserAlreadyHoldsCounts() {
+		SeatService s = node();
+		Seat earlier = s.reserveSeat("F1-4A", "u1");
+
+		List<Seat> seats = node().reserveSeats("F1", List.of("F1-4A", "F1-4B"), "u1");
+
+		assertEquals(earlier.getVersion(), seats.get(0).getVersion());
+		assertEquals(earlier.getHoldUntil(), seats.get(0).getHoldUntil());
+		assertEquals("u1", seats.get(1).getReservedBy());
+	}
+
+	@Test
+	void roundTripsDoNotGrowWithThePartySize() {
+		SeatService s = node();
+		s.getSeatMap("F1");
+		s.getSeatMap("F2");
+
+		long pair = roundTrips(() -> s.reserveSeats("F1", List.of("F1-1A", "F1-1B"), "u1"));
+		long six = roundTrips(() -> s.reserveSeats("F2", List.of("F2-1A", "F2-1B", "F2-1C", "F2-1D", "F2-1E", "F2-1F"), "u1"));
+
+		assertEquals(pair, six);
+	}
+
+	@Test
+	void seatsOfAnotherFlightAreRejectedBeforeAnyWrite() {
+		SeatService s = node();
+		assertThrows(IllegalArgumentException.class, () -> s.reserveSeats("F1", List.of("F1-1A", "F2-1A"), "u1"));
+		assertThrows(IllegalArgumentException.class, () -> s.reserveSeats("F1", List.of(), "u1"));
+		assertNull(mongo.document("F1-1A"));
+	}
+}
@@ -0,0 +1,99 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Seat;
+import com.makemytrip.makemytrip.models.SeatLayout;
+import com.makemytrip.makemytrip.support.FakeSeatTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Unconfirmed holds lapse after seats.hold.ttl-ms and are released by the timing wheel. */
+class SeatHoldExpiryTest {
+
+	private static final long TTL_MS = 150L;
+
+	private final FakeSeatTemplate mongo = new FakeSeatTemplate();
+	private final List<SeatService> started = new ArrayList<>();
+	private final BlockingQueue<Seat> released = new LinkedBlockingQueue<>();
+
+	@AfterEach
+	void stop() {
+		started.forEach(SeatService::stop);
+		mongo.close();
+	}
+
+	private SeatService node(boolean wheel) {
+		SeatService s = new SeatService();
+		ReflectionTestUtils.setField(s, "mongoTemplate", mongo);
+		ReflectionTestUtils.setField(s, "seatRepository", mongo.seatRepository());
+		ReflectionTestUtils.setField(s, "cacheTtlMs", 0L);
+		ReflectionTestUtils.setField(s, "defaultTemplate", SeatLayout.DEFAULT.getName());
+		ReflectionTestUtils.setField(s, "holdTtlMs", TTL_MS);
+		ReflectionTestUtils.setField(s, "holdTickMs", 10L);
+		if (wheel) {
+			s.start();
+			started.add(s);
+		}
+		s.addChangeListener(released::add);
+		return s;
+	}
+
+	@Test
+	void aLapsedHoldIsReleasedAndReported() throws Exception {
+		SeatService s = node(true);
+		Seat held = s.reserveSeat("F1-2B", "u1");
+		assertNotNull(held.getHoldUntil());
+
+		Seat freed = released.poll(5, TimeUnit.SECONDS);
+
+		assertNotNull(freed, "the wheel releases the hold");
+		assertEquals("F1-2B", freed.getId());
+		assertFalse(freed.isReserved());
+		assertTrue(System.currentTimeMillis() >= held.getHoldUntil().getTime());
+		assertEquals(false, mongo.document("F1-2B").get("reserved"));
+		assertEquals(held.getVersion() + 1, ((Number) mongo.document("F1-2B").get("version")).longValue());
+	}
+
+	@Test
+	void aConfirmedHoldIsNotReleased() throws Exception {
+		SeatService s = node(true);
+		s.reserveSeat("F1-2B", "u1");
+		Seat confirmed = s.confirmSeat("F1-2B", "u1");
+
+		assertNull(released.poll(TTL_MS * 4, TimeUnit.MILLISECONDS));
+		assertEquals(true, mongo.document("F1-2B").get("reserved"));
+		assertEquals(confirmed.getVersion(), ((Number) mongo.document("F1-2B").get("version")).longValue());
+	}
+
+	@Test
+	void aLapsedHoldIsFreeBeforeAnyWheelGetsToIt() throws Exception {
+		SeatService s = node(false);
+		s.reserveSeat("F1-2B", "u1");
+		assertThrows(IllegalStateException.class, () -> s.reserveSeat("F1-2B", "u2"));
+
+		Thread.sleep(TTL_MS + 20);
+
+		assertFalse(s.getSeatMap("F1").stream().filter(x -> x.getId().equals("F1-2B")).findFirst().orElseThrow().isReserved(),
+				"a lapsed hold shows free");
+		assertEquals("u2", s.reserveSeat("F1-2B", "u2").getReservedBy());
+	}
+
+	@Test
+	void anOldDeadlineDoesNotReleaseTheNextHolder() throws Exception {
+		SeatService s = node(true);
+		s.reserveSeat("F1-2B", "u1");
+		s.releaseSeat("F1-2B", "u1");
+		s.confirmSeat("F1-2B", "u2");
+
+		assertNull(released.poll(TTL_MS * 4, TimeUnit.MILLISECONDS));
+		assertEquals("u2", mongo.document("F1-2B").get("reservedBy"));
+	}
+}
@@ -0,0 +1,143 @@
+package com.makemytrip.makemytrip.services;
+
+import com.makemytrip.makemytrip.models.Seat;
+import com.makemytrip.makemytrip.models.SeatLayout;
+import com.makemytrip.makemytrip.support.FakeSeatTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Reserve, confirm and release through the conditional writes, seen from several nodes. */
+class SeatServiceTest {
+
+	private final FakeSeatTemplate mongo = new FakeSeatTemplate();
+
+	@AfterEach
+	void close() {
+		mongo.close();
+	}
+
+	/** One node: its own cache over the shared seats collection. */
+	private SeatService node() {
+		SeatService s = new SeatService();
+		ReflectionTestUtils.setField(s, "mongoTemplate", mongo);
+		ReflectionTestUtils.setField(s, "seatRepository", mongo.seatRepository());
+		ReflectionTestUtils.setField(s, "cacheTtlMs", 0L); // no change stream here: every read goes to the store
+		ReflectionTestUtils.setField(s, "defaultTemplate", SeatLayout.DEFAULT.getName());
+		ReflectionTestUtils.setField(s, "holdTtlMs", 600_000L); // holds, but no expiry wheel: start() is not called
+		return s;
+	}
+
+	@Test
+	void aFlightWithoutSeatDocumentsIsFlownWithTheDefaultTemplate() {
+		SeatService s = node();
+		assertSame(SeatLayout.DEFAULT, s.getLayout("F1"));
+		assertEquals(SeatLayout.DEFAULT.size(), s.getSeatMap("F1").size());
+		assertNull(mongo.document("F1-1A"), "reading writes nothing");
+	}
+
+	@Test
+	void noDefaultTemplateMeansNoSeats() {
+		SeatService s = node();
+		ReflectionTestUtils.setField(s, "defaultTemplate", "");
+		assertNull(s.getLayout("F1"));
+		assertThrows(IllegalStateException.class, () -> s.reserveSeat("F1-1A", "u1"));
+	}
+
+	@Test
+	void reserveWorksOnANodeThatNeverServedTheSeatMap() {
+		Seat seat = node().reserveSeat("F1-12C", "u1");
+
+		assertTrue(seat.isReserved());
+		assertEquals("u1", seat.getReservedBy());
+		assertEquals(1, seat.getVersion());
+		assertEquals(SeatLayout.DEFAULT.getName(), mongo.document("F1-12C").get("layout"));
+		assertEquals("F1", mongo.document("F1-12C").get("flightId"));
+	}
+
+	@Test
+	void aSeatHeldOnOneNodeIsRefusedOnAnother() {
+		SeatService a = node();
+		SeatService b = node();
+		a.reserveSeat("F1-3A", "u1");
+
+		IllegalStateException ex = assertThrows(IllegalStateException.class, () -> b.reserveSeat("F1-3A", "u2"));
+		assertEquals("Seat already reserved by another user", ex.getMessage());
+		assertEquals("u1", b.getSeatMap("F1").stream()
+				.filter(x -> x.getId().equals("F1-3A")).findFirst().orElseThrow().getReservedBy());
+	}
+
+	@Test
+	void reservingAgainIsIdempotentForTheHolder() {
+		SeatService s = node();
+		Seat first = s.reserveSeat("F1-3A", "u1");
+		Seat again = node().reserveSeat("F1-3A", "u1");
+
+		assertEquals(first.getVersion(), again.getVersion());
+		assertEquals("u1", again.getReservedBy());
+		assertEquals(first.getHoldUntil(), again.getHoldUntil());
+	}
+
+	@Test
+	void onlyTheHolderReleases() {
+		SeatService s = node();
+		s.reserveSeat("F1-3A", "u1");
+
+		assertEquals("Seat reserved by another user",
+				assertThrows(IllegalStateException.class, () -> s.releaseSeat("F1-3A", "u2")).getMessage());
+		Seat released = node().releaseSeat("F1-3A", "u1");
+
+		assertFalse(released.isReserved());
+		assertNull(released.getReservedBy());
+		assertEquals(2, released.getVersion());
+		assertEquals("Seat is not reserved",
+				assertThrows(IllegalStateException.class, () -> s.releaseSeat("F1-3A", "u1")).getMessage());
+		assertEquals("u2", s.reserveSeat("F1-3A", "u2").getReservedBy());
+	}
+
+	@Test
+	void confirmTakesTheUsersHoldOrAFreeSeatButNotAnotherUsers() {
+		SeatService s = node();
+		s.reserveSeat("F1-4B", "u1");
+
+		Seat confirmed = s.confirmSeat("F1-4B", "u1");
+		assertTrue(confirmed.isReserved());
+		assertNull(confirmed.getHoldUntil());
+		assertEquals(2, confirmed.getVersion());
+
+		assertThrows(IllegalStateException.class, () -> s.confirmSeat("F1-4B", "u2"));
+		assertEquals("u2", s.confirmSeat("F1-4C", "u2").getReservedBy());
+	}
+
+	@Test
+	void aRestartedNodeReadsTheStoredSeats() {
+		SeatService s = node();
+		s.reserveSeat("F1-5D", "u1");
+		Seat custom = new Seat();
+		custom.setId("F1-X1");
+		custom.setFlightId("F1");
+		custom.setRow("21");
+		custom.setCol("A");
+		custom.setCategory("EXIT_ROW");
+		s.saveSeat(custom);
+
+		SeatService restarted = node();
+		Map<String, Object> compact = restarted.getCompactSeatMap("F1");
+
+		assertEquals(SeatLayout.DEFAULT.size() + 1, compact.get("seats"));
+		assertTrue(((Map<?, ?>) compact.get("reservedBy")).containsValue("u1"));
+		assertEquals("F1", restarted.reserveSeat("F1-X1", "u2").getFlightId());
+		assertThrows(IllegalStateException.class, () -> restarted.reserveSeat("F1-5D", "u2"));
+	}
+
+	@Test
+	void unknownSeatsAreNotFound() {
+		SeatService s = node();
+		assertEquals("Seat not found", assertThrows(IllegalStateException.class, () -> s.reserveSeat("F1-99Z", "u1")).getMessage());
+		assertThrows(IllegalStateException.class, () -> s.releaseSeat("nodash", "u1"));
+	}
+}
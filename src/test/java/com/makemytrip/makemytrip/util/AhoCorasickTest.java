@@ -0,0 +1,119 @@
+package com.makemytrip.makemytrip.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AhoCorasickTest {
+
+	/** The shipped keyword table: keywords.get(bit) are the keywords of theme bit. */
+	private static List<List<String>> themeKeywords() throws Exception {
+		List<List<String>> themes = new ArrayList<>();
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(
+				AhoCorasickTest.class.getResourceAsStream("/themes.txt"), StandardCharsets.UTF_8))) {
+			for (String line; (line = in.readLine()) != null; ) {
+				line = line.trim();
+				if (line.isEmpty() || line.startsWith("#")) continue;
+				List<String> keywords = new ArrayList<>();
+				for (String k : line.substring(line.indexOf(':') + 1).split(",")) keywords.add(k.trim());
+				themes.add(keywords);
+			}
+		}
+		return themes;
+	}
+
+	private static AhoCorasick compile(List<List<String>> themes) {
+		AhoCorasick.Builder b = AhoCorasick.builder();
+		for (int bit = 0; bit < themes.size(); bit++) {
+			for (String k : themes.get(bit)) b.add(k, bit);
+		}
+		return b.build();
+	}
+
+	// what ThemeIndex did before the automaton: lower-case the text, contains() per keyword
+	private static long containsMask(List<List<String>> themes, String text) {
+		String lower = text.toLowerCase(Locale.ROOT);
+		long mask = 0L;
+		for (int bit = 0; bit < themes.size(); bit++) {
+			for (String k : themes.get(bit)) {
+				if (lower.contains(k)) mask |= 1L << bit;
+			}
+		}
+		return mask;
+	}
+
+	@Test
+	void matchesLikeContainsOnRandomText() throws Exception {
+		List<List<String>> themes = themeKeywords();
+		AhoCorasick matcher = compile(themes);
+		List<String> all = new ArrayList<>();
+		themes.forEach(all::addAll);
+		String filler = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ -5,.";
+		Random random = new Random(42);
+
+		for (int n = 0; n < 200_000; n++) {
+			StringBuilder sb = new StringBuilder();
+			int parts = random.nextInt(6);
+			for (int p = 0; p < parts; p++) {
+				if (random.nextBoolean()) {
+					// a keyword, often cut short or in mixed case, so near misses are covered too
+					String k = all.get(random.nextInt(all.size()));
+					k = k.substring(0, 1 + random.nextInt(k.length()));
+					for (char c : k.toCharArray()) sb.append(random.nextInt(3) == 0 ? Character.toUpperCase(c) : c);
+				} else {
+					for (int i = random.nextInt(5); i > 0; i--) sb.append(filler.charAt(random.nextInt(filler.length())));
+				}
+			}
+			String text = sb.toString();
+			assertEquals(containsMask(themes, text), matcher.match(text), () -> "text: \"" + text + "\"");
+		}
+	}
+
+	@Test
+	void reportsOverlappingAndNestedKeywords() {
+		AhoCorasick matcher = AhoCorasick.builder()
+				.add("he", 0).add("she", 1).add("hers", 2).add("his", 3)
+				.build();
+		assertEquals(0b0111L, matcher.match("ushers"));
+		assertEquals(0b1000L, matcher.match("this"));
+		assertEquals(0L, matcher.match("hx"));
+	}
+
+	@Test
+	void isCaseInsensitiveBothWays() {
+		AhoCorasick matcher = AhoCorasick.builder().add("Beach", 0).add("café", 1).build();
+		assertEquals(1L, matcher.match("BEACH resort"));
+		assertEquals(1L, matcher.match("beach"));
+		assertEquals(2L, matcher.match("CAFÉ"));
+	}
+
+	@Test
+	void keywordMayReportSeveralBits() {
+		AhoCorasick matcher = AhoCorasick.builder().add("spa", 2).add("spa", 5).build();
+		assertEquals((1L << 2) | (1L << 5), matcher.match("day spa"));
+	}
+
+	@Test
+	void nullAndEmptyTextMatchNothing() {
+		AhoCorasick matcher = AhoCorasick.builder().add("sea", 0).build();
+		assertEquals(0L, matcher.match(null));
+		assertEquals(0L, matcher.match(""));
+	}
+
+	@Test
+	void rejectsBadKeywordsAndBits() {
+		AhoCorasick.Builder b = AhoCorasick.builder();
+		assertThrows(IllegalArgumentException.class, () -> b.add("", 0));
+		assertThrows(IllegalArgumentException.class, () -> b.add(null, 0));
+		assertThrows(IllegalArgumentException.class, () -> b.add("sea", 64));
+		assertThrows(IllegalArgumentException.class, () -> b.add("sea", -1));
+	}
+}
@@ -0,0 +1,81 @@
+package com.makemytrip.makemytrip.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+	private HashedTimingWheel<String> wheel;
+
+	@AfterEach
+	void stop() {
+		if (wheel != null) wheel.stop();
+	}
+
+	@Test
+	void firesEachKeyOnceNotBeforeItsDeadline() throws Exception {
+		int n = 2_000;
+		Map<String, Long> firedAt = new ConcurrentHashMap<>();
+		CountDownLatch done = new CountDownLatch(n);
+		// few slots, so most timeouts wait out several rounds of the wheel
+		wheel = new HashedTimingWheel<>("test-wheel", 5L, 8, key -> {
+			assertNull(firedAt.put(key, System.currentTimeMillis()), "fired twice: " + key);
+			done.countDown();
+		});
+		long start = System.currentTimeMillis();
+		Map<String, Long> deadlines = new ConcurrentHashMap<>();
+		for (int i = 0; i < n; i++) {
+			long deadline = start + (i % 200);
+			deadlines.put("k" + i, deadline);
+			wheel.scheduleAt("k" + i, deadline);
+		}
+		assertTrue(done.await(10, TimeUnit.SECONDS), "not all timeouts fired");
+		deadlines.forEach((key, deadline) -> assertTrue(firedAt.get(key) >= deadline, key + " fired early"));
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void cancelledTimeoutsDoNotFire() throws Exception {
+		Set<String> fired = ConcurrentHashMap.newKeySet();
+		CountDownLatch kept = new CountDownLatch(1);
+		wheel = new HashedTimingWheel<>("test-wheel", 5L, 64, key -> {
+			fired.add(key);
+			if (key.equals("kept")) kept.countDown();
+		});
+		HashedTimingWheel<String>.Timeout cancelled = wheel.schedule("cancelled", 50, TimeUnit.MILLISECONDS);
+		wheel.schedule("kept", 100, TimeUnit.MILLISECONDS);
+		assertEquals(2, wheel.size());
+
+		assertTrue(cancelled.cancel());
+		assertFalse(cancelled.cancel());
+		assertTrue(cancelled.isCancelled());
+		assertTrue(kept.await(5, TimeUnit.SECONDS));
+		assertEquals(Set.of("kept"), fired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	void aThrowingCallbackDoesNotStopTheWheel() throws Exception {
+		CountDownLatch second = new CountDownLatch(1);
+		wheel = new HashedTimingWheel<>("test-wheel", 5L, 16, key -> {
+			if (key.equals("bad")) throw new IllegalStateException("boom");
+			second.countDown();
+		});
+		wheel.schedule("bad", 10, TimeUnit.MILLISECONDS);
+		wheel.schedule("good", 40, TimeUnit.MILLISECONDS);
+		assertTrue(second.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void rejectsNonPositiveTick() {
+		assertThrows(IllegalArgumentException.class, () -> new HashedTimingWheel<String>("bad", 0L, 8, key -> {}));
+	}
+}
@@ -0,0 +1,46 @@
+package com.makemytrip.makemytrip.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongFloatHashMapTest {
+
+	@Test
+	void accumulatesLikeAHashMapThroughResizes() {
+		LongFloatHashMap map = new LongFloatHashMap(4); // grows many times
+		Map<Long, Float> reference = new HashMap<>();
+		Random random = new Random(11);
+		for (int i = 0; i < 100_000; i++) {
+			// clustered keys, as pair keys (a << 32 | b) are
+			long key = ((long) random.nextInt(300) << 32) | random.nextInt(300);
+			float delta = random.nextInt(5) + 0.5f;
+			map.add(key, delta);
+			reference.merge(key, delta, Float::sum);
+		}
+		assertEquals(reference.size(), map.size());
+		reference.forEach((k, v) -> assertEquals(v, map.get(k), 0.0f));
+
+		Map<Long, Float> visited = new HashMap<>();
+		map.forEach((k, v) -> assertNull(visited.put(k, v), "key visited twice"));
+		assertEquals(reference, visited);
+	}
+
+	@Test
+	void missingKeysReadAsZero() {
+		LongFloatHashMap map = new LongFloatHashMap(16);
+		map.add(0L, 1.5f);
+		assertEquals(1.5f, map.get(0L));
+		assertEquals(0f, map.get(1L));
+		assertEquals(0f, map.get(Long.MAX_VALUE));
+	}
+
+	@Test
+	void rejectsNegativeKeys() {
+		assertThrows(IllegalArgumentException.class, () -> new LongFloatHashMap(16).add(-1L, 1f));
+	}
+}
@@ -0,0 +1,67 @@
+package com.makemytrip.makemytrip.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+	@Test
+	void keepsTheKBestLikeAFullSort() {
+		Random random = new Random(7);
+		for (int round = 0; round < 200; round++) {
+			int k = random.nextInt(12);
+			int n = random.nextInt(300);
+			TopK<Integer> top = new TopK<>(k);
+			List<double[]> all = new ArrayList<>();
+			for (int i = 0; i < n; i++) {
+				double score = random.nextInt(50); // plenty of ties
+				top.offer(i, score);
+				all.add(new double[]{i, score});
+			}
+			// best first, equal scores in offer order
+			all.sort(Comparator.<double[]>comparingDouble(a -> -a[1]).thenComparingDouble(a -> a[0]));
+			List<TopK.Scored<Integer>> ranked = top.ranked();
+			assertEquals(Math.min(k, n), ranked.size());
+			for (int i = 0; i < ranked.size(); i++) {
+				assertEquals((int) all.get(i)[0], ranked.get(i).item());
+				assertEquals(all.get(i)[1], ranked.get(i).score());
+			}
+		}
+	}
+
+	@Test
+	void tiesKeepTheItemOfferedFirst() {
+		TopK<String> top = new TopK<>(2);
+		assertTrue(top.offer("a", 1.0));
+		assertTrue(top.offer("b", 1.0));
+		assertFalse(top.offer("c", 1.0));
+		assertEquals(List.of("a", "b"), top.ranked().stream().map(TopK.Scored::item).toList());
+	}
+
+	@Test
+	void thresholdIsOpenUntilFull() {
+		TopK<String> top = new TopK<>(2);
+		assertEquals(Double.NEGATIVE_INFINITY, top.threshold());
+		top.offer("a", 3.0);
+		assertEquals(Double.NEGATIVE_INFINITY, top.threshold());
+		top.offer("b", 5.0);
+		assertEquals(3.0, top.threshold());
+		top.offer("c", 4.0);
+		assertEquals(4.0, top.threshold());
+		assertEquals(2, top.size());
+	}
+
+	@Test
+	void zeroOrNegativeKKeepsNothing() {
+		assertFalse(new TopK<String>(0).offer("a", 1.0));
+		TopK<String> negative = new TopK<>(-3);
+		assertFalse(negative.offer("a", 1.0));
+		assertTrue(negative.ranked().isEmpty());
+	}
+}
@@ -0,0 +1,252 @@
+package com.makemytrip.makemytrip.support;
+
+import com.makemytrip.makemytrip.models.Seat;
+import com.makemytrip.makemytrip.repositories.SeatRepository;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * MongoTemplate holding the seats collection in memory, so SeatService runs the same
+ * conditional writes it runs against a server. Each document is replaced under its
+ * key's lock, the way a single-document write is atomic in Mongo; an updateMulti is a
+ * series of such writes in _id order.
+ *
+ * Only what SeatService sends is understood: findAndModify, find, updateMulti and bulk
+ * upserts on an _id equality or $in, plus equality, $ne, $lte, $in and $or in queries;
+ * $set, $setOnInsert, $inc and $unset in updates. An upsert whose _id exists but does
+ * not match fails with a duplicate key, as on a server. Anything else fails loudly.
+ * The client is never used for I/O.
+ *
+ * Shared by the SeatService tests and SeatBenchmark (src/test/support/java is a test
+ * source root of the application and a source root of the benchmarks module).
+ */
+public final class FakeSeatTemplate extends MongoTemplate implements AutoCloseable {
+
+    /** Calls that would each be one round trip to a server, the seat repository's included. */
+    public final LongAdder roundTrips = new LongAdder();
+
+    private final MongoClient client;
+    private final ConcurrentHashMap<String, Document> seats = new ConcurrentHashMap<>();
+
+    public FakeSeatTemplate() {
+        this(MongoClients.create("mongodb://localhost:1"));
+    }
+
+    private FakeSeatTemplate(MongoClient client) {
+        super(client, "fake");
+        this.client = client;
+    }
+
+    /** Stops the unused client's server monitor. */
+    @Override
+    public void close() {
+        client.close();
+    }
+
+    /** SeatRepository reading the same documents (findById, findByFlightId). */
+    public SeatRepository seatRepository() {
+        return (SeatRepository) Proxy.newProxyInstance(SeatRepository.class.getClassLoader(),
+                new Class<?>[]{SeatRepository.class}, (self, method, args) -> {
+                    roundTrips.increment();
+                    return switch (method.getName()) {
+                        case "findById" -> Optional.ofNullable(seats.get((String) args[0])).map(this::read);
+                        case "findByFlightId" -> seats.values().stream()
+                                .filter(d -> args[0].equals(d.get("flightId")))
+                                .map(this::read)
+                                .toList();
+                        default -> throw new UnsupportedOperationException("seatRepository." + method.getName());
+                    };
+                });
+    }
+
+    /** The stored document of a seat, or null. */
+    public Document document(String seatId) {
+        return seats.get(seatId);
+    }
+
+    @Override
+    public <T> List<T> find(Query query, Class<T> entityClass) {
+        seatsOnly(entityClass);
+        roundTrips.increment();
+        Document q = query.getQueryObject();
+        List<T> out = new ArrayList<>();
+        for (String id : ids(q)) {
+            Document doc = seats.get(id);
+            if (doc != null && matches(doc, q)) out.add(entityClass.cast(read(doc)));
+        }
+        return out;
+    }
+
+    @Override
+    public UpdateResult updateMulti(Query query, UpdateDefinition update, Class<?> entityClass) {
+        seatsOnly(entityClass);
+        roundTrips.increment();
+        Document q = query.getQueryObject();
+        Document u = update.getUpdateObject();
+        long[] modified = {0};
+        for (String id : ids(q)) {
+            seats.computeIfPresent(id, (k, doc) -> {
+                if (!matches(doc, q)) return doc;
+                Document next = new Document(doc);
+                apply(next, u, false);
+                modified[0]++;
+                return next;
+            });
+        }
+        return UpdateResult.acknowledged(modified[0], modified[0], null);
+    }
+
+    /** Unordered bulk of _id upserts, run one by one on execute(). */
+    @Override
+    public BulkOperations bulkOps(BulkOperations.BulkMode mode, Class<?> entityClass) {
+        seatsOnly(entityClass);
+        List<Runnable> ops = new ArrayList<>();
+        return (BulkOperations) Proxy.newProxyInstance(BulkOperations.class.getClassLoader(),
+                new Class<?>[]{BulkOperations.class}, (self, method, args) -> {
+                    switch (method.getName()) {
+                        case "upsert" -> {
+                            if (!(args[0] instanceof Query q) || !(args[1] instanceof UpdateDefinition u)) {
+                                throw new UnsupportedOperationException("upsert of " + Arrays.toString(args));
+                            }
+                            ops.add(() -> modify(q, u, FindAndModifyOptions.options().upsert(true)));
+                            return self;
+                        }
+                        case "execute" -> {
+                            roundTrips.increment();
+                            ops.forEach(Runnable::run);
+                            return null;
+                        }
+                        default -> throw new UnsupportedOperationException("bulk " + method.getName());
+                    }
+                });
+    }
+
+    @Override
+    public <T> T findAndModify(Query query, UpdateDefinition update, FindAndModifyOptions options, Class<T> entityClass) {
+        seatsOnly(entityClass);
+        roundTrips.increment();
+        Document out = modify(query, update, options);
+        return out == null ? null : entityClass.cast(read(out));
+    }
+
+    /** One conditional single-document write; the document to return, or null. */
+    private Document modify(Query query, UpdateDefinition update, FindAndModifyOptions options) {
+        Document q = query.getQueryObject();
+        if (!(q.get("_id") instanceof String id)) throw new UnsupportedOperationException("no _id equality in " + q);
+        Document u = update.getUpdateObject();
+        Document[] out = new Document[1];
+        boolean[] duplicate = {false};
+        seats.compute(id, (k, doc) -> {
+            if (doc == null ? !options.isUpsert() : !matches(doc, q)) {
+                duplicate[0] = doc != null && options.isUpsert();
+                return doc;
+            }
+            // documents are never changed once stored, so readers need no lock
+            Document next = doc == null ? seed(q) : new Document(doc);
+            apply(next, u, doc == null);
+            out[0] = options.isReturnNew() ? next : doc;
+            return next;
+        });
+        if (duplicate[0]) throw new DuplicateKeyException("E11000 duplicate key error: _id " + id);
+        return out[0];
+    }
+
+    private static void seatsOnly(Class<?> entityClass) {
+        if (entityClass != Seat.class) throw new UnsupportedOperationException("only seats are faked");
+    }
+
+    /** The _id values of an _id equality or $in, in index order. */
+    private static Collection<String> ids(Document q) {
+        Object id = q.get("_id");
+        if (id instanceof String s) return List.of(s);
+        if (id instanceof Document d && d.size() == 1 && d.get("$in") instanceof Collection<?> in) {
+            SortedSet<String> out = new TreeSet<>();
+            for (Object v : in) out.add((String) v);
+            return out;
+        }
+        throw new UnsupportedOperationException("no _id equality or $in in " + q);
+    }
+
+    private Seat read(Document doc) {
+        return getConverter().read(Seat.class, doc);
+    }
+
+    /** The document an upsert starts from: the query's top-level equalities. */
+    private static Document seed(Document q) {
+        Document doc = new Document();
+        for (Map.Entry<String, Object> e : q.entrySet()) {
+            if (!e.getKey().startsWith("$") && !(e.getValue() instanceof Document)) doc.put(e.getKey(), e.getValue());
+        }
+        return doc;
+    }
+
+    private static boolean matches(Document doc, Document q) {
+        for (Map.Entry<String, Object> e : q.entrySet()) {
+            if (e.getKey().equals("$or")) {
+                boolean any = false;
+                for (Object branch : (List<?>) e.getValue()) any |= matches(doc, (Document) branch);
+                if (!any) return false;
+            } else if (e.getKey().startsWith("$")) {
+                throw new UnsupportedOperationException(e.getKey());
+            } else if (!matches(doc.get(e.getKey()), e.getValue())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(Object value, Object condition) {
+        if (!(condition instanceof Document ops)) return same(value, condition);
+        for (Map.Entry<String, Object> op : ops.entrySet()) {
+            boolean ok = switch (op.getKey()) {
+                case "$ne" -> !same(value, op.getValue());
+                case "$lte" -> value != null && op.getValue() != null && compare(value, op.getValue()) <= 0;
+                case "$in" -> ((Collection<?>) op.getValue()).stream().anyMatch(v -> same(value, v));
+                default -> throw new UnsupportedOperationException(op.getKey());
+            };
+            if (!ok) return false;
+        }
+        return true;
+    }
+
+    private static void apply(Document doc, Document u, boolean inserting) {
+        for (Map.Entry<String, Object> e : u.entrySet()) {
+            Document fields = (Document) e.getValue();
+            switch (e.getKey()) {
+                case "$set" -> doc.putAll(fields);
+                case "$setOnInsert" -> {
+                    if (inserting) doc.putAll(fields);
+                }
+                case "$unset" -> fields.keySet().forEach(doc::remove);
+                case "$inc" -> fields.forEach((k, by) -> {
+                    Object v = doc.get(k);
+                    doc.put(k, (v == null ? 0L : ((Number) v).longValue()) + ((Number) by).longValue());
+                });
+                default -> throw new UnsupportedOperationException(e.getKey());
+            }
+        }
+    }
+
+    private static boolean same(Object a, Object b) {
+        if (a instanceof Number x && b instanceof Number y) return x.longValue() == y.longValue();
+        return Objects.equals(a, b);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compare(Object a, Object b) {
+        return ((Comparable) a).compareTo(b);
+    }
+}